@@ -0,0 +1,185 @@
+-- Benchmark dos índices compostos (H2, modo Oracle)
+-- Uso: executar após o schema.sql em uma base H2 vazia, enviando o script pela entrada do Shell (sem as
+-- linhas de comentário), que exibe o tempo de cada comando:
+--   java -cp h2.jar org.h2.tools.Shell -url "jdbc:h2:./bench;MODE=Oracle" -user sa -sql "RUNSCRIPT FROM 'schema.sql'"
+--   grep -v '^--' benchmark_indices.sql | java -cp h2.jar org.h2.tools.Shell -url "jdbc:h2:./bench;MODE=Oracle" -user sa
+-- O EXPLAIN ANALYZE mostra o plano e as linhas lidas.
+-- Massa: 10.000 clientes, 20.000 contas e 10.000.000 de movimentações distribuídas em 5 anos.
+
+-- 1. Massa de dados, carregada sem os índices compostos (mais rápido) e em blocos de 1.000.000 de
+--    movimentações, um commit por bloco (em uma única transação o H2 acumula 10M linhas de undo)
+DROP INDEX IDX_MOVIMENTACAO_CONTA_DATA;
+DROP INDEX UK_RECEITA_XPTO_CLIENTE_PERIODO;
+DROP INDEX IDX_CONTA_CLIENTE_EXCLUSAO;
+
+INSERT INTO CLIENTE (ID, NOME, TIPO_PESSOA, CPF, DATA_CADASTRO)
+SELECT X, 'Cliente ' || X, 'PF', NULL, TIMESTAMP '2020-01-01 00:00:00'
+FROM SYSTEM_RANGE(1, 10000);
+
+INSERT INTO CONTA (ID, CLIENTE_ID, NUMERO_CONTA, AGENCIA, INSTITUICAO_FINANCEIRA, SALDO_INICIAL, DATA_ABERTURA,
+                   EXCLUSAO_LOGICA, SALDO_ATUAL, QTD_CREDITOS, QTD_DEBITOS)
+SELECT X, MOD(X - 1, 10000) + 1, 'C' || X, '0001', 'Banco XPTO', 0, TIMESTAMP '2020-01-01 00:00:00',
+       FALSE, 0, 0, 0
+FROM SYSTEM_RANGE(1, 20000);
+
+INSERT INTO MOVIMENTACAO (ID, CONTA_ID, DATA_MOVIMENTACAO, TIPO, VALOR, DESCRICAO)
+SELECT X,
+       MOD(X * 7919, 20000) + 1,
+       DATEADD('SECOND', MOD(X * 104729, 157680000), TIMESTAMP '2020-01-01 00:00:00'),
+       CASE WHEN MOD(X, 3) = 0 THEN 'DEBITO' ELSE 'CREDITO' END,
+       MOD(X, 100000) / 100.0,
+       'Carga benchmark'
+FROM SYSTEM_RANGE(1, 1000000);
+
+INSERT INTO MOVIMENTACAO (ID, CONTA_ID, DATA_MOVIMENTACAO, TIPO, VALOR, DESCRICAO)
+SELECT X,
+       MOD(X * 7919, 20000) + 1,
+       DATEADD('SECOND', MOD(X * 104729, 157680000), TIMESTAMP '2020-01-01 00:00:00'),
+       CASE WHEN MOD(X, 3) = 0 THEN 'DEBITO' ELSE 'CREDITO' END,
+       MOD(X, 100000) / 100.0,
+       'Carga benchmark'
+FROM SYSTEM_RANGE(1000001, 2000000);
+
+INSERT INTO MOVIMENTACAO (ID, CONTA_ID, DATA_MOVIMENTACAO, TIPO, VALOR, DESCRICAO)
+SELECT X,
+       MOD(X * 7919, 20000) + 1,
+       DATEADD('SECOND', MOD(X * 104729, 157680000), TIMESTAMP '2020-01-01 00:00:00'),
+       CASE WHEN MOD(X, 3) = 0 THEN 'DEBITO' ELSE 'CREDITO' END,
+       MOD(X, 100000) / 100.0,
+       'Carga benchmark'
+FROM SYSTEM_RANGE(2000001, 3000000);
+
+INSERT INTO MOVIMENTACAO (ID, CONTA_ID, DATA_MOVIMENTACAO, TIPO, VALOR, DESCRICAO)
+SELECT X,
+       MOD(X * 7919, 20000) + 1,
+       DATEADD('SECOND', MOD(X * 104729, 157680000), TIMESTAMP '2020-01-01 00:00:00'),
+       CASE WHEN MOD(X, 3) = 0 THEN 'DEBITO' ELSE 'CREDITO' END,
+       MOD(X, 100000) / 100.0,
+       'Carga benchmark'
+FROM SYSTEM_RANGE(3000001, 4000000);
+
+INSERT INTO MOVIMENTACAO (ID, CONTA_ID, DATA_MOVIMENTACAO, TIPO, VALOR, DESCRICAO)
+SELECT X,
+       MOD(X * 7919, 20000) + 1,
+       DATEADD('SECOND', MOD(X * 104729, 157680000), TIMESTAMP '2020-01-01 00:00:00'),
+       CASE WHEN MOD(X, 3) = 0 THEN 'DEBITO' ELSE 'CREDITO' END,
+       MOD(X, 100000) / 100.0,
+       'Carga benchmark'
+FROM SYSTEM_RANGE(4000001, 5000000);
+
+INSERT INTO MOVIMENTACAO (ID, CONTA_ID, DATA_MOVIMENTACAO, TIPO, VALOR, DESCRICAO)
+SELECT X,
+       MOD(X * 7919, 20000) + 1,
+       DATEADD('SECOND', MOD(X * 104729, 157680000), TIMESTAMP '2020-01-01 00:00:00'),
+       CASE WHEN MOD(X, 3) = 0 THEN 'DEBITO' ELSE 'CREDITO' END,
+       MOD(X, 100000) / 100.0,
+       'Carga benchmark'
+FROM SYSTEM_RANGE(5000001, 6000000);
+
+INSERT INTO MOVIMENTACAO (ID, CONTA_ID, DATA_MOVIMENTACAO, TIPO, VALOR, DESCRICAO)
+SELECT X,
+       MOD(X * 7919, 20000) + 1,
+       DATEADD('SECOND', MOD(X * 104729, 157680000), TIMESTAMP '2020-01-01 00:00:00'),
+       CASE WHEN MOD(X, 3) = 0 THEN 'DEBITO' ELSE 'CREDITO' END,
+       MOD(X, 100000) / 100.0,
+       'Carga benchmark'
+FROM SYSTEM_RANGE(6000001, 7000000);
+
+INSERT INTO MOVIMENTACAO (ID, CONTA_ID, DATA_MOVIMENTACAO, TIPO, VALOR, DESCRICAO)
+SELECT X,
+       MOD(X * 7919, 20000) + 1,
+       DATEADD('SECOND', MOD(X * 104729, 157680000), TIMESTAMP '2020-01-01 00:00:00'),
+       CASE WHEN MOD(X, 3) = 0 THEN 'DEBITO' ELSE 'CREDITO' END,
+       MOD(X, 100000) / 100.0,
+       'Carga benchmark'
+FROM SYSTEM_RANGE(7000001, 8000000);
+
+INSERT INTO MOVIMENTACAO (ID, CONTA_ID, DATA_MOVIMENTACAO, TIPO, VALOR, DESCRICAO)
+SELECT X,
+       MOD(X * 7919, 20000) + 1,
+       DATEADD('SECOND', MOD(X * 104729, 157680000), TIMESTAMP '2020-01-01 00:00:00'),
+       CASE WHEN MOD(X, 3) = 0 THEN 'DEBITO' ELSE 'CREDITO' END,
+       MOD(X, 100000) / 100.0,
+       'Carga benchmark'
+FROM SYSTEM_RANGE(8000001, 9000000);
+
+INSERT INTO MOVIMENTACAO (ID, CONTA_ID, DATA_MOVIMENTACAO, TIPO, VALOR, DESCRICAO)
+SELECT X,
+       MOD(X * 7919, 20000) + 1,
+       DATEADD('SECOND', MOD(X * 104729, 157680000), TIMESTAMP '2020-01-01 00:00:00'),
+       CASE WHEN MOD(X, 3) = 0 THEN 'DEBITO' ELSE 'CREDITO' END,
+       MOD(X, 100000) / 100.0,
+       'Carga benchmark'
+FROM SYSTEM_RANGE(9000001, 10000000);
+
+INSERT INTO RECEITA_XPTO (CLIENTE_ID, PERIODO_INICIO, PERIODO_FIM, QTD_MOVIMENTACOES, VALOR_COBRADO)
+SELECT MOD(X, 10000) + 1, DATEADD('MONTH', X / 10000, DATE '2020-01-01'),
+       DATEADD('DAY', -1, DATEADD('MONTH', X / 10000 + 1, DATE '2020-01-01')), 10, 10.00
+FROM SYSTEM_RANGE(0, 599999);
+
+ANALYZE;
+
+-- 2. Medição SEM os índices compostos (restam as chaves primárias e o índice da FK de CONTA_ID)
+
+-- 2.1 Movimentações da conta no período (findByContaIdAndDataMovimentacaoBetween)
+EXPLAIN ANALYZE
+SELECT ID, DATA_MOVIMENTACAO, TIPO, VALOR FROM MOVIMENTACAO
+WHERE CONTA_ID = 1234 AND DATA_MOVIMENTACAO BETWEEN TIMESTAMP '2023-03-01 00:00:00' AND TIMESTAMP '2023-03-31 23:59:59';
+
+-- 2.2 Totais por conta e tipo do cliente no período (relatório de saldo por período)
+EXPLAIN ANALYZE
+SELECT M.CONTA_ID, M.TIPO, COUNT(*), SUM(M.VALOR)
+FROM MOVIMENTACAO M JOIN CONTA C ON C.ID = M.CONTA_ID
+WHERE C.CLIENTE_ID = 1234 AND M.DATA_MOVIMENTACAO BETWEEN TIMESTAMP '2023-03-01 00:00:00' AND TIMESTAMP '2023-03-31 23:59:59'
+GROUP BY M.CONTA_ID, M.TIPO;
+
+-- 2.3 Quantidade de movimentações das contas ativas do cliente no período (receita XPTO)
+EXPLAIN ANALYZE
+SELECT COUNT(*)
+FROM MOVIMENTACAO M JOIN CONTA C ON C.ID = M.CONTA_ID
+WHERE C.CLIENTE_ID = 1234 AND C.EXCLUSAO_LOGICA = FALSE
+  AND M.DATA_MOVIMENTACAO BETWEEN TIMESTAMP '2023-03-01 00:00:00' AND TIMESTAMP '2023-03-31 23:59:59';
+
+-- 2.4 Receitas do cliente por período
+EXPLAIN ANALYZE
+SELECT * FROM RECEITA_XPTO
+WHERE CLIENTE_ID = 1234 AND PERIODO_FIM >= DATE '2023-01-01' AND PERIODO_INICIO <= DATE '2023-12-31';
+
+-- 3. Medição COM os índices compostos (mesmas consultas)
+CREATE INDEX IDX_MOVIMENTACAO_CONTA_DATA ON MOVIMENTACAO (CONTA_ID, DATA_MOVIMENTACAO, TIPO, VALOR);
+CREATE UNIQUE INDEX UK_RECEITA_XPTO_CLIENTE_PERIODO ON RECEITA_XPTO (CLIENTE_ID, PERIODO_FIM, PERIODO_INICIO);
+CREATE INDEX IDX_CONTA_CLIENTE_EXCLUSAO ON CONTA (CLIENTE_ID, EXCLUSAO_LOGICA);
+ANALYZE;
+
+EXPLAIN ANALYZE
+SELECT ID, DATA_MOVIMENTACAO, TIPO, VALOR FROM MOVIMENTACAO
+WHERE CONTA_ID = 1234 AND DATA_MOVIMENTACAO BETWEEN TIMESTAMP '2023-03-01 00:00:00' AND TIMESTAMP '2023-03-31 23:59:59';
+
+EXPLAIN ANALYZE
+SELECT M.CONTA_ID, M.TIPO, COUNT(*), SUM(M.VALOR)
+FROM MOVIMENTACAO M JOIN CONTA C ON C.ID = M.CONTA_ID
+WHERE C.CLIENTE_ID = 1234 AND M.DATA_MOVIMENTACAO BETWEEN TIMESTAMP '2023-03-01 00:00:00' AND TIMESTAMP '2023-03-31 23:59:59'
+GROUP BY M.CONTA_ID, M.TIPO;
+
+EXPLAIN ANALYZE
+SELECT COUNT(*)
+FROM MOVIMENTACAO M JOIN CONTA C ON C.ID = M.CONTA_ID
+WHERE C.CLIENTE_ID = 1234 AND C.EXCLUSAO_LOGICA = FALSE
+  AND M.DATA_MOVIMENTACAO BETWEEN TIMESTAMP '2023-03-01 00:00:00' AND TIMESTAMP '2023-03-31 23:59:59';
+
+EXPLAIN ANALYZE
+SELECT * FROM RECEITA_XPTO
+WHERE CLIENTE_ID = 1234 AND PERIODO_FIM >= DATE '2023-01-01' AND PERIODO_INICIO <= DATE '2023-12-31';
+
+-- Resultados de referência (H2 2.2.224 em arquivo, 1 vCPU, 5 GB; carga das 10M movimentações em ~26 min,
+-- criação de IDX_MOVIMENTACAO_CONTA_DATA em 75-100 s). Linhas lidas (scanCount) e tempo na primeira execução
+-- após a troca de índices / nas execuções seguintes:
+--   consulta                          sem os índices compostos       com os índices compostos
+--   2.1 conta no período              501 linhas, 105 ms / 1-7 ms    9 linhas, 2-3 ms / 0-3 ms
+--   2.2 totais do cliente no período  1.002 linhas, 109 ms / 13 ms   19 linhas, 5-16 ms / 1-3 ms
+--   2.3 receita XPTO (contagem)       1.002 linhas, 8-15 ms / 7-9 ms 19 linhas, 3-6 ms / 1-8 ms
+--   2.4 receitas do cliente           61 linhas, 1 ms / 4-5 ms       25 linhas, 0-2 ms / 0 ms
+-- No H2 a chave estrangeira cria índice em MOVIMENTACAO.CONTA_ID, então "sem os índices compostos" ainda
+-- lê só as movimentações da conta (todas as datas); no Oracle a FK não cria índice e a mesma consulta
+-- percorreria a tabela inteira. Em memória quente, a diferença de tempo é pequena nesta massa (500
+-- movimentações por conta) e cresce com o histórico por conta; o ganho estável é nas linhas lidas.
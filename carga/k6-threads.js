@@ -0,0 +1,61 @@
+// Teste de carga: threads de plataforma x threads virtuais (profile "virtual").
+// Execute a mesma carga contra a aplicação iniciada com e sem o profile e compare p95/p99 e erros:
+//   k6 run -e VUS=1000 -e CONTAS=1000 carga/k6-threads.js
+//   k6 run -e VUS=10000 -e CONTAS=1000 -e BASE_URL=http://localhost:8080 carga/k6-threads.js
+// A base precisa de contas com IDs de 1 a CONTAS e clientes de 1 a CLIENTES (ver gerador, item 14 do README).
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '1000');
+const CONTAS = parseInt(__ENV.CONTAS || '1000');
+const CLIENTES = parseInt(__ENV.CLIENTES || '500');
+const DURACAO = __ENV.DURACAO || '2m';
+
+export const options = {
+    scenarios: {
+        movimentacoes: {
+            executor: 'constant-vus',
+            vus: Math.ceil(VUS * 0.8),
+            duration: DURACAO,
+            exec: 'receberMovimentacao',
+        },
+        relatorios: {
+            executor: 'constant-vus',
+            vus: Math.floor(VUS * 0.2),
+            duration: DURACAO,
+            exec: 'consultarRelatorios',
+        },
+    },
+    thresholds: {
+        'http_req_failed{scenario:movimentacoes}': ['rate<0.01'],
+        'http_req_duration{scenario:movimentacoes}': ['p(95)<500'],
+        'http_req_duration{scenario:relatorios}': ['p(95)<2000'],
+    },
+};
+
+function aleatorio(maximo) {
+    return 1 + Math.floor(Math.random() * maximo);
+}
+
+export function receberMovimentacao() {
+    const tipo = Math.random() < 0.66 ? 'CREDITO' : 'DEBITO';
+    const valor = (aleatorio(100000) / 100).toFixed(2);
+    const resposta = http.post(
+        `${BASE_URL}/api/contas/${aleatorio(CONTAS)}/movimentacao?tipo=${tipo}&descricao=k6&valor=${valor}`,
+        null,
+        { tags: { endpoint: 'movimentacao' } });
+    check(resposta, { 'movimentação criada': (r) => r.status === 201 });
+}
+
+export function consultarRelatorios() {
+    const clienteId = aleatorio(CLIENTES);
+    const saldo = http.get(`${BASE_URL}/api/relatorios/saldo-cliente/${clienteId}`,
+        { tags: { endpoint: 'saldo-cliente' } });
+    check(saldo, { 'saldo do cliente': (r) => r.status === 200 });
+
+    const periodo = http.get(
+        `${BASE_URL}/api/relatorios/saldo-cliente-periodo/${clienteId}?inicio=01/01/2024&fim=31/12/2024`,
+        { tags: { endpoint: 'saldo-cliente-periodo' } });
+    check(periodo, { 'saldo do cliente no período': (r) => r.status === 200 });
+}
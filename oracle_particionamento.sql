@@ -0,0 +1,38 @@
+-- Particionamento opcional da MOVIMENTACAO por mês (Oracle 12.2+)
+-- Partições por intervalo mensal em DATA_MOVIMENTACAO: consultas por período leem apenas
+-- as partições do intervalo e partições antigas podem ser arquivadas sem DELETE em massa.
+
+-- Opção 1: conversão online da tabela existente (sem indisponibilidade)
+ALTER TABLE MOVIMENTACAO MODIFY
+    PARTITION BY RANGE (DATA_MOVIMENTACAO) INTERVAL (NUMTOYMINTERVAL(1, 'MONTH'))
+    (PARTITION P_ANTERIOR_2020 VALUES LESS THAN (TIMESTAMP '2020-01-01 00:00:00'))
+    ONLINE
+    UPDATE INDEXES (
+        IDX_MOVIMENTACAO_CONTA_DATA LOCAL
+    );
+
+-- Opção 2: criação da tabela já particionada (bases novas, no lugar do CREATE TABLE do schema.sql)
+/*
+CREATE TABLE MOVIMENTACAO (
+    ID NUMBER(19) PRIMARY KEY,
+    CONTA_ID NUMBER(19) NOT NULL,
+    DATA_MOVIMENTACAO TIMESTAMP DEFAULT SYSTIMESTAMP NOT NULL,
+    TIPO VARCHAR2(10) NOT NULL CHECK (TIPO IN ('CREDITO', 'DEBITO')),
+    VALOR NUMBER(19, 2) NOT NULL,
+    DESCRICAO VARCHAR2(255),
+    CHAVE_IDEMPOTENCIA VARCHAR2(64),
+    FOREIGN KEY (CONTA_ID) REFERENCES CONTA(ID)
+)
+PARTITION BY RANGE (DATA_MOVIMENTACAO) INTERVAL (NUMTOYMINTERVAL(1, 'MONTH'))
+(PARTITION P_ANTERIOR_2020 VALUES LESS THAN (TIMESTAMP '2020-01-01 00:00:00'));
+
+CREATE INDEX IDX_MOVIMENTACAO_CONTA_DATA ON MOVIMENTACAO (CONTA_ID, DATA_MOVIMENTACAO, TIPO, VALOR) LOCAL;
+CREATE UNIQUE INDEX UK_MOVIMENTACAO_CHAVE_IDEMPOTENCIA ON MOVIMENTACAO (CHAVE_IDEMPOTENCIA);
+*/
+
+-- Observações:
+-- * A chave primária (ID) permanece em índice global: a busca por ID não conhece a data.
+-- * O índice único da chave de idempotência também é global (não contém a data de particionamento).
+-- * O índice (CONTA_ID, DATA_MOVIMENTACAO, TIPO, VALOR) é LOCAL, alinhado às partições mensais.
+-- * Estatísticas após a conversão:
+--   EXEC DBMS_STATS.GATHER_TABLE_STATS(USER, 'MOVIMENTACAO', granularity => 'AUTO', cascade => TRUE);
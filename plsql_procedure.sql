@@ -35,13 +35,22 @@ BEGIN
     VALUES (v_cliente_id, p_logradouro, p_numero, p_bairro, p_cidade, p_uf, p_cep);
 
     -- 3. Inserir a conta inicial
-    INSERT INTO CONTA (CLIENTE_ID, NUMERO_CONTA, AGENCIA, INSTITUICAO_FINANCEIRA, SALDO_INICIAL, DATA_ABERTURA)
-    VALUES (v_cliente_id, p_numero_conta, p_agencia, p_instituicao_financeira, p_saldo_inicial, SYSDATE)
+    INSERT INTO CONTA (CLIENTE_ID, NUMERO_CONTA, AGENCIA, INSTITUICAO_FINANCEIRA, SALDO_INICIAL, DATA_ABERTURA, SALDO_ATUAL)
+    VALUES (v_cliente_id, p_numero_conta, p_agencia, p_instituicao_financeira, p_saldo_inicial, SYSDATE, p_saldo_inicial)
     RETURNING ID INTO v_conta_id;
 
     -- 4. Inserir a movimentação inicial (saldo inicial)
-    INSERT INTO MOVIMENTACAO (CONTA_ID, DATA_MOVIMENTACAO, TIPO, VALOR, DESCRICAO)
-    VALUES (v_conta_id, SYSDATE, 'CREDITO', p_saldo_inicial, 'Saldo Inicial da Conta');
+    INSERT INTO MOVIMENTACAO (ID, CONTA_ID, DATA_MOVIMENTACAO, TIPO, VALOR, DESCRICAO)
+    VALUES (SEQ_MOVIMENTACAO.NEXTVAL, v_conta_id, SYSDATE, 'CREDITO', p_saldo_inicial, 'Saldo Inicial da Conta');
+
+    -- 5. Atualizar o saldo consolidado da conta com a movimentação inicial
+    -- (incrementa VERSAO, como a aplicação, para as instâncias com a conta em memória detectarem a alteração)
+    UPDATE CONTA SET SALDO_ATUAL = SALDO_ATUAL + p_saldo_inicial, QTD_CREDITOS = QTD_CREDITOS + 1, VERSAO = VERSAO + 1
+    WHERE ID = v_conta_id;
+
+    -- 6. Registrar a movimentação inicial no consolidado diário
+    INSERT INTO MOVIMENTACAO_DIARIA (CONTA_ID, DATA_MOVIMENTACAO, QTD_CREDITOS, QTD_DEBITOS, VALOR_CREDITOS, VALOR_DEBITOS)
+    VALUES (v_conta_id, TRUNC(SYSDATE), 1, 0, p_saldo_inicial, 0);
 
     COMMIT;
 EXCEPTION
@@ -35,18 +35,48 @@ CREATE TABLE CONTA (
     SALDO_INICIAL DECIMAL(19, 2) NOT NULL,
     DATA_ABERTURA TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
     EXCLUSAO_LOGICA BOOLEAN DEFAULT FALSE NOT NULL,
+    SALDO_ATUAL DECIMAL(19, 2) NOT NULL,
+    QTD_CREDITOS BIGINT DEFAULT 0 NOT NULL,
+    QTD_DEBITOS BIGINT DEFAULT 0 NOT NULL,
+    VERSAO BIGINT DEFAULT 0 NOT NULL,
     FOREIGN KEY (CLIENTE_ID) REFERENCES CLIENTE(ID),
     UNIQUE (CLIENTE_ID, NUMERO_CONTA, AGENCIA)
 );
 
+-- Sequence da MOVIMENTACAO (incremento igual ao allocationSize da entidade, permitindo inserts em lote)
+CREATE SEQUENCE SEQ_MOVIMENTACAO START WITH 1 INCREMENT BY 50;
+
 -- Tabela MOVIMENTACAO
 CREATE TABLE MOVIMENTACAO (
-    ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    ID BIGINT PRIMARY KEY,
     CONTA_ID BIGINT NOT NULL,
     DATA_MOVIMENTACAO TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
     TIPO VARCHAR(10) NOT NULL CHECK (TIPO IN ('CREDITO', 'DEBITO')),
     VALOR DECIMAL(19, 2) NOT NULL,
     DESCRICAO VARCHAR(255),
+    CHAVE_IDEMPOTENCIA VARCHAR(64),
+    FOREIGN KEY (CONTA_ID) REFERENCES CONTA(ID)
+);
+
+-- Tabela MOVIMENTACAO_DIARIA (consolidado diário por conta, mantido a cada movimentação recebida ou excluída)
+CREATE TABLE MOVIMENTACAO_DIARIA (
+    CONTA_ID BIGINT NOT NULL,
+    DATA_MOVIMENTACAO DATE NOT NULL,
+    QTD_CREDITOS BIGINT NOT NULL,
+    QTD_DEBITOS BIGINT NOT NULL,
+    VALOR_CREDITOS DECIMAL(19, 2) NOT NULL,
+    VALOR_DEBITOS DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (CONTA_ID, DATA_MOVIMENTACAO),
+    FOREIGN KEY (CONTA_ID) REFERENCES CONTA(ID)
+);
+
+-- Tabela SALDO_MENSAL (ponto de controle do saldo no início do mês: variação acumulada de todas as
+-- movimentações anteriores; criado sob demanda pelo relatório por período e ajustado pelas movimentações retroativas)
+CREATE TABLE SALDO_MENSAL (
+    CONTA_ID BIGINT NOT NULL,
+    MES DATE NOT NULL,
+    VARIACAO_ACUMULADA DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (CONTA_ID, MES),
     FOREIGN KEY (CONTA_ID) REFERENCES CONTA(ID)
 );
 
@@ -60,3 +90,58 @@ CREATE TABLE RECEITA_XPTO (
     VALOR_COBRADO DECIMAL(19, 2) NOT NULL,
     FOREIGN KEY (CLIENTE_ID) REFERENCES CLIENTE(ID)
 );
+
+-- Índices (consultas dos relatórios e do faturamento)
+-- MOVIMENTACAO: filtro por conta e intervalo de data; TIPO e VALOR no índice permitem
+-- agregar créditos/débitos sem acessar a tabela
+CREATE INDEX IDX_MOVIMENTACAO_CONTA_DATA ON MOVIMENTACAO (CONTA_ID, DATA_MOVIMENTACAO, TIPO, VALOR);
+
+-- MOVIMENTACAO: chave de idempotência única (reenvios da origem); nulos não entram no índice
+CREATE UNIQUE INDEX UK_MOVIMENTACAO_CHAVE_IDEMPOTENCIA ON MOVIMENTACAO (CHAVE_IDEMPOTENCIA);
+
+-- RECEITA_XPTO: uma receita por cliente e período; o mesmo índice atende as receitas do cliente por período
+-- (PERIODO_INICIO ao final cobre a verificação de período já faturado)
+CREATE UNIQUE INDEX UK_RECEITA_XPTO_CLIENTE_PERIODO ON RECEITA_XPTO (CLIENTE_ID, PERIODO_FIM, PERIODO_INICIO);
+CREATE INDEX IDX_RECEITA_XPTO_PERIODO_INICIO ON RECEITA_XPTO (PERIODO_INICIO);
+
+-- CONTA: contas ativas do cliente
+CREATE INDEX IDX_CONTA_CLIENTE_EXCLUSAO ON CONTA (CLIENTE_ID, EXCLUSAO_LOGICA);
+
+-- ENDERECO: endereços do cliente
+CREATE INDEX IDX_ENDERECO_CLIENTE ON ENDERECO (CLIENTE_ID);
+
+-- Carga do saldo consolidado da CONTA para bases já existentes
+-- (executar uma única vez após adicionar as colunas SALDO_ATUAL, QTD_CREDITOS e QTD_DEBITOS)
+/*
+UPDATE CONTA C SET
+    SALDO_ATUAL = C.SALDO_INICIAL + COALESCE((SELECT SUM(CASE WHEN M.TIPO = 'CREDITO' THEN M.VALOR ELSE -M.VALOR END)
+                                              FROM MOVIMENTACAO M WHERE M.CONTA_ID = C.ID), 0),
+    QTD_CREDITOS = (SELECT COUNT(*) FROM MOVIMENTACAO M WHERE M.CONTA_ID = C.ID AND M.TIPO = 'CREDITO'),
+    QTD_DEBITOS = (SELECT COUNT(*) FROM MOVIMENTACAO M WHERE M.CONTA_ID = C.ID AND M.TIPO = 'DEBITO');
+*/
+
+-- Remoção das receitas duplicadas por cliente e período (mantém a mais recente) em bases já existentes
+-- (executar uma única vez; a chave única substitui o índice IDX_RECEITA_XPTO_CLIENTE_PERIODO)
+/*
+DELETE FROM RECEITA_XPTO R
+WHERE EXISTS (SELECT 1 FROM RECEITA_XPTO O
+              WHERE O.CLIENTE_ID = R.CLIENTE_ID AND O.PERIODO_INICIO = R.PERIODO_INICIO
+                AND O.PERIODO_FIM = R.PERIODO_FIM AND O.ID > R.ID);
+DROP INDEX IDX_RECEITA_XPTO_CLIENTE_PERIODO;
+CREATE UNIQUE INDEX UK_RECEITA_XPTO_CLIENTE_PERIODO ON RECEITA_XPTO (CLIENTE_ID, PERIODO_FIM, PERIODO_INICIO);
+*/
+
+-- Carga (ou reconstrução) do consolidado diário MOVIMENTACAO_DIARIA
+-- (mesmo SQL de MovimentacaoDiariaService.reconstruir; os pontos de controle SALDO_MENSAL são recriados sob demanda)
+/*
+DELETE FROM SALDO_MENSAL;
+DELETE FROM MOVIMENTACAO_DIARIA;
+INSERT INTO MOVIMENTACAO_DIARIA (CONTA_ID, DATA_MOVIMENTACAO, QTD_CREDITOS, QTD_DEBITOS, VALOR_CREDITOS, VALOR_DEBITOS)
+SELECT CONTA_ID, TRUNC(DATA_MOVIMENTACAO),
+       SUM(CASE WHEN TIPO = 'CREDITO' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN TIPO = 'DEBITO' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN TIPO = 'CREDITO' THEN VALOR ELSE 0 END),
+       SUM(CASE WHEN TIPO = 'DEBITO' THEN VALOR ELSE 0 END)
+FROM MOVIMENTACAO
+GROUP BY CONTA_ID, TRUNC(DATA_MOVIMENTACAO);
+*/
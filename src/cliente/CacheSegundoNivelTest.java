@@ -0,0 +1,125 @@
+package com.xpto.desafio.service;
+
+import com.desafio_dev.desafio_dev.DesafioDevApplication;
+import com.xpto.desafio.dto.RelatorioSaldoCliente;
+import com.xpto.desafio.entity.Cliente;
+import com.xpto.desafio.entity.Endereco;
+import com.xpto.desafio.repository.ClienteRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cache de segundo nível: o relatório de saldo do cliente lido de novo não consulta cliente, contas
+ * nem endereços no banco, e as alterações feitas pelos serviços aparecem na leitura seguinte.
+ * As instruções SQL são contadas pelas estatísticas do Hibernate. O cache de leitura (DTOs) só perde a
+ * entrada alterada depois do commit.
+ */
+@SpringBootTest(classes = DesafioDevApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:cache-segundo-nivel;MODE=Oracle;DB_CLOSE_DELAY=-1"
+})
+public class CacheSegundoNivelTest {
+
+    private static final AtomicInteger clientesCriados = new AtomicInteger();
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private EnderecoService enderecoService;
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics estatisticas;
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // CPF único por teste (mesmo banco em memória para toda a classe)
+        String cpf = String.format("333.444.%03d-66", clientesCriados.incrementAndGet());
+        cliente = clienteService.criarClienteComMovimentacaoInicial("Cliente Cache", "PF", cpf, null, "11966665555",
+                "Rua A", "10", "Centro", "São Paulo", "SP", "01000-000",
+                "0001", "0001", "Banco XPTO", new BigDecimal("100.00"));
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void deveLerClienteContasEEnderecosDoCacheNaSegundaLeitura() {
+        long consultasSemCache = contarInstrucoes(this::relatorio);
+        long consultasComCache = contarInstrucoes(this::relatorio);
+
+        // Cliente, endereços e contas vêm do cache; só as receitas (fora do cache) vão ao banco
+        assertEquals(4, consultasSemCache);
+        assertEquals(1, consultasComCache);
+        assertTrue(estatisticas.getSecondLevelCacheHitCount() > 0);
+    }
+
+    @Test
+    void deveInvalidarEnderecosDoClienteAoCriarEndereco() {
+        relatorio();
+
+        enderecoService.criarEndereco(new Endereco(cliente, "Rua B", "20", "Centro", "São Paulo", "SP", "01000-001"));
+
+        List<String> logradouros = transactionTemplate.execute(status -> clienteRepository.findById(cliente.getId())
+                .orElseThrow().getEnderecos().stream().map(Endereco::getLogradouro).toList());
+        assertEquals(List.of("Rua A", "Rua B"), logradouros);
+    }
+
+    @Test
+    void deveAtualizarClienteNoCacheAoAlterarCliente() {
+        relatorio();
+
+        clienteService.atualizarCliente(cliente.getId(), "Cliente Cache Alterado", "11955554444");
+
+        long consultas = contarInstrucoes(() -> assertEquals("Cliente Cache Alterado", relatorio().nome()));
+        assertEquals(1, consultas);
+    }
+
+    @Test
+    void deveRemoverClienteDoCacheDeLeituraSoDepoisDoCommit() {
+        clienteService.obterClienteDTOPorId(cliente.getId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            clienteService.atualizarCliente(cliente.getId(), "Cliente Cache Alterado", "11955554444");
+            // Leitura concorrente antes do commit: ainda vê o nome antigo
+            String nomeAntesDoCommit = CompletableFuture.supplyAsync(() ->
+                    clienteService.obterClienteDTOPorId(cliente.getId()).orElseThrow().nome()).join();
+            assertEquals("Cliente Cache", nomeAntesDoCommit);
+        });
+
+        assertEquals("Cliente Cache Alterado", clienteService.obterClienteDTOPorId(cliente.getId()).orElseThrow().nome());
+    }
+
+    private RelatorioSaldoCliente relatorio() {
+        return transactionTemplate.execute(status -> relatorioService.montarRelatorioSaldoCliente(cliente.getId()));
+    }
+
+    private long contarInstrucoes(Runnable leitura) {
+        estatisticas.clear();
+        leitura.run();
+        return estatisticas.getPrepareStatementCount();
+    }
+}
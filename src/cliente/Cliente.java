@@ -1,11 +1,16 @@
 package com.xpto.desafio.entity;
 
+import com.xpto.desafio.config.CacheConfig;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
 @Table(name = "CLIENTE")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.REGIAO_CLIENTE)
 public class Cliente {
 
     @Id
@@ -31,11 +36,14 @@ public class Cliente {
     private LocalDateTime dataCadastro;
 
     @OneToMany(mappedBy = "cliente", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.REGIAO_CLIENTE_ENDERECOS)
     private List<Endereco> enderecos;
 
     @OneToMany(mappedBy = "cliente", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.REGIAO_CLIENTE_CONTAS)
     private List<Conta> contas;
 
+    // Sem cache: ReceitaXPTO não fica no cache de segundo nível, cada item seria lido por uma consulta
     @OneToMany(mappedBy = "cliente", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<ReceitaXPTO> receitasXPTO;
 
@@ -1,5 +1,8 @@
 package com.xpto.desafio.controller;
 
+import com.xpto.desafio.dto.ClienteDetalheDTO;
+import com.xpto.desafio.dto.ClienteResumo;
+import com.xpto.desafio.dto.EnderecoDTO;
 import com.xpto.desafio.entity.Cliente;
 import com.xpto.desafio.entity.Endereco;
 import com.xpto.desafio.service.ClienteService;
@@ -11,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/clientes")
@@ -54,15 +58,25 @@ public class ClienteController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Cliente> obterCliente(@PathVariable Long id) {
-        return clienteService.obterClientePorId(id)
+    public ResponseEntity<ClienteDetalheDTO> obterCliente(
+            @PathVariable Long id,
+            @RequestParam(required = false, defaultValue = "") Set<String> expand) {
+        if (!ClienteService.EXPANSOES_VALIDAS.containsAll(expand)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // Expansão desconhecida
+        }
+        var detalhe = expand.isEmpty()
+                ? clienteService.obterClienteDTOPorId(id).map(ClienteDetalheDTO::de)
+                : clienteService.obterClienteDetalhado(id, expand);
+        return detalhe
                 .map(cliente -> new ResponseEntity<>(cliente, HttpStatus.OK))
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
     @GetMapping
-    public ResponseEntity<List<Cliente>> obterTodosClientes() {
-        return new ResponseEntity<>(clienteService.obterTodosClientes(), HttpStatus.OK);
+    public ResponseEntity<List<ClienteResumo>> obterTodosClientes(
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "50") int tamanho) {
+        return new ResponseEntity<>(clienteService.obterClientesPaginados(pagina, tamanho), HttpStatus.OK);
     }
 
     @PutMapping("/{id}")
@@ -93,7 +107,7 @@ public class ClienteController {
     // --- CRUD Endereço ---
 
     @GetMapping("/{clienteId}/enderecos")
-    public ResponseEntity<List<Endereco>> obterEnderecosPorCliente(@PathVariable Long clienteId) {
+    public ResponseEntity<List<EnderecoDTO>> obterEnderecosPorCliente(@PathVariable Long clienteId) {
         return new ResponseEntity<>(enderecoService.obterEnderecosPorCliente(clienteId), HttpStatus.OK);
     }
 
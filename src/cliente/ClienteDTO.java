@@ -0,0 +1,17 @@
+package com.xpto.desafio.dto;
+
+import com.xpto.desafio.entity.Cliente;
+
+import java.time.LocalDateTime;
+
+/**
+ * Dados do cliente sem as coleções lazy (seguro para cache e serialização).
+ */
+public record ClienteDTO(Long id, String nome, String tipoPessoa, String cpf, String cnpj, String telefone,
+                         LocalDateTime dataCadastro) {
+
+    public static ClienteDTO de(Cliente cliente) {
+        return new ClienteDTO(cliente.getId(), cliente.getNome(), cliente.getTipoPessoa(), cliente.getCpf(),
+                cliente.getCnpj(), cliente.getTelefone(), cliente.getDataCadastro());
+    }
+}
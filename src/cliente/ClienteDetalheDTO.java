@@ -0,0 +1,27 @@
+package com.xpto.desafio.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.xpto.desafio.entity.Cliente;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Detalhe do cliente. Endereços e contas só são preenchidos quando pedidos (parâmetro expand).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ClienteDetalheDTO(Long id, String nome, String tipoPessoa, String cpf, String cnpj, String telefone,
+                                LocalDateTime dataCadastro, List<EnderecoDTO> enderecos, List<ContaDTO> contas) {
+
+    public static ClienteDetalheDTO de(ClienteDTO cliente) {
+        return new ClienteDetalheDTO(cliente.id(), cliente.nome(), cliente.tipoPessoa(), cliente.cpf(),
+                cliente.cnpj(), cliente.telefone(), cliente.dataCadastro(), null, null);
+    }
+
+    public static ClienteDetalheDTO de(Cliente cliente, boolean comEnderecos, boolean comContas) {
+        return new ClienteDetalheDTO(cliente.getId(), cliente.getNome(), cliente.getTipoPessoa(), cliente.getCpf(),
+                cliente.getCnpj(), cliente.getTelefone(), cliente.getDataCadastro(),
+                comEnderecos ? cliente.getEnderecos().stream().map(EnderecoDTO::de).toList() : null,
+                comContas ? cliente.getContas().stream().map(ContaDTO::de).toList() : null);
+    }
+}
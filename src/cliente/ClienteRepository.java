@@ -1,7 +1,12 @@
 package com.xpto.desafio.repository;
 
+import com.xpto.desafio.dto.ClienteResumo;
+import com.xpto.desafio.dto.SaldoClienteResumo;
 import com.xpto.desafio.entity.Cliente;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +17,29 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     Optional<Cliente> findByCpf(String cpf);
     Optional<Cliente> findByCnpj(String cnpj);
     List<Cliente> findByTipoPessoa(String tipoPessoa);
+
+    List<ClienteResumo> findAllProjectedBy(Pageable pageable);
+
+    @Query("select c from Cliente c left join fetch c.enderecos where c.id = :id")
+    Optional<Cliente> buscarComEnderecos(@Param("id") Long id);
+
+    @Query("select c from Cliente c left join fetch c.contas where c.id = :id")
+    Optional<Cliente> buscarComContas(@Param("id") Long id);
+
+    /**
+     * Saldo consolidado dos clientes com ID maior que {@code ultimoId}, em ordem de ID
+     * (paginação por chave: o próximo bloco parte do último ID lido).
+     */
+    @Query("select new com.xpto.desafio.dto.SaldoClienteResumo(c.id, c.nome, c.dataCadastro, sum(ct.saldoAtual)) " +
+            "from Cliente c left join c.contas ct " +
+            "where c.id > :ultimoId " +
+            "group by c.id, c.nome, c.dataCadastro " +
+            "order by c.id")
+    List<SaldoClienteResumo> buscarSaldosAposId(@Param("ultimoId") Long ultimoId, Pageable pageable);
+
+    @Query("select min(c.id) from Cliente c")
+    Long buscarMenorId();
+
+    @Query("select max(c.id) from Cliente c")
+    Long buscarMaiorId();
 }
@@ -0,0 +1,17 @@
+package com.xpto.desafio.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção enxuta do cliente para listagens (apenas colunas da tabela CLIENTE).
+ */
+public interface ClienteResumo {
+
+    Long getId();
+
+    String getNome();
+
+    String getTipoPessoa();
+
+    LocalDateTime getDataCadastro();
+}
@@ -1,5 +1,9 @@
 package com.xpto.desafio.service;
 
+import com.xpto.desafio.config.CacheConfig;
+import com.xpto.desafio.dto.ClienteDTO;
+import com.xpto.desafio.dto.ClienteDetalheDTO;
+import com.xpto.desafio.dto.ClienteResumo;
 import com.xpto.desafio.entity.Cliente;
 import com.xpto.desafio.entity.Conta;
 import com.xpto.desafio.entity.Endereco;
@@ -9,6 +13,11 @@ import com.xpto.desafio.repository.ContaRepository;
 import com.xpto.desafio.repository.EnderecoRepository;
 import com.xpto.desafio.repository.MovimentacaoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,10 +25,17 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class ClienteService {
 
+    public static final String EXPANDIR_ENDERECOS = "enderecos";
+    public static final String EXPANDIR_CONTAS = "contas";
+    public static final Set<String> EXPANSOES_VALIDAS = Set.of(EXPANDIR_ENDERECOS, EXPANDIR_CONTAS);
+
+    private static final int TAMANHO_MAXIMO_PAGINA = 500;
+
     @Autowired
     private ClienteRepository clienteRepository;
 
@@ -32,11 +48,18 @@ public class ClienteService {
     @Autowired
     private MovimentacaoRepository movimentacaoRepository;
 
+    @Autowired
+    private MovimentacaoDiariaService movimentacaoDiariaService;
+
     /**
      * Cria um novo cliente com movimentação inicial (transação atômica).
      * Simula a Stored Procedure SP_CRIAR_CLIENTE_INICIAL do Oracle.
      */
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.CONTAS_POR_CLIENTE, key = "#result.id"),
+            @CacheEvict(value = CacheConfig.ENDERECOS_POR_CLIENTE, key = "#result.id")
+    })
     public Cliente criarClienteComMovimentacaoInicial(
             String nome, String tipoPessoa, String cpf, String cnpj, String telefone,
             String logradouro, String numero, String bairro, String cidade, String uf, String cep,
@@ -56,7 +79,9 @@ public class ClienteService {
 
         // 4. Criar e salvar a movimentação inicial (saldo inicial)
         Movimentacao movimentacao = new Movimentacao(conta, "CREDITO", saldoInicial, "Saldo Inicial da Conta");
+        conta.aplicarMovimentacao(movimentacao);
         movimentacaoRepository.save(movimentacao);
+        movimentacaoDiariaService.registrar(List.of(movimentacao));
 
         return cliente;
     }
@@ -68,6 +93,41 @@ public class ClienteService {
         return clienteRepository.findById(id);
     }
 
+    /**
+     * Obtém os dados de um cliente pelo ID (em cache, como DTO).
+     */
+    @Cacheable(value = CacheConfig.CLIENTES, key = "#id", unless = "#result == null")
+    public Optional<ClienteDTO> obterClienteDTOPorId(Long id) {
+        return clienteRepository.findById(id).map(ClienteDTO::de);
+    }
+
+    /**
+     * Obtém os dados do cliente com as coleções pedidas em {@code expandir} ("enderecos", "contas"),
+     * cada uma carregada com uma única consulta com join. Sem expansão, prefira {@link #obterClienteDTOPorId}.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ClienteDetalheDTO> obterClienteDetalhado(Long id, Set<String> expandir) {
+        boolean comEnderecos = expandir.contains(EXPANDIR_ENDERECOS);
+        boolean comContas = expandir.contains(EXPANDIR_CONTAS);
+
+        // As duas consultas compartilham o contexto de persistência: a segunda completa a mesma instância
+        Optional<Cliente> cliente = comEnderecos ? clienteRepository.buscarComEnderecos(id) : Optional.empty();
+        if (comContas) {
+            cliente = clienteRepository.buscarComContas(id);
+        } else if (!comEnderecos) {
+            cliente = clienteRepository.findById(id);
+        }
+        return cliente.map(c -> ClienteDetalheDTO.de(c, comEnderecos, comContas));
+    }
+
+    /**
+     * Obtém uma página de clientes (projeção enxuta, ordenada por ID).
+     */
+    public List<ClienteResumo> obterClientesPaginados(int pagina, int tamanho) {
+        int tamanhoLimitado = Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO_PAGINA));
+        return clienteRepository.findAllProjectedBy(PageRequest.of(Math.max(0, pagina), tamanhoLimitado, Sort.by("id")));
+    }
+
     /**
      * Obtém todos os clientes.
      */
@@ -80,6 +140,7 @@ public class ClienteService {
      * Nota: Campos como CPF, CNPJ e dataCadastro não podem ser alterados para manter histórico.
      */
     @Transactional
+    @CacheEvict(value = CacheConfig.CLIENTES, key = "#id")
     public Cliente atualizarCliente(Long id, String nome, String telefone) {
         Optional<Cliente> clienteOpt = clienteRepository.findById(id);
         if (clienteOpt.isPresent()) {
@@ -96,6 +157,11 @@ public class ClienteService {
      * Nota: Considerar exclusão lógica se houver movimentações.
      */
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.CLIENTES, key = "#id"),
+            @CacheEvict(value = CacheConfig.CONTAS_POR_CLIENTE, key = "#id"),
+            @CacheEvict(value = CacheConfig.ENDERECOS_POR_CLIENTE, key = "#id")
+    })
     public void deletarCliente(Long id) {
         clienteRepository.deleteById(id);
     }
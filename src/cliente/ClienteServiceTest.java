@@ -34,6 +34,9 @@ public class ClienteServiceTest {
     @Mock
     private MovimentacaoRepository movimentacaoRepository;
 
+    @Mock
+    private MovimentacaoDiariaService movimentacaoDiariaService;
+
     @InjectMocks
     private ClienteService clienteService;
 
@@ -0,0 +1,12 @@
+package com.xpto.desafio.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Tarefas agendadas (limpeza dos resultados expirados de relatórios assíncronos).
+ */
+@Configuration
+@EnableScheduling
+public class AgendamentoConfig {
+}
@@ -0,0 +1,74 @@
+package com.xpto.desafio.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Cache de leitura (Caffeine) para consultas de cliente, contas e endereços.
+ * Tamanho, TTL e estatísticas são definidos em spring.cache.caffeine.spec (application.properties);
+ * as métricas de acerto, falha e remoção ficam em /actuator/metrics/cache.*.
+ * As remoções e inclusões feitas dentro de uma transação só chegam ao cache depois do commit.
+ * <p>
+ * As entidades Cliente, Conta e Endereco (e as coleções de contas e endereços do cliente) ficam também
+ * no cache de segundo nível do Hibernate, nas regiões abaixo, configuradas em application.conf
+ * (JCache do Caffeine, em memória na instância); as métricas ficam em /actuator/metrics/hibernate.*.
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    public static final String CLIENTES = "clientes";
+    public static final String CONTAS_POR_CLIENTE = "contasPorCliente";
+    public static final String ENDERECOS_POR_CLIENTE = "enderecosPorCliente";
+
+    // Regiões do cache de segundo nível (entidades e coleções). Sem ponto no nome: o Caffeine procura
+    // a configuração da região pelo caminho caffeine.jcache.<nome> do application.conf
+    public static final String REGIAO_CLIENTE = "xpto-cliente";
+    public static final String REGIAO_CLIENTE_ENDERECOS = "xpto-cliente-enderecos";
+    public static final String REGIAO_CLIENTE_CONTAS = "xpto-cliente-contas";
+    public static final String REGIAO_CONTA = "xpto-conta";
+    public static final String REGIAO_ENDERECO = "xpto-endereco";
+
+    /**
+     * CacheManager do Caffeine (spring.cache.*) que adia para depois do commit as remoções das alterações.
+     * Removida antes do commit, a entrada voltaria ao cache com o valor antigo em uma leitura concorrente
+     * feita entre a remoção e o commit, e ficaria desatualizada até expirar.
+     */
+    @Bean
+    public org.springframework.cache.CacheManager cacheManager(CacheProperties cacheProperties) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager();
+        caffeine.setCacheSpecification(cacheProperties.getCaffeine().getSpec());
+        caffeine.setCacheNames(cacheProperties.getCacheNames());
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+
+    /**
+     * CacheManager do cache de segundo nível, um por contexto da aplicação. O provedor JCache do Caffeine é
+     * único na JVM: com a URI padrão, contextos com bancos diferentes (testes de integração) dividiriam as
+     * mesmas regiões. Uma URI fora de file: e classpath: continua lendo as regiões do application.conf.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerSegundoNivel() {
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("xpto:segundo-nivel-" + UUID.randomUUID()), getClass().getClassLoader());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheManagerDoHibernate(CacheManager cacheManagerSegundoNivel) {
+        return propriedades -> propriedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerSegundoNivel);
+    }
+}
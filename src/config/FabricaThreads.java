@@ -0,0 +1,27 @@
+package com.xpto.desafio.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Fábrica das threads dos pools próprios da aplicação (faturamento, relatórios assíncronos).
+ * Com spring.threads.virtual.enabled=true (profile "virtual", Java 21) cria threads virtuais;
+ * o tamanho dos pools continua limitando as tarefas simultâneas e, com isso, as conexões JDBC usadas.
+ */
+@Component
+public class FabricaThreads {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean threadsVirtuais;
+
+    public ThreadFactory criar(String prefixo) {
+        if (threadsVirtuais) {
+            return new VirtualThreadTaskExecutor(prefixo).getVirtualThreadFactory();
+        }
+        return new CustomizableThreadFactory(prefixo);
+    }
+}
@@ -0,0 +1,94 @@
+package com.xpto.desafio.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Bloqueio em memória por conta, com faixas (striping): cada conta cai sempre na mesma faixa,
+ * e contas diferentes raramente disputam a mesma. Serializa as atualizações de saldo de uma
+ * conta nesta instância, evitando que contas muito movimentadas fiquem repetindo transações
+ * por conflito de versão. Entre instâncias, a versão da conta (@Version) continua garantindo a correção.
+ */
+@Component
+public class BloqueioContas {
+
+    @Value("${xpto.movimentacoes.faixas-bloqueio:1024}")
+    private int faixas;
+
+    private ReentrantLock[] locks;
+    private int mascara;
+
+    @PostConstruct
+    public void iniciar() {
+        // Quantidade de faixas arredondada para potência de 2 (índice por máscara)
+        int tamanho = Integer.highestOneBit(Math.max(1, faixas - 1)) << 1;
+        locks = new ReentrantLock[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        mascara = tamanho - 1;
+    }
+
+    /**
+     * Executa a operação com a faixa da conta bloqueada.
+     */
+    public <T> T executar(Long contaId, Supplier<T> operacao) {
+        ReentrantLock lock = locks[faixa(contaId)];
+        lock.lock();
+        try {
+            return operacao.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Executa a operação com as faixas de todas as contas bloqueadas. As faixas são bloqueadas
+     * sempre em ordem crescente, o que evita deadlock entre lotes com contas em comum.
+     */
+    public <T> T executar(Collection<Long> contaIds, Supplier<T> operacao) {
+        int[] indices = contaIds.stream().mapToInt(this::faixa).distinct().sorted().toArray();
+        int bloqueadas = 0;
+        try {
+            for (int indice : indices) {
+                locks[indice].lock();
+                bloqueadas++;
+            }
+            return operacao.get();
+        } finally {
+            for (int i = bloqueadas - 1; i >= 0; i--) {
+                locks[indices[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * Executa a operação com todas as faixas bloqueadas (em ordem crescente, como nos lotes): nenhuma
+     * atualização de saldo desta instância roda durante a operação.
+     */
+    public <T> T executarComTodas(Supplier<T> operacao) {
+        int bloqueadas = 0;
+        try {
+            for (ReentrantLock lock : locks) {
+                lock.lock();
+                bloqueadas++;
+            }
+            return operacao.get();
+        } finally {
+            for (int i = bloqueadas - 1; i >= 0; i--) {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    private int faixa(Long contaId) {
+        // Espalha IDs sequenciais entre as faixas
+        long h = contaId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mascara;
+    }
+}
@@ -1,12 +1,19 @@
 package com.xpto.desafio.entity;
 
+import com.xpto.desafio.config.CacheConfig;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "CONTA")
+@Table(name = "CONTA", indexes = {
+        @Index(name = "IDX_CONTA_CLIENTE_EXCLUSAO", columnList = "CLIENTE_ID, EXCLUSAO_LOGICA")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.REGIAO_CONTA)
 public class Conta {
 
     @Id
@@ -35,6 +42,22 @@ public class Conta {
     @Column(name = "EXCLUSAO_LOGICA", nullable = false)
     private Boolean exclusaoLogica = false;
 
+    // Saldo consolidado, mantido a cada movimentação recebida ou excluída
+    @Column(name = "SALDO_ATUAL", nullable = false)
+    private BigDecimal saldoAtual;
+
+    @Column(name = "QTD_CREDITOS", nullable = false)
+    private Long qtdCreditos = 0L;
+
+    @Column(name = "QTD_DEBITOS", nullable = false)
+    private Long qtdDebitos = 0L;
+
+    // Controle de concorrência otimista: atualizações do saldo com versão desatualizada são rejeitadas
+    @Version
+    @Column(name = "VERSAO", nullable = false)
+    private Long versao = 0L;
+
+    // Sem cache: coleção grande e alterada a cada movimentação
     @OneToMany(mappedBy = "conta", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Movimentacao> movimentacoes;
 
@@ -51,6 +74,42 @@ public class Conta {
         this.saldoInicial = saldoInicial;
         this.dataAbertura = LocalDateTime.now();
         this.exclusaoLogica = false;
+        this.saldoAtual = saldoInicial;
+        this.qtdCreditos = 0L;
+        this.qtdDebitos = 0L;
+    }
+
+    /**
+     * Aplica uma movimentação ao saldo consolidado da conta.
+     */
+    public void aplicarMovimentacao(Movimentacao movimentacao) {
+        if ("CREDITO".equals(movimentacao.getTipo())) {
+            saldoAtual = saldoAtual.add(movimentacao.getValor());
+            qtdCreditos++;
+        } else if ("DEBITO".equals(movimentacao.getTipo())) {
+            saldoAtual = saldoAtual.subtract(movimentacao.getValor());
+            qtdDebitos++;
+        }
+    }
+
+    /**
+     * Desfaz o efeito de uma movimentação no saldo consolidado (exclusão da movimentação).
+     */
+    public void estornarMovimentacao(Movimentacao movimentacao) {
+        if ("CREDITO".equals(movimentacao.getTipo())) {
+            saldoAtual = saldoAtual.subtract(movimentacao.getValor());
+            qtdCreditos--;
+        } else if ("DEBITO".equals(movimentacao.getTipo())) {
+            saldoAtual = saldoAtual.add(movimentacao.getValor());
+            qtdDebitos--;
+        }
+    }
+
+    /**
+     * Indica se a conta possui movimentações, pelos contadores do saldo consolidado (sem consulta).
+     */
+    public boolean possuiMovimentacoes() {
+        return qtdCreditos + qtdDebitos > 0;
     }
 
     // Getters e Setters
@@ -118,6 +177,34 @@ public class Conta {
         this.exclusaoLogica = exclusaoLogica;
     }
 
+    public BigDecimal getSaldoAtual() {
+        return saldoAtual;
+    }
+
+    public void setSaldoAtual(BigDecimal saldoAtual) {
+        this.saldoAtual = saldoAtual;
+    }
+
+    public Long getQtdCreditos() {
+        return qtdCreditos;
+    }
+
+    public void setQtdCreditos(Long qtdCreditos) {
+        this.qtdCreditos = qtdCreditos;
+    }
+
+    public Long getQtdDebitos() {
+        return qtdDebitos;
+    }
+
+    public void setQtdDebitos(Long qtdDebitos) {
+        this.qtdDebitos = qtdDebitos;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
     public List<Movimentacao> getMovimentacoes() {
         return movimentacoes;
     }
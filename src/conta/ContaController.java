@@ -1,15 +1,38 @@
 package com.xpto.desafio.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xpto.desafio.dto.ContaDTO;
+import com.xpto.desafio.dto.MovimentacaoLoteItem;
+import com.xpto.desafio.dto.PaginaMovimentacoes;
+import com.xpto.desafio.dto.ResultadoLoteMovimentacoes;
 import com.xpto.desafio.entity.Conta;
 import com.xpto.desafio.entity.Movimentacao;
 import com.xpto.desafio.service.ContaService;
+import com.xpto.desafio.service.MovimentacaoDuplicadaException;
 import com.xpto.desafio.service.MovimentacaoService;
+import com.xpto.desafio.service.ValorMonetario;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 @RestController
 @RequestMapping("/api/contas")
@@ -21,10 +44,15 @@ public class ContaController {
     @Autowired
     private MovimentacaoService movimentacaoService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
     // --- CRUD Conta ---
 
     @GetMapping("/cliente/{clienteId}")
-    public ResponseEntity<List<Conta>> obterContasPorCliente(@PathVariable Long clienteId) {
+    public ResponseEntity<List<ContaDTO>> obterContasPorCliente(@PathVariable Long clienteId) {
         return new ResponseEntity<>(contaService.obterContasPorCliente(clienteId), HttpStatus.OK);
     }
 
@@ -61,15 +89,33 @@ public class ContaController {
 
     // --- Movimentação (Simulação de Integração) ---
 
+    /**
+     * Com o cabeçalho Idempotency-Key, o reenvio da mesma movimentação devolve a original (200)
+     * em vez de gravar outra.
+     */
     @PostMapping("/{contaId}/movimentacao")
     public ResponseEntity<Movimentacao> receberMovimentacao(
             @PathVariable Long contaId,
             @RequestParam String tipo, // CREDITO ou DEBITO
             @RequestParam String descricao,
-            @RequestParam double valor) {
+            @RequestParam String valor, // lido como texto: exato, com até 2 casas decimais
+            @RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia) {
+        if (chaveIdempotencia != null && (chaveIdempotencia.isBlank()
+                || chaveIdempotencia.length() > Movimentacao.TAMANHO_CHAVE_IDEMPOTENCIA)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        BigDecimal valorExato;
         try {
-            Movimentacao movimentacao = movimentacaoService.receberEfetuarMovimentacao(contaId, tipo, descricao, valor);
+            valorExato = ValorMonetario.ler(valor);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            Movimentacao movimentacao = movimentacaoService.receberEfetuarMovimentacao(
+                    contaId, tipo, descricao, valorExato, chaveIdempotencia);
             return new ResponseEntity<>(movimentacao, HttpStatus.CREATED);
+        } catch (MovimentacaoDuplicadaException e) {
+            return new ResponseEntity<>(e.getOriginal(), HttpStatus.OK);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         } catch (Exception e) {
@@ -77,8 +123,138 @@ public class ContaController {
         }
     }
 
+    /**
+     * Carga em lote: aceita um array JSON ou NDJSON (uma movimentação por linha),
+     * lido de forma incremental a partir do corpo da requisição.
+     * Se o corpo ficar mal formado no meio, os itens lidos até ali são processados e a resposta
+     * é 400 com a situação de cada um e o erro de leitura. Outras falhas seguem como erro do servidor.
+     */
+    @PostMapping(value = "/movimentacoes/lote", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ResultadoLoteMovimentacoes> receberMovimentacoesEmLote(InputStream corpo) {
+        try (MappingIterator<MovimentacaoLoteItem> itens =
+                     objectMapper.readerFor(MovimentacaoLoteItem.class).readValues(corpo)) {
+            LeituraLote leitura = new LeituraLote(itens);
+            ResultadoLoteMovimentacoes resultado = movimentacaoService.receberMovimentacoesEmLote(leitura);
+            if (leitura.erro != null) {
+                resultado.interromperLeitura(leitura.erro.getOriginalMessage());
+                return new ResponseEntity<>(resultado, HttpStatus.BAD_REQUEST);
+            }
+            return new ResponseEntity<>(resultado, HttpStatus.OK);
+        } catch (JsonProcessingException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST); // Corpo mal formado desde o início
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Itens do corpo até o primeiro mal formado: o erro fica guardado e a leitura termina ali.
+     */
+    private static class LeituraLote implements Iterator<MovimentacaoLoteItem> {
+
+        private final MappingIterator<MovimentacaoLoteItem> itens;
+        private MovimentacaoLoteItem proximo;
+        private JsonProcessingException erro;
+
+        LeituraLote(MappingIterator<MovimentacaoLoteItem> itens) {
+            this.itens = itens;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (proximo != null) {
+                return true;
+            }
+            if (erro != null) {
+                return false;
+            }
+            try {
+                // Lido aqui, e não em next(), para um item mal formado encerrar a leitura
+                proximo = itens.hasNextValue() ? itens.nextValue() : null;
+            } catch (JsonProcessingException e) {
+                erro = e;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return proximo != null;
+        }
+
+        @Override
+        public MovimentacaoLoteItem next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            MovimentacaoLoteItem item = proximo;
+            proximo = null;
+            return item;
+        }
+    }
+
+    /**
+     * Movimentações da conta paginadas por cursor: a resposta traz {@code next}, que deve ser
+     * repassado em {@code cursor} para obter a página seguinte. Período opcional (dd/MM/yyyy).
+     */
     @GetMapping("/{contaId}/movimentacoes")
-    public ResponseEntity<List<Movimentacao>> obterMovimentacoesPorConta(@PathVariable Long contaId) {
-        return new ResponseEntity<>(movimentacaoService.obterMovimentacoesPorConta(contaId), HttpStatus.OK);
+    public ResponseEntity<PaginaMovimentacoes> obterMovimentacoesPorConta(
+            @PathVariable Long contaId,
+            @RequestParam(required = false) String inicio,
+            @RequestParam(required = false) String fim,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int tamanho) {
+        try {
+            PaginaMovimentacoes.Cursor posicao = cursor != null ? PaginaMovimentacoes.Cursor.decodificar(cursor) : null;
+            PaginaMovimentacoes pagina = movimentacaoService.obterPaginaMovimentacoes(
+                    contaId, inicioDoPeriodo(inicio), fimDoPeriodo(fim), posicao, tamanho);
+            return new ResponseEntity<>(pagina, HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST); // Data ou cursor inválido
+        }
+    }
+
+    /**
+     * Exporta o histórico de movimentações da conta em NDJSON (uma movimentação por linha),
+     * escrito à medida que é lido do banco, com memória constante.
+     */
+    @GetMapping(value = "/{contaId}/movimentacoes/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarMovimentacoesPorConta(
+            @PathVariable Long contaId,
+            @RequestParam(required = false) String inicio,
+            @RequestParam(required = false) String fim) {
+        LocalDateTime inicioDateTime;
+        LocalDateTime fimDateTime;
+        try {
+            inicioDateTime = inicioDoPeriodo(inicio);
+            fimDateTime = fimDoPeriodo(fim);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        StreamingResponseBody corpo = saida -> {
+            OutputStream buffer = new BufferedOutputStream(saida);
+            try {
+                movimentacaoService.exportarMovimentacoes(contaId, inicioDateTime, fimDateTime, movimentacao -> {
+                    try {
+                        buffer.write(objectMapper.writeValueAsBytes(movimentacao));
+                        buffer.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            buffer.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(corpo);
+    }
+
+    private LocalDateTime inicioDoPeriodo(String data) {
+        return data != null ? LocalDate.parse(data, formatter).atStartOfDay() : null;
+    }
+
+    private LocalDateTime fimDoPeriodo(String data) {
+        return data != null
+                ? LocalDate.parse(data, formatter).atStartOfDay().plus(1, ChronoUnit.DAYS).minus(1, ChronoUnit.SECONDS)
+                : null;
     }
 }
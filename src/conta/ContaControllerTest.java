@@ -0,0 +1,210 @@
+package com.xpto.desafio.service;
+
+import com.desafio_dev.desafio_dev.DesafioDevApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xpto.desafio.dto.MovimentacaoDTO;
+import com.xpto.desafio.dto.MovimentacaoLoteItem;
+import com.xpto.desafio.dto.PaginaMovimentacoes;
+import com.xpto.desafio.entity.Cliente;
+import com.xpto.desafio.entity.Conta;
+import com.xpto.desafio.repository.ClienteRepository;
+import com.xpto.desafio.repository.ContaRepository;
+import com.xpto.desafio.repository.MovimentacaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Carga em lote pelo endpoint: corpo mal formado no início ou no meio da carga. Paginação das
+ * movimentações da conta por cursor (data, ID).
+ */
+@SpringBootTest(classes = DesafioDevApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:conta-controller;MODE=Oracle;DB_CLOSE_DELAY=-1",
+        "xpto.movimentacoes.tamanho-bloco-lote=2"
+})
+@AutoConfigureMockMvc
+public class ContaControllerTest {
+
+    private static final AtomicInteger clientesCriados = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private MovimentacaoRepository movimentacaoRepository;
+
+    @Autowired
+    private MovimentacaoService movimentacaoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Conta conta;
+
+    @BeforeEach
+    void setUp() {
+        // CPF único por teste (mesmo banco em memória para toda a classe)
+        String cpf = String.format("555.666.%03d-88", clientesCriados.incrementAndGet());
+        Cliente cliente = clienteRepository.save(new Cliente("Cliente Lote", "PF", cpf, null, "11933332222"));
+        conta = contaRepository.save(new Conta(cliente, "0001", "0001", "Banco XPTO", new BigDecimal("100.00")));
+    }
+
+    @Test
+    void deveRecusarCorpoMalFormadoDesdeOInicio() throws Exception {
+        mockMvc.perform(post("/api/contas/movimentacoes/lote").contentType(MediaType.APPLICATION_JSON).content("[{\"contaId\": "))
+                .andExpect(status().isBadRequest());
+        assertTrue(movimentacaoRepository.findByContaId(conta.getId()).isEmpty());
+    }
+
+    @Test
+    void deveDevolverSituacaoDosItensLidosAntesDoCorpoMalFormado() throws Exception {
+        String item = "{\"contaId\": " + conta.getId() + ", \"tipo\": \"CREDITO\", \"valor\": 10.00, \"descricao\": \"Lote\"}\n";
+        String corpo = item + item + item + "{\"contaId\": " + conta.getId() + ", \"valor\": \"dez\"}\n" + item;
+
+        mockMvc.perform(post("/api/contas/movimentacoes/lote").contentType(MediaType.APPLICATION_NDJSON).content(corpo))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.totalInseridas").value(3))
+                .andExpect(jsonPath("$.itens.length()").value(3))
+                .andExpect(jsonPath("$.erroLeitura").isNotEmpty());
+        assertEquals(3, movimentacaoRepository.findByContaId(conta.getId()).size());
+    }
+
+    @Test
+    void devePaginarMovimentacoesComMesmaDataPeloId() throws Exception {
+        LocalDateTime data = LocalDateTime.of(2024, 3, 10, 12, 0);
+        for (int i = 0; i < 5; i++) {
+            movimentar(data);
+        }
+        movimentar(data.minusSeconds(1));
+        movimentar(data.plusSeconds(1));
+
+        List<MovimentacaoDTO> lidas = new ArrayList<>();
+        PaginaMovimentacoes pagina = pagina(null, null, null, 2);
+        int paginas = 1;
+        lidas.addAll(pagina.itens());
+        while (pagina.next() != null) {
+            assertEquals(2, pagina.itens().size());
+            pagina = pagina(null, null, pagina.next(), 2);
+            lidas.addAll(pagina.itens());
+            paginas++;
+        }
+
+        assertEquals(4, paginas);
+        assertEquals(1, pagina.itens().size());
+        List<MovimentacaoDTO> esperadas = movimentacaoRepository.findByContaId(conta.getId()).stream()
+                .map(m -> new MovimentacaoDTO(m.getId(), conta.getId(), m.getDataMovimentacao(), m.getTipo(),
+                        m.getValor(), m.getDescricao()))
+                .sorted(Comparator.comparing(MovimentacaoDTO::dataMovimentacao).thenComparing(MovimentacaoDTO::id))
+                .toList();
+        assertEquals(esperadas.stream().map(MovimentacaoDTO::id).toList(), lidas.stream().map(MovimentacaoDTO::id).toList());
+    }
+
+    @Test
+    void deveDevolverUltimaPaginaVaziaSemNext() throws Exception {
+        LocalDateTime data = LocalDateTime.of(2024, 3, 10, 12, 0);
+        for (int i = 0; i < 4; i++) {
+            movimentar(data);
+        }
+
+        // Quantidade múltipla do tamanho: a segunda página já é a última
+        PaginaMovimentacoes primeira = pagina(null, null, null, 2);
+        PaginaMovimentacoes segunda = pagina(null, null, primeira.next(), 2);
+        assertNotNull(primeira.next());
+        assertEquals(2, segunda.itens().size());
+        assertNull(segunda.next());
+
+        // Cursor a partir da última movimentação: página vazia, sem next
+        MovimentacaoDTO ultima = segunda.itens().get(1);
+        String cursor = new PaginaMovimentacoes.Cursor(ultima.dataMovimentacao(), ultima.id()).codificar();
+        mockMvc.perform(get("/api/contas/" + conta.getId() + "/movimentacoes").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens.length()").value(0))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    void devePaginarComPeriodoECursor() throws Exception {
+        movimentar(LocalDateTime.of(2024, 3, 9, 23, 59, 59));
+        movimentar(LocalDateTime.of(2024, 3, 10, 0, 0));
+        movimentar(LocalDateTime.of(2024, 3, 10, 0, 0));
+        movimentar(LocalDateTime.of(2024, 3, 11, 8, 0));
+        movimentar(LocalDateTime.of(2024, 3, 11, 23, 59, 59));
+        movimentar(LocalDateTime.of(2024, 3, 12, 0, 0));
+
+        PaginaMovimentacoes primeira = pagina("10/03/2024", "11/03/2024", null, 3);
+        PaginaMovimentacoes segunda = pagina("10/03/2024", "11/03/2024", primeira.next(), 3);
+
+        assertEquals(List.of(LocalDateTime.of(2024, 3, 10, 0, 0), LocalDateTime.of(2024, 3, 10, 0, 0),
+                LocalDateTime.of(2024, 3, 11, 8, 0)), datas(primeira));
+        assertEquals(List.of(LocalDateTime.of(2024, 3, 11, 23, 59, 59)), datas(segunda));
+        assertNull(segunda.next());
+        assertTrue(primeira.itens().get(0).id() < primeira.itens().get(1).id());
+    }
+
+    @Test
+    void deveRecusarCursorMalFormado() throws Exception {
+        String[] cursores = {
+                "não é base64!",
+                codificar("sem separador"),
+                codificar("2024-03-10T12:00|abc"),
+                codificar("10/03/2024|1"),
+                ""
+        };
+        for (String cursor : cursores) {
+            mockMvc.perform(get("/api/contas/" + conta.getId() + "/movimentacoes").param("cursor", cursor))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    private PaginaMovimentacoes pagina(String inicio, String fim, String cursor, int tamanho) throws Exception {
+        var requisicao = get("/api/contas/" + conta.getId() + "/movimentacoes").param("tamanho", String.valueOf(tamanho));
+        if (inicio != null) {
+            requisicao.param("inicio", inicio).param("fim", fim);
+        }
+        if (cursor != null) {
+            requisicao.param("cursor", cursor);
+        }
+        String corpo = mockMvc.perform(requisicao)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(corpo, PaginaMovimentacoes.class);
+    }
+
+    private static List<LocalDateTime> datas(PaginaMovimentacoes pagina) {
+        return pagina.itens().stream().map(MovimentacaoDTO::dataMovimentacao).toList();
+    }
+
+    private static String codificar(String valor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void movimentar(LocalDateTime data) {
+        movimentacaoService.receberMovimentacoesEmLote(List.of(
+                new MovimentacaoLoteItem(conta.getId(), "CREDITO", new BigDecimal("1.00"), "Paginação", data, null)).iterator());
+    }
+}
@@ -0,0 +1,22 @@
+package com.xpto.desafio.dto;
+
+import com.xpto.desafio.entity.Conta;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Dados cadastrais da conta sem as movimentações (seguro para cache e serialização).
+ * O saldo atual não faz parte do DTO, pois muda a cada movimentação recebida; já
+ * {@code possuiMovimentacoes} (conta bloqueada para alteração) só muda na primeira e na última.
+ */
+public record ContaDTO(Long id, Long clienteId, String numeroConta, String agencia, String instituicaoFinanceira,
+                       BigDecimal saldoInicial, LocalDateTime dataAbertura, Boolean exclusaoLogica,
+                       boolean possuiMovimentacoes) {
+
+    public static ContaDTO de(Conta conta) {
+        return new ContaDTO(conta.getId(), conta.getCliente().getId(), conta.getNumeroConta(), conta.getAgencia(),
+                conta.getInstituicaoFinanceira(), conta.getSaldoInicial(), conta.getDataAbertura(),
+                conta.getExclusaoLogica(), conta.possuiMovimentacoes());
+    }
+}
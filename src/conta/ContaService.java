@@ -1,10 +1,14 @@
 package com.xpto.desafio.service;
 
+import com.xpto.desafio.config.CacheConfig;
+import com.xpto.desafio.dto.ContaDTO;
 import com.xpto.desafio.entity.Conta;
-import com.xpto.desafio.entity.Movimentacao;
 import com.xpto.desafio.repository.ContaRepository;
 import com.xpto.desafio.repository.MovimentacaoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,6 +24,9 @@ public class ContaService {
     @Autowired
     private MovimentacaoRepository movimentacaoRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     /**
      * Obtém uma conta pelo ID.
      */
@@ -28,10 +35,11 @@ public class ContaService {
     }
 
     /**
-     * Obtém todas as contas de um cliente.
+     * Obtém todas as contas de um cliente (em cache, como DTO).
      */
-    public List<Conta> obterContasPorCliente(Long clienteId) {
-        return contaRepository.findByClienteId(clienteId);
+    @Cacheable(value = CacheConfig.CONTAS_POR_CLIENTE, key = "#clienteId")
+    public List<ContaDTO> obterContasPorCliente(Long clienteId) {
+        return contaRepository.findByClienteId(clienteId).stream().map(ContaDTO::de).toList();
     }
 
     /**
@@ -43,9 +51,14 @@ public class ContaService {
 
     /**
      * Cria uma nova conta.
+     * O saldo consolidado parte do saldo inicial, sem movimentações.
      */
     @Transactional
+    @CacheEvict(value = CacheConfig.CONTAS_POR_CLIENTE, key = "#result.cliente.id")
     public Conta criarConta(Conta conta) {
+        conta.setSaldoAtual(conta.getSaldoInicial());
+        conta.setQtdCreditos(0L);
+        conta.setQtdDebitos(0L);
         return contaRepository.save(conta);
     }
 
@@ -55,14 +68,14 @@ public class ContaService {
      * Apenas exclusão lógica é permitida.
      */
     @Transactional
+    @CacheEvict(value = CacheConfig.CONTAS_POR_CLIENTE, key = "#result.cliente.id")
     public Conta atualizarConta(Long id, String numeroConta, String agencia, String instituicaoFinanceira) {
         Optional<Conta> contaOpt = contaRepository.findById(id);
         if (contaOpt.isPresent()) {
             Conta conta = contaOpt.get();
 
             // Verificar se há movimentações
-            List<Movimentacao> movimentacoes = movimentacaoRepository.findByContaId(id);
-            if (!movimentacoes.isEmpty()) {
+            if (movimentacaoRepository.existsByContaId(id)) {
                 throw new IllegalStateException("Não é permitido alterar uma conta com movimentações associadas. Use exclusão lógica.");
             }
 
@@ -83,9 +96,9 @@ public class ContaService {
         Optional<Conta> contaOpt = contaRepository.findById(id);
         if (contaOpt.isPresent()) {
             Conta conta = contaOpt.get();
-            List<Movimentacao> movimentacoes = movimentacaoRepository.findByContaId(id);
+            cacheManager.getCache(CacheConfig.CONTAS_POR_CLIENTE).evict(conta.getCliente().getId());
 
-            if (!movimentacoes.isEmpty()) {
+            if (movimentacaoRepository.existsByContaId(id)) {
                 // Exclusão lógica
                 conta.setExclusaoLogica(true);
                 contaRepository.save(conta);
@@ -100,7 +113,6 @@ public class ContaService {
      * Verifica se uma conta possui movimentações.
      */
     public boolean temMovimentacoes(Long contaId) {
-        List<Movimentacao> movimentacoes = movimentacaoRepository.findByContaId(contaId);
-        return !movimentacoes.isEmpty();
+        return movimentacaoRepository.existsByContaId(contaId);
     }
 }
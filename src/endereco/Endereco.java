@@ -1,9 +1,16 @@
 package com.xpto.desafio.entity;
 
+import com.xpto.desafio.config.CacheConfig;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
-@Table(name = "ENDERECO")
+@Table(name = "ENDERECO", indexes = {
+        @Index(name = "IDX_ENDERECO_CLIENTE", columnList = "CLIENTE_ID")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.REGIAO_ENDERECO)
 public class Endereco {
 
     @Id
@@ -0,0 +1,16 @@
+package com.xpto.desafio.dto;
+
+import com.xpto.desafio.entity.Endereco;
+
+/**
+ * Dados do endereço sem a referência lazy ao cliente (seguro para cache e serialização).
+ */
+public record EnderecoDTO(Long id, Long clienteId, String logradouro, String numero, String complemento,
+                          String bairro, String cidade, String uf, String cep) {
+
+    public static EnderecoDTO de(Endereco endereco) {
+        return new EnderecoDTO(endereco.getId(), endereco.getCliente().getId(), endereco.getLogradouro(),
+                endereco.getNumero(), endereco.getComplemento(), endereco.getBairro(), endereco.getCidade(),
+                endereco.getUf(), endereco.getCep());
+    }
+}
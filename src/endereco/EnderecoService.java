@@ -1,8 +1,13 @@
 package com.xpto.desafio.service;
 
+import com.xpto.desafio.config.CacheConfig;
+import com.xpto.desafio.dto.EnderecoDTO;
 import com.xpto.desafio.entity.Endereco;
 import com.xpto.desafio.repository.EnderecoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,6 +20,9 @@ public class EnderecoService {
     @Autowired
     private EnderecoRepository enderecoRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     /**
      * Obtém um endereço pelo ID.
      */
@@ -23,16 +31,18 @@ public class EnderecoService {
     }
 
     /**
-     * Obtém todos os endereços de um cliente.
+     * Obtém todos os endereços de um cliente (em cache, como DTO).
      */
-    public List<Endereco> obterEnderecosPorCliente(Long clienteId) {
-        return enderecoRepository.findByClienteId(clienteId);
+    @Cacheable(value = CacheConfig.ENDERECOS_POR_CLIENTE, key = "#clienteId")
+    public List<EnderecoDTO> obterEnderecosPorCliente(Long clienteId) {
+        return enderecoRepository.findByClienteId(clienteId).stream().map(EnderecoDTO::de).toList();
     }
 
     /**
      * Cria um novo endereço.
      */
     @Transactional
+    @CacheEvict(value = CacheConfig.ENDERECOS_POR_CLIENTE, key = "#endereco.cliente.id")
     public Endereco criarEndereco(Endereco endereco) {
         return enderecoRepository.save(endereco);
     }
@@ -41,6 +51,7 @@ public class EnderecoService {
      * Atualiza um endereço.
      */
     @Transactional
+    @CacheEvict(value = CacheConfig.ENDERECOS_POR_CLIENTE, key = "#result.cliente.id")
     public Endereco atualizarEndereco(Long id, Endereco enderecoAtualizado) {
         Optional<Endereco> enderecoOpt = enderecoRepository.findById(id);
         if (enderecoOpt.isPresent()) {
@@ -62,6 +73,9 @@ public class EnderecoService {
      */
     @Transactional
     public void deletarEndereco(Long id) {
-        enderecoRepository.deleteById(id);
+        enderecoRepository.findById(id).ifPresent(endereco -> {
+            cacheManager.getCache(CacheConfig.ENDERECOS_POR_CLIENTE).evict(endereco.getCliente().getId());
+            enderecoRepository.delete(endereco);
+        });
     }
 }
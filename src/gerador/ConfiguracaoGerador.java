@@ -0,0 +1,52 @@
+package com.xpto.desafio.gerador;
+
+import java.time.LocalDate;
+
+/**
+ * Parâmetros da massa sintética. A mesma configuração (incluindo semente e data de referência)
+ * gera sempre os mesmos dados, independentemente da quantidade de threads.
+ *
+ * @param clientes                   quantidade de clientes gerados
+ * @param contasPorCliente           contas por cliente
+ * @param enderecosPorCliente        endereços por cliente
+ * @param movimentacoesMediaPorConta média de movimentações por conta
+ * @param fracaoContasPesadas        fração das contas com volume alto (ex.: 0.1 = 10%)
+ * @param fatorContasPesadas         quantas vezes uma conta pesada movimenta mais que uma leve
+ * @param diasHistorico              dias de histórico anteriores à data de referência
+ * @param dataReferencia             data final (exclusiva) do histórico de movimentações
+ * @param semente                    semente do gerador pseudoaleatório
+ * @param threads                    threads de inserção (cada uma usa uma conexão)
+ * @param tamanhoLote                linhas por lote JDBC
+ */
+public record ConfiguracaoGerador(int clientes,
+                                  int contasPorCliente,
+                                  int enderecosPorCliente,
+                                  int movimentacoesMediaPorConta,
+                                  double fracaoContasPesadas,
+                                  int fatorContasPesadas,
+                                  int diasHistorico,
+                                  LocalDate dataReferencia,
+                                  long semente,
+                                  int threads,
+                                  int tamanhoLote) {
+
+    public static ConfiguracaoGerador padrao(int clientes) {
+        return new ConfiguracaoGerador(clientes, 2, 1, 100, 0.1, 20, 365,
+                LocalDate.of(2025, 1, 1), 42L, 4, 1000);
+    }
+
+    public ConfiguracaoGerador comMovimentacoesMediaPorConta(int movimentacoesMediaPorConta) {
+        return new ConfiguracaoGerador(clientes, contasPorCliente, enderecosPorCliente, movimentacoesMediaPorConta,
+                fracaoContasPesadas, fatorContasPesadas, diasHistorico, dataReferencia, semente, threads, tamanhoLote);
+    }
+
+    public ConfiguracaoGerador comContasPorCliente(int contasPorCliente) {
+        return new ConfiguracaoGerador(clientes, contasPorCliente, enderecosPorCliente, movimentacoesMediaPorConta,
+                fracaoContasPesadas, fatorContasPesadas, diasHistorico, dataReferencia, semente, threads, tamanhoLote);
+    }
+
+    public ConfiguracaoGerador comThreads(int threads) {
+        return new ConfiguracaoGerador(clientes, contasPorCliente, enderecosPorCliente, movimentacoesMediaPorConta,
+                fracaoContasPesadas, fatorContasPesadas, diasHistorico, dataReferencia, semente, threads, tamanhoLote);
+    }
+}
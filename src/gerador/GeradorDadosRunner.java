@@ -0,0 +1,63 @@
+package com.xpto.desafio.gerador;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+
+/**
+ * Execução do gerador de massa sintética pela linha de comando, usando o DataSource da aplicação (H2 ou Oracle):
+ * java -jar desafio-dev.jar --spring.main.web-application-type=none --xpto.gerador.ativo=true --xpto.gerador.clientes=100000
+ */
+@Component
+@ConditionalOnProperty(name = "xpto.gerador.ativo", havingValue = "true")
+public class GeradorDadosRunner implements CommandLineRunner {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${xpto.gerador.clientes:1000}")
+    private int clientes;
+
+    @Value("${xpto.gerador.contas-por-cliente:2}")
+    private int contasPorCliente;
+
+    @Value("${xpto.gerador.enderecos-por-cliente:1}")
+    private int enderecosPorCliente;
+
+    @Value("${xpto.gerador.movimentacoes-media-por-conta:100}")
+    private int movimentacoesMediaPorConta;
+
+    @Value("${xpto.gerador.fracao-contas-pesadas:0.1}")
+    private double fracaoContasPesadas;
+
+    @Value("${xpto.gerador.fator-contas-pesadas:20}")
+    private int fatorContasPesadas;
+
+    @Value("${xpto.gerador.dias-historico:365}")
+    private int diasHistorico;
+
+    @Value("${xpto.gerador.data-referencia:2025-01-01}")
+    private String dataReferencia;
+
+    @Value("${xpto.gerador.semente:42}")
+    private long semente;
+
+    @Value("${xpto.gerador.threads:4}")
+    private int threads;
+
+    @Value("${xpto.gerador.tamanho-lote:1000}")
+    private int tamanhoLote;
+
+    @Override
+    public void run(String... args) {
+        ConfiguracaoGerador config = new ConfiguracaoGerador(clientes, contasPorCliente, enderecosPorCliente,
+                movimentacoesMediaPorConta, fracaoContasPesadas, fatorContasPesadas, diasHistorico,
+                LocalDate.parse(dataReferencia), semente, threads, tamanhoLote);
+        new GeradorDadosSinteticos(dataSource).gerar(config);
+    }
+}
@@ -0,0 +1,301 @@
+package com.xpto.desafio.gerador;
+
+import com.xpto.desafio.service.MovimentacaoDiariaService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Gerador de massa sintética (clientes, endereços, contas e movimentações) para testes de carga e benchmarks.
+ * Insere direto nas tabelas do schema.sql com lotes JDBC, em várias threads, cada uma com sua conexão.
+ * <p>
+ * Os dados e os IDs são determinísticos: cada cliente e cada conta tem seu próprio gerador
+ * pseudoaleatório derivado da semente, e os IDs das movimentações são calculados antes da inserção.
+ * O saldo consolidado das contas é gravado já calculado e o consolidado diário é reconstruído ao final.
+ * Deve ser executado com a aplicação parada (ou antes de qualquer inserção), pois ajusta as identidades
+ * e a sequence ao final.
+ */
+public class GeradorDadosSinteticos {
+
+    private static final Logger log = LoggerFactory.getLogger(GeradorDadosSinteticos.class);
+
+    private static final int CLIENTES_POR_TAREFA = 500;
+
+    // allocationSize da sequence da Movimentacao (o Hibernate usa o bloco anterior ao valor lido)
+    private static final int ALOCACAO_SEQ_MOVIMENTACAO = 50;
+
+    private static final String INSERT_CLIENTE =
+            "INSERT INTO CLIENTE (ID, NOME, TIPO_PESSOA, CPF, CNPJ, TELEFONE, DATA_CADASTRO) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ENDERECO =
+            "INSERT INTO ENDERECO (ID, CLIENTE_ID, LOGRADOURO, NUMERO, BAIRRO, CIDADE, UF, CEP) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_CONTA =
+            "INSERT INTO CONTA (ID, CLIENTE_ID, NUMERO_CONTA, AGENCIA, INSTITUICAO_FINANCEIRA, SALDO_INICIAL, DATA_ABERTURA, " +
+            "EXCLUSAO_LOGICA, SALDO_ATUAL, QTD_CREDITOS, QTD_DEBITOS, VERSAO) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_MOVIMENTACAO =
+            "INSERT INTO MOVIMENTACAO (ID, CONTA_ID, DATA_MOVIMENTACAO, TIPO, VALOR, DESCRICAO) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String[] CIDADES = {"São Paulo", "Rio de Janeiro", "Belo Horizonte", "Curitiba", "Recife", "Porto Alegre"};
+    private static final String[] UFS = {"SP", "RJ", "MG", "PR", "PE", "RS"};
+    private static final String[] INSTITUICOES = {"Banco XPTO", "Banco Alfa", "Banco Beta", "Cooperativa Gama"};
+
+    public record ResumoGeracao(long clientes, long contas, long enderecos, long movimentacoes, Duration duracao) {
+
+        public double movimentacoesPorSegundo() {
+            return movimentacoes * 1000.0 / Math.max(1, duracao.toMillis());
+        }
+    }
+
+    // Primeiro ID livre de cada tabela no momento da geração
+    private record BasesId(long cliente, long endereco, long conta, long movimentacao) {
+    }
+
+    private final DataSource dataSource;
+
+    public GeradorDadosSinteticos(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Gera a massa conforme a configuração e devolve as quantidades inseridas e a duração.
+     */
+    public ResumoGeracao gerar(ConfiguracaoGerador config) {
+        Instant inicio = Instant.now();
+        BasesId bases = lerBasesId();
+
+        // 1. Quantidade de movimentações de cada conta e, por soma acumulada, o primeiro ID de cada uma
+        int totalContas = config.clientes() * config.contasPorCliente();
+        long[] primeiraMovimentacao = new long[totalContas + 1];
+        for (int conta = 0; conta < totalContas; conta++) {
+            primeiraMovimentacao[conta + 1] = primeiraMovimentacao[conta] + quantidadeMovimentacoes(config, conta);
+        }
+
+        // 2. Faixas de clientes inseridas em paralelo
+        ExecutorService pool = Executors.newFixedThreadPool(config.threads());
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int de = 0; de < config.clientes(); de += CLIENTES_POR_TAREFA) {
+                int clienteInicial = de;
+                int clienteFinal = Math.min(de + CLIENTES_POR_TAREFA, config.clientes());
+                tarefas.add(pool.submit(() -> {
+                    gerarFaixa(config, bases, primeiraMovimentacao, clienteInicial, clienteFinal);
+                    return null;
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha na geração da massa sintética.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Geração da massa sintética interrompida.", e);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // 3. Posicionar identidades e sequence após os IDs gerados
+        ajustarGeradoresDeId(bases, config, primeiraMovimentacao[totalContas]);
+
+        // 4. Consolidado diário (MOVIMENTACAO_DIARIA) a partir das movimentações inseridas
+        reconstruirConsolidadoDiario();
+
+        ResumoGeracao resumo = new ResumoGeracao(config.clientes(), totalContas,
+                (long) config.clientes() * config.enderecosPorCliente(), primeiraMovimentacao[totalContas],
+                Duration.between(inicio, Instant.now()));
+        log.info("Massa sintética gerada: {} clientes, {} contas, {} movimentações em {} s ({} movimentações/s)",
+                resumo.clientes(), resumo.contas(), resumo.movimentacoes(), resumo.duracao().toSeconds(),
+                Math.round(resumo.movimentacoesPorSegundo()));
+        return resumo;
+    }
+
+    /**
+     * Quantidade de movimentações da conta: contas pesadas movimentam {@code fatorContasPesadas} vezes mais,
+     * mantendo a média configurada.
+     */
+    private static int quantidadeMovimentacoes(ConfiguracaoGerador config, int conta) {
+        SplittableRandom random = aleatorio(config, conta, 1);
+        double fracao = config.fracaoContasPesadas();
+        double mediaLeve = config.movimentacoesMediaPorConta() / (fracao * config.fatorContasPesadas() + 1 - fracao);
+        double media = random.nextDouble() < fracao ? mediaLeve * config.fatorContasPesadas() : mediaLeve;
+        return (int) Math.round(media * (0.5 + random.nextDouble()));
+    }
+
+    private static SplittableRandom aleatorio(ConfiguracaoGerador config, long indice, int dominio) {
+        return new SplittableRandom(config.semente() * 1_000_003L + indice * 4 + dominio);
+    }
+
+    private void gerarFaixa(ConfiguracaoGerador config, BasesId bases, long[] primeiraMovimentacao,
+                            int clienteInicial, int clienteFinal) throws SQLException {
+        LocalDateTime inicioHistorico = config.dataReferencia().minusDays(config.diasHistorico()).atStartOfDay();
+        Timestamp dataCadastro = Timestamp.valueOf(inicioHistorico);
+        long segundosHistorico = config.diasHistorico() * 86_400L;
+
+        try (Connection conexao = dataSource.getConnection();
+             PreparedStatement psCliente = conexao.prepareStatement(INSERT_CLIENTE);
+             PreparedStatement psEndereco = conexao.prepareStatement(INSERT_ENDERECO);
+             PreparedStatement psConta = conexao.prepareStatement(INSERT_CONTA);
+             PreparedStatement psMovimentacao = conexao.prepareStatement(INSERT_MOVIMENTACAO)) {
+            conexao.setAutoCommit(false);
+            PreparedStatement[] ordemInsercao = {psCliente, psEndereco, psConta, psMovimentacao};
+            int pendentes = 0;
+
+            for (int cliente = clienteInicial; cliente < clienteFinal; cliente++) {
+                SplittableRandom random = aleatorio(config, cliente, 2);
+                long clienteId = bases.cliente() + cliente;
+                boolean pj = random.nextInt(5) == 0;
+
+                psCliente.setLong(1, clienteId);
+                psCliente.setString(2, (pj ? "Empresa " : "Cliente ") + clienteId);
+                psCliente.setString(3, pj ? "PJ" : "PF");
+                psCliente.setString(4, pj ? null : String.format("%011d", clienteId));
+                psCliente.setString(5, pj ? String.format("%014d", clienteId) : null);
+                psCliente.setString(6, String.format("119%08d", random.nextInt(100_000_000)));
+                psCliente.setTimestamp(7, dataCadastro);
+                psCliente.addBatch();
+
+                for (int e = 0; e < config.enderecosPorCliente(); e++) {
+                    int cidade = random.nextInt(CIDADES.length);
+                    psEndereco.setLong(1, bases.endereco() + (long) cliente * config.enderecosPorCliente() + e);
+                    psEndereco.setLong(2, clienteId);
+                    psEndereco.setString(3, "Rua Sintética " + random.nextInt(1000));
+                    psEndereco.setString(4, String.valueOf(1 + random.nextInt(9999)));
+                    psEndereco.setString(5, "Centro");
+                    psEndereco.setString(6, CIDADES[cidade]);
+                    psEndereco.setString(7, UFS[cidade]);
+                    psEndereco.setString(8, String.format("%05d-%03d", random.nextInt(100_000), random.nextInt(1000)));
+                    psEndereco.addBatch();
+                }
+
+                for (int c = 0; c < config.contasPorCliente(); c++) {
+                    int conta = cliente * config.contasPorCliente() + c;
+                    long contaId = bases.conta() + conta;
+                    long primeiroId = bases.movimentacao() + primeiraMovimentacao[conta];
+                    int quantidade = (int) (primeiraMovimentacao[conta + 1] - primeiraMovimentacao[conta]);
+                    SplittableRandom randomConta = aleatorio(config, conta, 3);
+
+                    // Movimentações geradas antes da conta para gravar o saldo consolidado já calculado
+                    long saldoInicialCentavos = randomConta.nextLong(1_000_000);
+                    long saldoCentavos = saldoInicialCentavos;
+                    long creditos = 0;
+                    for (int m = 0; m < quantidade; m++) {
+                        boolean credito = randomConta.nextInt(3) != 0;
+                        long valorCentavos = 1 + randomConta.nextLong(100_000);
+                        long segundosAntes = 1 + randomConta.nextLong(segundosHistorico);
+                        saldoCentavos += credito ? valorCentavos : -valorCentavos;
+                        creditos += credito ? 1 : 0;
+
+                        psMovimentacao.setLong(1, primeiroId + m);
+                        psMovimentacao.setLong(2, contaId);
+                        psMovimentacao.setTimestamp(3, Timestamp.valueOf(config.dataReferencia().atStartOfDay().minusSeconds(segundosAntes)));
+                        psMovimentacao.setString(4, credito ? "CREDITO" : "DEBITO");
+                        psMovimentacao.setBigDecimal(5, BigDecimal.valueOf(valorCentavos, 2));
+                        psMovimentacao.setString(6, "Carga sintética");
+                        psMovimentacao.addBatch();
+                        pendentes++;
+                    }
+
+                    psConta.setLong(1, contaId);
+                    psConta.setLong(2, clienteId);
+                    psConta.setString(3, String.format("%08d-%d", contaId, c));
+                    psConta.setString(4, String.format("%04d", 1 + random.nextInt(9999)));
+                    psConta.setString(5, INSTITUICOES[random.nextInt(INSTITUICOES.length)]);
+                    psConta.setBigDecimal(6, BigDecimal.valueOf(saldoInicialCentavos, 2));
+                    psConta.setTimestamp(7, dataCadastro);
+                    psConta.setBoolean(8, false);
+                    psConta.setBigDecimal(9, BigDecimal.valueOf(saldoCentavos, 2));
+                    psConta.setLong(10, creditos);
+                    psConta.setLong(11, quantidade - creditos);
+                    psConta.addBatch();
+                }
+
+                // Lotes executados na ordem das chaves estrangeiras (cliente, endereço, conta, movimentação)
+                if (pendentes >= config.tamanhoLote()) {
+                    executarLotes(conexao, ordemInsercao);
+                    pendentes = 0;
+                }
+            }
+            executarLotes(conexao, ordemInsercao);
+        }
+    }
+
+    private static void executarLotes(Connection conexao, PreparedStatement[] ordemInsercao) throws SQLException {
+        for (PreparedStatement ps : ordemInsercao) {
+            ps.executeBatch();
+        }
+        conexao.commit();
+    }
+
+    private BasesId lerBasesId() {
+        try (Connection conexao = dataSource.getConnection(); Statement st = conexao.createStatement()) {
+            return new BasesId(
+                    proximoId(st, "CLIENTE"),
+                    proximoId(st, "ENDERECO"),
+                    proximoId(st, "CONTA"),
+                    proximoId(st, "MOVIMENTACAO"));
+        } catch (SQLException e) {
+            throw new IllegalStateException("Não foi possível ler os IDs atuais.", e);
+        }
+    }
+
+    private static long proximoId(Statement st, String tabela) throws SQLException {
+        try (ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(ID), 0) + 1 FROM " + tabela)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private void reconstruirConsolidadoDiario() {
+        try (Connection conexao = dataSource.getConnection(); Statement st = conexao.createStatement()) {
+            conexao.setAutoCommit(false);
+            // Pontos de controle do saldo feitos sobre o consolidado anterior ficariam defasados
+            st.executeUpdate(MovimentacaoDiariaService.SQL_LIMPAR_SALDOS_MENSAIS);
+            st.executeUpdate(MovimentacaoDiariaService.SQL_LIMPAR_CONSOLIDADO);
+            st.executeUpdate(MovimentacaoDiariaService.SQL_RECONSTRUIR_CONSOLIDADO);
+            conexao.commit();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Não foi possível reconstruir o consolidado diário.", e);
+        }
+    }
+
+    private void ajustarGeradoresDeId(BasesId bases, ConfiguracaoGerador config, long movimentacoes) {
+        try (Connection conexao = dataSource.getConnection(); Statement st = conexao.createStatement()) {
+            boolean oracle = conexao.getMetaData().getDatabaseProductName().toLowerCase().contains("oracle");
+            long proximoCliente = bases.cliente() + config.clientes();
+            long proximoEndereco = bases.endereco() + (long) config.clientes() * config.enderecosPorCliente();
+            long proximaConta = bases.conta() + (long) config.clientes() * config.contasPorCliente();
+            long proximaMovimentacao = bases.movimentacao() + movimentacoes - 1 + ALOCACAO_SEQ_MOVIMENTACAO;
+
+            if (oracle) {
+                for (String tabela : new String[]{"CLIENTE", "ENDERECO", "CONTA"}) {
+                    st.execute("ALTER TABLE " + tabela + " MODIFY (ID GENERATED BY DEFAULT AS IDENTITY (START WITH LIMIT VALUE))");
+                }
+                st.execute("ALTER SEQUENCE SEQ_MOVIMENTACAO RESTART START WITH " + proximaMovimentacao);
+            } else {
+                st.execute("ALTER TABLE CLIENTE ALTER COLUMN ID RESTART WITH " + proximoCliente);
+                st.execute("ALTER TABLE ENDERECO ALTER COLUMN ID RESTART WITH " + proximoEndereco);
+                st.execute("ALTER TABLE CONTA ALTER COLUMN ID RESTART WITH " + proximaConta);
+                st.execute("ALTER SEQUENCE SEQ_MOVIMENTACAO RESTART WITH " + proximaMovimentacao);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Não foi possível ajustar os geradores de ID.", e);
+        }
+    }
+}
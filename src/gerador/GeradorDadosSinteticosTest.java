@@ -0,0 +1,181 @@
+package com.xpto.desafio.service;
+
+import com.desafio_dev.desafio_dev.DesafioDevApplication;
+import com.xpto.desafio.dto.MovimentacaoLoteItem;
+import com.xpto.desafio.dto.ResultadoLoteMovimentacoes;
+import com.xpto.desafio.entity.Movimentacao;
+import com.xpto.desafio.gerador.ConfiguracaoGerador;
+import com.xpto.desafio.gerador.GeradorDadosSinteticos;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.ResultSetMetaData;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Massa sintética com semente fixa: mesmas linhas com 1 e 4 threads, saldos e consolidado diário
+ * coerentes com as movimentações inseridas e sequence posicionada após os IDs gerados.
+ */
+@SpringBootTest(classes = DesafioDevApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:gerador-dados;MODE=Oracle;DB_CLOSE_DELAY=-1"
+})
+public class GeradorDadosSinteticosTest {
+
+    private static final String[] TABELAS = {"CLIENTE", "ENDERECO", "CONTA", "MOVIMENTACAO"};
+
+    // Mais clientes que uma tarefa do gerador (500), para as faixas serem inseridas em paralelo
+    private static final ConfiguracaoGerador CONFIGURACAO =
+            new ConfiguracaoGerador(700, 2, 1, 6, 0.1, 10, 90, LocalDate.of(2024, 1, 1), 7L, 1, 250);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MovimentacaoService movimentacaoService;
+
+    @Test
+    void deveGerarMesmaMassaComUmaOuQuatroThreads() throws Exception {
+        GeradorDadosSinteticos.ResumoGeracao umaThread = new GeradorDadosSinteticos(dataSource).gerar(CONFIGURACAO);
+        Map<String, String> somasUmaThread = somasDeVerificacao();
+        verificarConsistencia();
+
+        limparMassa();
+        GeradorDadosSinteticos.ResumoGeracao quatroThreads =
+                new GeradorDadosSinteticos(dataSource).gerar(CONFIGURACAO.comThreads(4));
+        Map<String, String> somasQuatroThreads = somasDeVerificacao();
+        verificarConsistencia();
+
+        assertEquals(umaThread.clientes(), quatroThreads.clientes());
+        assertEquals(umaThread.contas(), quatroThreads.contas());
+        assertEquals(umaThread.enderecos(), quatroThreads.enderecos());
+        assertEquals(umaThread.movimentacoes(), quatroThreads.movimentacoes());
+        assertEquals(700L, contar("CLIENTE"));
+        assertEquals(1400L, contar("CONTA"));
+        assertEquals(umaThread.movimentacoes(), contar("MOVIMENTACAO"));
+        assertEquals(somasUmaThread, somasQuatroThreads);
+
+        verificarSequenceAposIdsGerados();
+    }
+
+    /**
+     * SALDO_ATUAL, QTD_CREDITOS e QTD_DEBITOS de cada conta e o consolidado diário iguais aos
+     * calculados a partir das movimentações.
+     */
+    private void verificarConsistencia() {
+        Map<Long, long[]> contas = new HashMap<>();
+        Map<String, BigDecimal[]> dias = new HashMap<>();
+        jdbcTemplate.query("SELECT CONTA_ID, DATA_MOVIMENTACAO, TIPO, VALOR FROM MOVIMENTACAO", rs -> {
+            long contaId = rs.getLong(1);
+            LocalDate dia = rs.getTimestamp(2).toLocalDateTime().toLocalDate();
+            boolean credito = "CREDITO".equals(rs.getString(3));
+            BigDecimal valor = rs.getBigDecimal(4);
+
+            long[] conta = contas.computeIfAbsent(contaId, id -> new long[3]);
+            conta[0] += credito ? valor.movePointRight(2).longValueExact() : -valor.movePointRight(2).longValueExact();
+            conta[credito ? 1 : 2]++;
+
+            BigDecimal[] diario = dias.computeIfAbsent(contaId + "|" + dia,
+                    k -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO});
+            diario[credito ? 0 : 1] = diario[credito ? 0 : 1].add(BigDecimal.ONE);
+            diario[credito ? 2 : 3] = diario[credito ? 2 : 3].add(valor);
+        });
+
+        List<String> divergentes = new ArrayList<>();
+        jdbcTemplate.query("SELECT ID, SALDO_INICIAL, SALDO_ATUAL, QTD_CREDITOS, QTD_DEBITOS FROM CONTA", rs -> {
+            long[] conta = contas.getOrDefault(rs.getLong(1), new long[3]);
+            long saldoEsperado = rs.getBigDecimal(2).movePointRight(2).longValueExact() + conta[0];
+            if (saldoEsperado != rs.getBigDecimal(3).movePointRight(2).longValueExact()
+                    || conta[1] != rs.getLong(4) || conta[2] != rs.getLong(5)) {
+                divergentes.add("conta " + rs.getLong(1));
+            }
+        });
+        assertEquals(List.of(), divergentes);
+
+        Map<String, BigDecimal[]> consolidado = new HashMap<>();
+        jdbcTemplate.query("SELECT CONTA_ID, DATA_MOVIMENTACAO, QTD_CREDITOS, QTD_DEBITOS, VALOR_CREDITOS, VALOR_DEBITOS " +
+                "FROM MOVIMENTACAO_DIARIA", rs -> {
+            consolidado.put(rs.getLong(1) + "|" + rs.getObject(2, LocalDate.class), new BigDecimal[]{
+                    rs.getBigDecimal(3), rs.getBigDecimal(4), rs.getBigDecimal(5), rs.getBigDecimal(6)});
+        });
+        assertEquals(dias.keySet(), consolidado.keySet());
+        for (Map.Entry<String, BigDecimal[]> dia : dias.entrySet()) {
+            BigDecimal[] gravado = consolidado.get(dia.getKey());
+            for (int i = 0; i < 4; i++) {
+                assertEquals(0, dia.getValue()[i].compareTo(gravado[i]), dia.getKey());
+            }
+        }
+    }
+
+    /**
+     * A próxima alocação da SEQ_MOVIMENTACAO (blocos de 50 no Hibernate) começa após o maior ID
+     * gerado: movimentações recebidas pela aplicação, em mais de um bloco, não colidem.
+     */
+    private void verificarSequenceAposIdsGerados() {
+        long maiorGerado = jdbcTemplate.queryForObject("SELECT MAX(ID) FROM MOVIMENTACAO", Long.class);
+        long contaId = jdbcTemplate.queryForObject("SELECT MIN(ID) FROM CONTA", Long.class);
+
+        // Recebimento individual (sem nova tentativa): um ID do bloco já usado violaria a chave primária
+        Movimentacao primeira = movimentacaoService.receberEfetuarMovimentacao(contaId, "CREDITO", "Após a carga",
+                new BigDecimal("1.00"), null);
+        assertTrue(primeira.getId() > maiorGerado, primeira.getId() + " <= " + maiorGerado);
+
+        List<MovimentacaoLoteItem> itens = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            itens.add(new MovimentacaoLoteItem(contaId, "CREDITO", new BigDecimal("1.00"), "Após a carga", null, null));
+        }
+        ResultadoLoteMovimentacoes resultado = movimentacaoService.receberMovimentacoesEmLote(itens.iterator());
+
+        assertEquals(120, resultado.getItens().stream()
+                .filter(item -> ResultadoLoteMovimentacoes.INSERIDA.equals(item.status())).count());
+        assertTrue(resultado.getItens().stream().allMatch(item -> item.movimentacaoId() > primeira.getId()));
+        assertEquals(120L, resultado.getItens().stream().map(item -> item.movimentacaoId()).distinct().count());
+    }
+
+    /**
+     * Hash das linhas de cada tabela em ordem de ID.
+     */
+    private Map<String, String> somasDeVerificacao() throws Exception {
+        Map<String, String> somas = new LinkedHashMap<>();
+        for (String tabela : TABELAS) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            jdbcTemplate.query("SELECT * FROM " + tabela + " ORDER BY ID", rs -> {
+                ResultSetMetaData metadados = rs.getMetaData();
+                StringBuilder linha = new StringBuilder();
+                for (int i = 1; i <= metadados.getColumnCount(); i++) {
+                    linha.append(metadados.getColumnName(i)).append('=').append(rs.getString(i)).append(';');
+                }
+                digest.update(linha.append('\n').toString().getBytes(StandardCharsets.UTF_8));
+            });
+            somas.put(tabela, HexFormat.of().formatHex(digest.digest()));
+        }
+        somas.put("MOVIMENTACAO_DIARIA", String.valueOf(contar("MOVIMENTACAO_DIARIA")));
+        return somas;
+    }
+
+    private void limparMassa() {
+        for (String tabela : new String[]{"SALDO_MENSAL", "MOVIMENTACAO_DIARIA", "MOVIMENTACAO", "CONTA", "ENDERECO", "CLIENTE"}) {
+            jdbcTemplate.update("DELETE FROM " + tabela);
+        }
+    }
+
+    private long contar(String tabela) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tabela, Long.class);
+    }
+}
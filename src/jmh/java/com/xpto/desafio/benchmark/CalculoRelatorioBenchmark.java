@@ -0,0 +1,112 @@
+package com.xpto.desafio.benchmark;
+
+import com.xpto.desafio.entity.Conta;
+import com.xpto.desafio.entity.Movimentacao;
+import com.xpto.desafio.service.RelatorioService;
+import com.xpto.desafio.service.ValorMonetario;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks em memória (sem banco) dos cálculos dos relatórios: dobra do saldo da conta,
+ * precificação por faixa da receita XPTO e formatação das linhas de relatório.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculoRelatorioBenchmark {
+
+    @Param({"10000"})
+    public int movimentacoes;
+
+    private List<Movimentacao> lista;
+    private long[] centavos;
+    private boolean[] debito;
+    private String textoValor;
+    private long[] quantidades;
+    private String hoje;
+
+    @Setup
+    public void iniciar() {
+        Random random = new Random(ContextoBenchmark.SEMENTE);
+        Conta conta = new Conta(null, "1", "0001", "Banco XPTO", BigDecimal.ZERO);
+        lista = new ArrayList<>(movimentacoes);
+        for (int i = 0; i < movimentacoes; i++) {
+            lista.add(new Movimentacao(conta, random.nextInt(3) == 0 ? "DEBITO" : "CREDITO",
+                    BigDecimal.valueOf(1 + random.nextInt(100_000), 2), "Benchmark"));
+        }
+        centavos = new long[movimentacoes];
+        debito = new boolean[movimentacoes];
+        for (int i = 0; i < movimentacoes; i++) {
+            centavos[i] = ValorMonetario.centavos(lista.get(i).getValor());
+            debito[i] = "DEBITO".equals(lista.get(i).getTipo());
+        }
+        textoValor = "1234.56";
+        quantidades = new long[1024];
+        for (int i = 0; i < quantidades.length; i++) {
+            quantidades[i] = random.nextInt(60);
+        }
+        hoje = LocalDate.now().toString();
+    }
+
+    /**
+     * Dobra de todas as movimentações sobre o saldo consolidado da conta (custo por conta de histórico).
+     */
+    @Benchmark
+    public BigDecimal dobraSaldoConta() {
+        Conta conta = new Conta(null, "1", "0001", "Banco XPTO", BigDecimal.ZERO);
+        for (Movimentacao movimentacao : lista) {
+            conta.aplicarMovimentacao(movimentacao);
+        }
+        return conta.getSaldoAtual();
+    }
+
+    /**
+     * A mesma dobra em centavos (long), como nos laços de totalização dos relatórios.
+     */
+    @Benchmark
+    public long dobraSaldoCentavos() {
+        long saldo = 0;
+        for (int i = 0; i < centavos.length; i++) {
+            saldo += debito[i] ? -centavos[i] : centavos[i];
+        }
+        return saldo;
+    }
+
+    /**
+     * Conversão do valor recebido: via double (comportamento anterior) e leitura exata do texto.
+     */
+    @Benchmark
+    public BigDecimal leituraValorViaDouble() {
+        return new BigDecimal(Double.parseDouble(textoValor)).add(BigDecimal.ZERO);
+    }
+
+    @Benchmark
+    public BigDecimal leituraValorExata() {
+        return ValorMonetario.ler(textoValor).add(BigDecimal.ZERO);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1024)
+    public void precificacaoReceitaXPTO(Blackhole blackhole) {
+        for (long quantidade : quantidades) {
+            blackhole.consume(RelatorioService.calcularValorCobrado(quantidade));
+        }
+    }
+
+    @Benchmark
+    public String formatacaoLinhaRelatorio() {
+        return String.format("Cliente: %s - Cliente desde: %s - Saldo em %s: R$ %.2f\n",
+                "Cliente Benchmark", "2020-01-01", hoje, lista.get(0).getValor());
+    }
+}
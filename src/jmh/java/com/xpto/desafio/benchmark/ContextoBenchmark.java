@@ -0,0 +1,63 @@
+package com.xpto.desafio.benchmark;
+
+import com.desafio_dev.desafio_dev.DesafioDevApplication;
+import com.xpto.desafio.gerador.ConfiguracaoGerador;
+import com.xpto.desafio.gerador.GeradorDadosSinteticos;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+
+import javax.sql.DataSource;
+
+/**
+ * Contexto Spring com H2 embarcado e massa sintética, compartilhado pelos benchmarks.
+ * A massa é gerada com semente e data de referência fixas para que os resultados sejam comparáveis entre commits.
+ */
+public final class ContextoBenchmark {
+
+    public static final long SEMENTE = 42L;
+
+    /**
+     * No Maven os benchmarks compilam junto com os testes: as configurações dos testes
+     * (@TestConfiguration) ficam fora da varredura de componentes.
+     */
+    static class ExclusaoConfiguracoesDeTeste extends TypeExcludeFilter {
+
+        @Override
+        public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+            return metadataReader.getAnnotationMetadata().hasAnnotation(TestConfiguration.class.getName());
+        }
+    }
+
+    private ContextoBenchmark() {
+    }
+
+    public static ConfigurableApplicationContext iniciar() {
+        return new SpringApplicationBuilder(DesafioDevApplication.class)
+                .web(WebApplicationType.NONE)
+                .initializers(contexto -> contexto.getBeanFactory()
+                        .registerSingleton("exclusaoConfiguracoesDeTeste", new ExclusaoConfiguracoesDeTeste()))
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;MODE=Oracle",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.open-in-view=false",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    /**
+     * Popula a base com a massa sintética padrão (semente fixa) do tamanho informado.
+     */
+    public static ConfiguracaoGerador popular(ConfigurableApplicationContext contexto, int clientes,
+                                              int contasPorCliente, int movimentacoesMediaPorConta) {
+        ConfiguracaoGerador config = ConfiguracaoGerador.padrao(clientes)
+                .comContasPorCliente(contasPorCliente)
+                .comMovimentacoesMediaPorConta(movimentacoesMediaPorConta);
+        new GeradorDadosSinteticos(contexto.getBean(DataSource.class)).gerar(config);
+        return config;
+    }
+}
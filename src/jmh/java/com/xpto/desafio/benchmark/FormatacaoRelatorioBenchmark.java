@@ -0,0 +1,74 @@
+package com.xpto.desafio.benchmark;
+
+import com.xpto.desafio.service.ModeloRelatorio;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatação de 1 milhão de linhas do Relatório de Saldo de Todos os Clientes: String.format
+ * por linha contra o modelo compilado escrevendo em buffer reaproveitado (tempo por milhão de linhas).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatacaoRelatorioBenchmark {
+
+    private static final int LINHAS = 1_000_000;
+    private static final int VALORES = 4096;
+    private static final String FORMATO = "Cliente: %s - Cliente desde: %s - Saldo em %s: R$ %.2f\n";
+    private static final ModeloRelatorio LINHA = ModeloRelatorio.compilar(FORMATO);
+
+    private String[] nomes;
+    private LocalDate[] datas;
+    private BigDecimal[] saldos;
+    private String dataSaldo;
+    private StringBuilder buffer;
+    private Writer destino;
+
+    @Setup
+    public void iniciar() {
+        Random random = new Random(ContextoBenchmark.SEMENTE);
+        nomes = new String[VALORES];
+        datas = new LocalDate[VALORES];
+        saldos = new BigDecimal[VALORES];
+        for (int i = 0; i < VALORES; i++) {
+            nomes[i] = "Cliente " + i;
+            datas[i] = LocalDate.of(2015, 1, 1).plusDays(random.nextInt(3650));
+            saldos[i] = BigDecimal.valueOf(random.nextLong() % 100_000_000L, 2);
+        }
+        dataSaldo = LocalDate.of(2025, 1, 1).toString();
+        buffer = new StringBuilder(64 * 1024);
+        destino = Writer.nullWriter();
+    }
+
+    @Benchmark
+    public void stringFormat() throws IOException {
+        for (int i = 0; i < LINHAS; i++) {
+            int v = i & (VALORES - 1);
+            destino.write(String.format(FORMATO, nomes[v], datas[v].toString(), dataSaldo, saldos[v]));
+        }
+    }
+
+    @Benchmark
+    public void modeloCompilado() throws IOException {
+        for (int i = 0; i < LINHAS; i++) {
+            int v = i & (VALORES - 1);
+            LINHA.em(buffer).texto(nomes[v]).data(datas[v]).texto(dataSaldo).moeda(saldos[v]);
+            if (buffer.length() >= 60 * 1024) {
+                destino.append(buffer);
+                buffer.setLength(0);
+            }
+        }
+        destino.append(buffer);
+        buffer.setLength(0);
+    }
+}
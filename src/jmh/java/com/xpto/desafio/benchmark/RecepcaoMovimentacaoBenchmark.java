@@ -0,0 +1,85 @@
+package com.xpto.desafio.benchmark;
+
+import com.xpto.desafio.service.MovimentacaoDiariaService;
+import com.xpto.desafio.service.MovimentacaoService;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark da recepção de movimentações contra H2 embarcado. Cada chamada grava uma movimentação;
+ * antes de cada iteração a massa volta ao estado gerado (movimentações do benchmark removidas, saldos
+ * das contas e consolidado diário refeitos, caches limpos), para as iterações medirem a mesma base.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecepcaoMovimentacaoBenchmark {
+
+    private static final String DESCRICAO = "Benchmark";
+    private static final BigDecimal VALOR_MOVIMENTACAO = new BigDecimal("10.00");
+
+    private static final String SQL_DESFAZER_SALDOS =
+            "UPDATE CONTA c SET " +
+            "SALDO_ATUAL = SALDO_ATUAL - (SELECT SUM(m.VALOR) FROM MOVIMENTACAO m WHERE m.CONTA_ID = c.ID AND m.DESCRICAO = ?), " +
+            "QTD_CREDITOS = QTD_CREDITOS - (SELECT COUNT(*) FROM MOVIMENTACAO m WHERE m.CONTA_ID = c.ID AND m.DESCRICAO = ?) " +
+            "WHERE c.ID IN (SELECT m.CONTA_ID FROM MOVIMENTACAO m WHERE m.DESCRICAO = ?)";
+
+    @Param({"1000"})
+    public int clientes;
+
+    @Param({"2"})
+    public int contasPorCliente;
+
+    @Param({"50"})
+    public int movimentacoesMediaPorConta;
+
+    private ConfigurableApplicationContext contexto;
+    private MovimentacaoService movimentacaoService;
+    private JdbcTemplate jdbcTemplate;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar();
+        ContextoBenchmark.popular(contexto, clientes, contasPorCliente, movimentacoesMediaPorConta);
+        movimentacaoService = contexto.getBean(MovimentacaoService.class);
+        jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+    }
+
+    /**
+     * Desfaz as movimentações gravadas na iteração anterior e reinicia a sequência de contas sorteadas.
+     */
+    @Setup(Level.Iteration)
+    public void restaurarMassa() {
+        random = new SplittableRandom(ContextoBenchmark.SEMENTE);
+        if (jdbcTemplate.update(SQL_DESFAZER_SALDOS, DESCRICAO, DESCRICAO, DESCRICAO) == 0) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM MOVIMENTACAO WHERE DESCRICAO = ?", DESCRICAO);
+        contexto.getBean(MovimentacaoDiariaService.class).reconstruir();
+        contexto.getBean(EntityManagerFactory.class).getCache().evictAll();
+        CacheManager cacheManager = contexto.getBean(CacheManager.class);
+        cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Object receberMovimentacao() {
+        long contaId = 1 + random.nextInt(clientes * contasPorCliente);
+        return movimentacaoService.receberEfetuarMovimentacao(contaId, "CREDITO", DESCRICAO, VALOR_MOVIMENTACAO);
+    }
+}
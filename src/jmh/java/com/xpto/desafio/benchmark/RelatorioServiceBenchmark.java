@@ -0,0 +1,83 @@
+package com.xpto.desafio.benchmark;
+
+import com.xpto.desafio.gerador.ConfiguracaoGerador;
+import com.xpto.desafio.service.RelatorioService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks dos relatórios contra H2 embarcado (a recepção de movimentações, que altera a massa,
+ * fica em RecepcaoMovimentacaoBenchmark).
+ * O tamanho da massa é configurável por parâmetro: -p clientes=10000 -p movimentacoesMediaPorConta=200
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RelatorioServiceBenchmark {
+
+    @Param({"1000"})
+    public int clientes;
+
+    @Param({"2"})
+    public int contasPorCliente;
+
+    @Param({"50"})
+    public int movimentacoesMediaPorConta;
+
+    private ConfigurableApplicationContext contexto;
+    private RelatorioService relatorioService;
+    private TransactionTemplate transacao;
+    private SplittableRandom random;
+
+    private LocalDate inicio;
+    private LocalDate fim;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar();
+        ConfiguracaoGerador config = ContextoBenchmark.popular(contexto, clientes, contasPorCliente, movimentacoesMediaPorConta);
+        fim = config.dataReferencia().minusDays(1);
+        inicio = config.dataReferencia().minusMonths(3);
+        relatorioService = contexto.getBean(RelatorioService.class);
+        // Equivalente ao open-in-view das requisições HTTP (relatórios acessam coleções lazy)
+        transacao = contexto.getBean(TransactionTemplate.class);
+        random = new SplittableRandom(ContextoBenchmark.SEMENTE);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    private long clienteAleatorio() {
+        return 1 + random.nextInt(clientes);
+    }
+
+    @Benchmark
+    public String relatorioSaldoCliente() {
+        long clienteId = clienteAleatorio();
+        return transacao.execute(status -> relatorioService.gerarRelatorioSaldoCliente(clienteId));
+    }
+
+    @Benchmark
+    public String relatorioSaldoClientePorPeriodo() {
+        long clienteId = clienteAleatorio();
+        return transacao.execute(status -> relatorioService.gerarRelatorioSaldoClientePorPeriodo(clienteId, inicio, fim));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void relatorioSaldoTodosClientes() throws IOException {
+        relatorioService.escreverRelatorioSaldoTodosClientes(Writer.nullWriter());
+    }
+}
@@ -0,0 +1,97 @@
+package com.xpto.desafio.benchmark;
+
+import com.xpto.desafio.entity.Conta;
+import com.xpto.desafio.entity.Movimentacao;
+import com.xpto.desafio.service.TotalizadorMovimentacoes;
+import com.xpto.desafio.service.ValorMonetario;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Totalização por conta e período (saldo antes do período, créditos e débitos dentro dele):
+ * laço sobre entidades (BigDecimal e comparação de texto por movimentação) contra o totalizador
+ * em colunas primitivas. Resultados por movimentação: tempo em ns/op e, com o profiler gc
+ * (ativo no profile jmh), bytes alocados em gc.alloc.rate.norm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TotalizadorMovimentacoesBenchmark {
+
+    private static final int MOVIMENTACOES = 1_000_000;
+    private static final int CONTAS = 100;
+
+    private List<Movimentacao> movimentacoes;
+    private TotalizadorMovimentacoes totalizador;
+    private LocalDateTime inicio;
+    private LocalDateTime fim;
+
+    @Setup
+    public void iniciar() {
+        Random random = new Random(ContextoBenchmark.SEMENTE);
+        List<Conta> contas = new ArrayList<>(CONTAS);
+        for (int i = 0; i < CONTAS; i++) {
+            Conta conta = new Conta(null, String.valueOf(i), "0001", "Banco XPTO", BigDecimal.ZERO);
+            conta.setId((long) i + 1);
+            contas.add(conta);
+        }
+
+        LocalDateTime referencia = LocalDateTime.of(2025, 1, 1, 0, 0);
+        inicio = referencia.minusDays(90);
+        fim = referencia;
+        movimentacoes = new ArrayList<>(MOVIMENTACOES);
+        totalizador = new TotalizadorMovimentacoes(MOVIMENTACOES);
+        for (int i = 0; i < MOVIMENTACOES; i++) {
+            Movimentacao movimentacao = new Movimentacao(contas.get(random.nextInt(CONTAS)),
+                    random.nextInt(3) == 0 ? "DEBITO" : "CREDITO",
+                    BigDecimal.valueOf(1 + random.nextInt(100_000), 2), "Benchmark");
+            movimentacao.setDataMovimentacao(referencia.minusSeconds(random.nextInt(365 * 86_400)));
+            movimentacoes.add(movimentacao);
+
+            totalizador.adicionar(movimentacao.getConta().getId(),
+                    TotalizadorMovimentacoes.instante(movimentacao.getDataMovimentacao()),
+                    "CREDITO".equals(movimentacao.getTipo()) ? TotalizadorMovimentacoes.CREDITO : TotalizadorMovimentacoes.DEBITO,
+                    ValorMonetario.centavos(movimentacao.getValor()), 1);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MOVIMENTACOES)
+    public Map<Long, BigDecimal[]> totalizacaoEntidades() {
+        // [0] variação antes do período, [1] créditos no período, [2] débitos no período
+        Map<Long, BigDecimal[]> totais = new HashMap<>();
+        for (Movimentacao movimentacao : movimentacoes) {
+            if (!movimentacao.getDataMovimentacao().isBefore(fim)) {
+                continue;
+            }
+            BigDecimal[] conta = totais.computeIfAbsent(movimentacao.getConta().getId(),
+                    id -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO});
+            boolean credito = "CREDITO".equals(movimentacao.getTipo());
+            if (movimentacao.getDataMovimentacao().isBefore(inicio)) {
+                conta[0] = credito ? conta[0].add(movimentacao.getValor()) : conta[0].subtract(movimentacao.getValor());
+            } else if (credito) {
+                conta[1] = conta[1].add(movimentacao.getValor());
+            } else {
+                conta[2] = conta[2].add(movimentacao.getValor());
+            }
+        }
+        return totais;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MOVIMENTACOES)
+    public TotalizadorMovimentacoes.Totais totalizacaoColunar() {
+        return totalizador.totalizar(TotalizadorMovimentacoes.instante(inicio), TotalizadorMovimentacoes.instante(fim));
+    }
+}
@@ -2,8 +2,16 @@ package com.desafio_dev.desafio_dev;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
-@SpringBootApplication
+/**
+ * Aplicação (funcionalidades em com.xpto.desafio). É também a configuração única dos testes de
+ * integração: @SpringBootTest(classes = DesafioDevApplication.class).
+ */
+@SpringBootApplication(scanBasePackages = {"com.desafio_dev.desafio_dev", "com.xpto.desafio"})
+@EntityScan("com.xpto.desafio.entity")
+@EnableJpaRepositories("com.xpto.desafio.repository")
 public class DesafioDevApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,154 @@
+package com.xpto.desafio.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.xpto.desafio.repository.MovimentacaoRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Filtro em memória das chaves de idempotência já gravadas, consultado antes do banco:
+ * <ul>
+ *     <li>chaves recentes (reenvios logo após um timeout) ficam em cache com o ID da movimentação;</li>
+ *     <li>um filtro de Bloom responde "com certeza não existe" para chaves novas, sem ir ao banco.</li>
+ * </ul>
+ * Só o "talvez exista" do filtro de Bloom exige consulta; o índice único garante a correção
+ * nas corridas entre requisições simultâneas com a mesma chave.
+ */
+@Component
+public class FiltroIdempotencia {
+
+    private static final Logger log = LoggerFactory.getLogger(FiltroIdempotencia.class);
+
+    @Autowired
+    private MovimentacaoRepository movimentacaoRepository;
+
+    @Value("${xpto.idempotencia.capacidade-filtro:10000000}")
+    private long capacidade;
+
+    @Value("${xpto.idempotencia.taxa-falso-positivo:0.01}")
+    private double taxaFalsoPositivo;
+
+    @Value("${xpto.idempotencia.chaves-recentes:100000}")
+    private long chavesRecentes;
+
+    private AtomicLongArray bits;
+    private long totalBits;
+    private int funcoesHash;
+    private Cache<String, Long> recentes;
+
+    // Até a carga inicial terminar o filtro de Bloom não pode afirmar que uma chave não existe
+    private volatile boolean carregado;
+
+    private final AtomicLong chavesRegistradas = new AtomicLong();
+
+    @PostConstruct
+    public void iniciar() {
+        // Tamanho ótimo do filtro de Bloom para a capacidade e a taxa de falso positivo configuradas
+        long bitsCalculados = (long) Math.ceil(-capacidade * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        int palavras = (int) Math.min(Integer.MAX_VALUE - 8, (bitsCalculados + 63) / 64);
+        totalBits = palavras * 64L;
+        funcoesHash = Math.max(1, (int) Math.round((double) totalBits / capacidade * Math.log(2)));
+        bits = new AtomicLongArray(palavras);
+        recentes = Caffeine.newBuilder().maximumSize(chavesRecentes).build();
+    }
+
+    /**
+     * Carrega no filtro de Bloom as chaves já gravadas no banco.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void carregarChavesExistentes() {
+        try (Stream<String> chaves = movimentacaoRepository.streamChavesIdempotencia()) {
+            chaves.forEach(this::marcar);
+        }
+        carregado = true;
+        log.info("Filtro de idempotência carregado com {} chaves ({} bits, {} funções de hash)",
+                chavesRegistradas.get(), totalBits, funcoesHash);
+    }
+
+    /**
+     * ID da movimentação gravada recentemente com a chave, ou nulo se a chave não está no cache.
+     */
+    public Long idRecente(String chave) {
+        return recentes.getIfPresent(chave);
+    }
+
+    /**
+     * Falso indica que a chave com certeza ainda não foi gravada; verdadeiro exige consulta ao banco.
+     */
+    public boolean podeExistir(String chave) {
+        if (!carregado) {
+            return true;
+        }
+        long hash1 = hash(chave);
+        long hash2 = misturar(hash1) | 1;
+        for (int i = 0; i < funcoesHash; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, totalBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Registra a chave de uma movimentação gravada (chamar após o commit).
+     */
+    public void registrar(String chave, Long movimentacaoId) {
+        marcar(chave);
+        recentes.put(chave, movimentacaoId);
+    }
+
+    /**
+     * Retira a chave de uma movimentação excluída do cache de chaves recentes (chamar após o commit).
+     * O filtro de Bloom não remove bits: a chave passa a ser conferida no banco.
+     */
+    public void remover(String chave) {
+        recentes.invalidate(chave);
+    }
+
+    private void marcar(String chave) {
+        long hash1 = hash(chave);
+        long hash2 = misturar(hash1) | 1;
+        for (int i = 0; i < funcoesHash; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, totalBits);
+            int palavra = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            long atual;
+            do {
+                atual = bits.get(palavra);
+            } while ((atual & mascara) == 0 && !bits.compareAndSet(palavra, atual, atual | mascara));
+        }
+        chavesRegistradas.incrementAndGet();
+    }
+
+    // FNV-1a de 64 bits sobre os bytes UTF-8 da chave
+    private static long hash(String chave) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : chave.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // Finalizador do SplitMix64: segundo hash independente para o duplo hashing do filtro
+    private static long misturar(long valor) {
+        valor = (valor ^ (valor >>> 30)) * 0xbf58476d1ce4e5b9L;
+        valor = (valor ^ (valor >>> 27)) * 0x94d049bb133111ebL;
+        return valor ^ (valor >>> 31);
+    }
+}
@@ -0,0 +1,103 @@
+package com.xpto.desafio.service;
+
+import com.desafio_dev.desafio_dev.DesafioDevApplication;
+import com.xpto.desafio.dto.MovimentacaoLoteItem;
+import com.xpto.desafio.dto.ResultadoLoteMovimentacoes;
+import com.xpto.desafio.entity.Cliente;
+import com.xpto.desafio.entity.Conta;
+import com.xpto.desafio.entity.Movimentacao;
+import com.xpto.desafio.repository.ClienteRepository;
+import com.xpto.desafio.repository.ContaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Chaves de idempotência de movimentações excluídas: o reenvio com a mesma chave é aceito como
+ * nova movimentação, no recebimento individual e no lote, mesmo com a chave no cache de chaves recentes.
+ */
+@SpringBootTest(classes = DesafioDevApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:idempotencia;MODE=Oracle;DB_CLOSE_DELAY=-1"
+})
+public class IdempotenciaTest {
+
+    private static final AtomicInteger clientesCriados = new AtomicInteger();
+
+    @Autowired
+    private MovimentacaoService movimentacaoService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Conta conta;
+
+    @BeforeEach
+    void setUp() {
+        // CPF único por teste (mesmo banco em memória para toda a classe)
+        String cpf = String.format("666.777.%03d-99", clientesCriados.incrementAndGet());
+        Cliente cliente = clienteRepository.save(new Cliente("Cliente Idempotência", "PF", cpf, null, "11922221111"));
+        conta = contaRepository.save(new Conta(cliente, "0001", "0001", "Banco XPTO", new BigDecimal("100.00")));
+    }
+
+    @Test
+    void deveAceitarReenvioIndividualDeChaveExcluida() {
+        Movimentacao original = receber("excluida-individual");
+        movimentacaoService.deletarMovimentacao(original.getId());
+
+        Movimentacao reenvio = receber("excluida-individual");
+
+        assertNotEquals(original.getId(), reenvio.getId());
+        assertThrows(MovimentacaoDuplicadaException.class, () -> receber("excluida-individual"));
+    }
+
+    @Test
+    void deveAceitarReenvioEmLoteDeChaveExcluida() {
+        ResultadoLoteMovimentacoes primeiro = receberEmLote("excluida-lote");
+        Long original = primeiro.getItens().get(0).movimentacaoId();
+        movimentacaoService.deletarMovimentacao(original);
+
+        ResultadoLoteMovimentacoes reenvio = receberEmLote("excluida-lote");
+
+        assertEquals(ResultadoLoteMovimentacoes.INSERIDA, reenvio.getItens().get(0).status());
+        assertNotEquals(original, reenvio.getItens().get(0).movimentacaoId());
+        assertEquals(ResultadoLoteMovimentacoes.DUPLICADA, receberEmLote("excluida-lote").getItens().get(0).status());
+    }
+
+    @Test
+    void deveConferirNoBancoChaveRecenteExcluidaEmOutraInstancia() {
+        Long individual = receber("excluida-outra-instancia-individual").getId();
+        Long lote = receberEmLote("excluida-outra-instancia-lote").getItens().get(0).movimentacaoId();
+
+        // Outra instância exclui direto no banco: o cache desta instância ainda aponta para os IDs excluídos
+        jdbcTemplate.update("DELETE FROM MOVIMENTACAO WHERE ID IN (?, ?)", individual, lote);
+
+        assertNotEquals(individual, receber("excluida-outra-instancia-individual").getId());
+        ResultadoLoteMovimentacoes reenvio = receberEmLote("excluida-outra-instancia-lote");
+        assertEquals(ResultadoLoteMovimentacoes.INSERIDA, reenvio.getItens().get(0).status());
+        assertNotEquals(lote, reenvio.getItens().get(0).movimentacaoId());
+    }
+
+    private Movimentacao receber(String chave) {
+        return movimentacaoService.receberEfetuarMovimentacao(conta.getId(), "CREDITO", "Individual",
+                new BigDecimal("10.00"), chave);
+    }
+
+    private ResultadoLoteMovimentacoes receberEmLote(String chave) {
+        return movimentacaoService.receberMovimentacoesEmLote(List.of(new MovimentacaoLoteItem(conta.getId(),
+                "CREDITO", new BigDecimal("10.00"), "Lote", null, chave)).iterator());
+    }
+}
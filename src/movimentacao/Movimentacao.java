@@ -5,11 +5,18 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "MOVIMENTACAO")
+@Table(name = "MOVIMENTACAO", indexes = {
+        @Index(name = "IDX_MOVIMENTACAO_CONTA_DATA", columnList = "CONTA_ID, DATA_MOVIMENTACAO, TIPO, VALOR"),
+        @Index(name = "UK_MOVIMENTACAO_CHAVE_IDEMPOTENCIA", columnList = "CHAVE_IDEMPOTENCIA", unique = true)
+})
 public class Movimentacao {
 
+    public static final int TAMANHO_CHAVE_IDEMPOTENCIA = 64;
+
+    // Sequence com alocação em blocos: IDENTITY impede o Hibernate de agrupar inserts em lote JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimentacaoSeq")
+    @SequenceGenerator(name = "movimentacaoSeq", sequenceName = "SEQ_MOVIMENTACAO", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -28,6 +35,10 @@ public class Movimentacao {
     @Column(name = "DESCRICAO")
     private String descricao;
 
+    // Chave enviada pela origem para identificar reenvios da mesma movimentação (opcional)
+    @Column(name = "CHAVE_IDEMPOTENCIA", length = TAMANHO_CHAVE_IDEMPOTENCIA)
+    private String chaveIdempotencia;
+
     // Construtores
     public Movimentacao() {
     }
@@ -88,4 +99,12 @@ public class Movimentacao {
     public void setDescricao(String descricao) {
         this.descricao = descricao;
     }
+
+    public String getChaveIdempotencia() {
+        return chaveIdempotencia;
+    }
+
+    public void setChaveIdempotencia(String chaveIdempotencia) {
+        this.chaveIdempotencia = chaveIdempotencia;
+    }
 }
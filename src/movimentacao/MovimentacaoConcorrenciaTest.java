@@ -0,0 +1,270 @@
+package com.xpto.desafio.service;
+
+import com.xpto.desafio.dto.MovimentacaoLoteItem;
+import com.xpto.desafio.dto.ResultadoLoteMovimentacoes;
+import com.xpto.desafio.dto.TotalMovimentacaoConta;
+import com.xpto.desafio.entity.Cliente;
+import com.xpto.desafio.entity.Conta;
+import com.xpto.desafio.repository.ClienteRepository;
+import com.xpto.desafio.repository.ContaRepository;
+import com.xpto.desafio.repository.MovimentacaoDiariaRepository;
+import com.xpto.desafio.repository.MovimentacaoRepository;
+import com.desafio_dev.desafio_dev.DesafioDevApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de estresse: 64 threads movimentando as mesmas contas ao mesmo tempo. O saldo consolidado,
+ * os contadores e o consolidado diário precisam terminar exatos, sem atualização perdida.
+ * O bloqueio por conta serializa essas threads; a nova tentativa em conflito de versão (outra
+ * instância alterando a conta) é conferida à parte, assim como a reconstrução do consolidado diário
+ * com um recebimento em andamento.
+ */
+@SpringBootTest(classes = DesafioDevApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:concorrencia;MODE=Oracle;DB_CLOSE_DELAY=-1",
+        "xpto.movimentacoes.tamanho-bloco-lote=10"
+})
+public class MovimentacaoConcorrenciaTest {
+
+    private static final int THREADS = 64;
+    private static final int MOVIMENTACOES_POR_THREAD = 50;
+
+    private static final AtomicInteger clientesCriados = new AtomicInteger();
+
+    @Autowired
+    private MovimentacaoService movimentacaoService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private MovimentacaoRepository movimentacaoRepository;
+
+    @Autowired
+    private MovimentacaoDiariaRepository movimentacaoDiariaRepository;
+
+    @Autowired
+    private MovimentacaoDiariaService movimentacaoDiariaService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        // CPF único por teste (mesmo banco em memória para toda a classe)
+        String cpf = String.format("111.222.%03d-44", clientesCriados.incrementAndGet());
+        cliente = clienteRepository.save(new Cliente("Cliente Concorrência", "PF", cpf, null, "11988887777"));
+    }
+
+    @Test
+    void deveManterSaldoExatoComEscritoresConcorrentesNaMesmaConta() throws Exception {
+        Conta conta = novaConta("0001", "100.00");
+
+        // Cada thread alterna créditos de 10,00 e débitos de 3,00
+        executarEmParalelo(thread -> () -> {
+            for (int i = 0; i < MOVIMENTACOES_POR_THREAD; i++) {
+                String tipo = i % 2 == 0 ? "CREDITO" : "DEBITO";
+                BigDecimal valor = i % 2 == 0 ? new BigDecimal("10.00") : new BigDecimal("3.00");
+                movimentacaoService.receberEfetuarMovimentacao(conta.getId(), tipo, "Thread " + thread, valor);
+            }
+            return null;
+        });
+
+        long creditos = (long) THREADS * MOVIMENTACOES_POR_THREAD / 2;
+        long debitos = (long) THREADS * MOVIMENTACOES_POR_THREAD / 2;
+        BigDecimal esperado = new BigDecimal("100.00")
+                .add(new BigDecimal("10.00").multiply(BigDecimal.valueOf(creditos)))
+                .subtract(new BigDecimal("3.00").multiply(BigDecimal.valueOf(debitos)));
+        verificarConta(conta.getId(), esperado, creditos, debitos);
+    }
+
+    @Test
+    void deveManterSaldoExatoComLotesConcorrentesEmContasCompartilhadas() throws Exception {
+        List<Conta> contas = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            contas.add(novaConta("1" + i, "0.00"));
+        }
+
+        // Cada lote usa as quatro contas em ordem diferente: os bloqueios não podem entrar em deadlock
+        executarEmParalelo(thread -> () -> {
+            List<MovimentacaoLoteItem> itens = new ArrayList<>();
+            for (int i = 0; i < MOVIMENTACOES_POR_THREAD; i++) {
+                Conta conta = contas.get((thread + i) % contas.size());
+                itens.add(new MovimentacaoLoteItem(conta.getId(), "CREDITO", new BigDecimal("1.00"),
+                        "Lote " + thread, null, null));
+            }
+            ResultadoLoteMovimentacoes resultado = movimentacaoService.receberMovimentacoesEmLote(itens.iterator());
+            assertEquals(MOVIMENTACOES_POR_THREAD, resultado.getTotalInseridas());
+            return null;
+        });
+
+        long porConta = (long) THREADS * MOVIMENTACOES_POR_THREAD / contas.size();
+        for (Conta conta : contas) {
+            verificarConta(conta.getId(), new BigDecimal("1.00").multiply(BigDecimal.valueOf(porConta)), porConta, 0);
+        }
+    }
+
+    @Test
+    void deveRepetirMovimentacaoQuandoOutraInstanciaAlteraAConta() {
+        Conta conta = novaConta("0002", "100.00");
+        contaRepository.findById(conta.getId()); // conta no cache de segundo nível
+
+        // Outra instância credita 5,00 direto no banco, fora do bloqueio desta instância: a conta
+        // em cache fica com a versão anterior e a primeira tentativa falha na versão
+        jdbcTemplate.update("UPDATE CONTA SET SALDO_ATUAL = SALDO_ATUAL + 5, QTD_CREDITOS = QTD_CREDITOS + 1, "
+                + "VERSAO = VERSAO + 1 WHERE ID = ?", conta.getId());
+        double conflitos = meterRegistry.counter("xpto.movimentacoes.conflitos").count();
+
+        movimentacaoService.receberEfetuarMovimentacao(conta.getId(), "CREDITO", "Após conflito", new BigDecimal("10.00"));
+
+        assertEquals(conflitos + 1, meterRegistry.counter("xpto.movimentacoes.conflitos").count());
+        Conta atualizada = contaRepository.findById(conta.getId()).orElseThrow();
+        assertEquals(0, new BigDecimal("115.00").compareTo(atualizada.getSaldoAtual()), "Saldo: " + atualizada.getSaldoAtual());
+        assertEquals(2, atualizada.getQtdCreditos());
+    }
+
+    @Test
+    void deveIdentificarChaveGravadaPorOutraInstancia() {
+        Conta conta = novaConta("0003", "100.00");
+        // Outra instância grava as chaves direto no banco: o filtro desta instância não as conhece
+        long individual = gravarEmOutraInstancia(conta, "outra-instancia-individual");
+        long lote = gravarEmOutraInstancia(conta, "outra-instancia-lote");
+
+        MovimentacaoDuplicadaException duplicada = assertThrows(MovimentacaoDuplicadaException.class, () ->
+                movimentacaoService.receberEfetuarMovimentacao(conta.getId(), "CREDITO", "Reenvio",
+                        new BigDecimal("10.00"), "outra-instancia-individual"));
+        assertEquals(individual, duplicada.getOriginal().getId());
+
+        ResultadoLoteMovimentacoes resultado = movimentacaoService.receberMovimentacoesEmLote(List.of(
+                new MovimentacaoLoteItem(conta.getId(), "CREDITO", new BigDecimal("10.00"), "Reenvio", null, "outra-instancia-lote"),
+                new MovimentacaoLoteItem(conta.getId(), "CREDITO", new BigDecimal("1.00"), "Nova", null, "nova-no-lote")).iterator());
+        assertEquals(ResultadoLoteMovimentacoes.DUPLICADA, resultado.getItens().get(0).status());
+        assertEquals(lote, resultado.getItens().get(0).movimentacaoId());
+        assertEquals(ResultadoLoteMovimentacoes.INSERIDA, resultado.getItens().get(1).status());
+    }
+
+    @Test
+    void deveReconstruirConsolidadoSoDepoisDoRecebimentoEmAndamentoEmOutraInstancia() throws Exception {
+        Conta conta = novaConta("0004", "0.00");
+        CountDownLatch contaBloqueada = new CountDownLatch(1);
+        CountDownLatch liberarRecebimento = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // Outra instância no meio de um recebimento: movimentação gravada e saldo da conta atualizado,
+            // sem commit; o consolidado diário só é acumulado depois
+            Future<?> recebimento = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                gravarEmOutraInstancia(conta, null);
+                jdbcTemplate.update("UPDATE CONTA SET SALDO_ATUAL = SALDO_ATUAL + 10, QTD_CREDITOS = QTD_CREDITOS + 1, "
+                        + "VERSAO = VERSAO + 1 WHERE ID = ?", conta.getId());
+                contaBloqueada.countDown();
+                aguardar(liberarRecebimento);
+                jdbcTemplate.update("INSERT INTO MOVIMENTACAO_DIARIA (CONTA_ID, DATA_MOVIMENTACAO, QTD_CREDITOS, "
+                        + "QTD_DEBITOS, VALOR_CREDITOS, VALOR_DEBITOS) VALUES (?, CURRENT_DATE, 1, 0, 10.00, 0)", conta.getId());
+            }));
+            aguardar(contaBloqueada);
+
+            Future<Integer> reconstrucao = executor.submit(() -> movimentacaoDiariaService.reconstruir());
+            Thread.sleep(300);
+            assertFalse(reconstrucao.isDone(), "A reconstrução não aguardou o recebimento em andamento");
+
+            liberarRecebimento.countDown();
+            recebimento.get(1, TimeUnit.MINUTES);
+            reconstrucao.get(1, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // A movimentação entra uma única vez: pela reconstrução, que a lê já gravada
+        verificarConta(conta.getId(), new BigDecimal("10.00"), 1, 0);
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(1, TimeUnit.MINUTES));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long gravarEmOutraInstancia(Conta conta, String chaveIdempotencia) {
+        long id = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR SEQ_MOVIMENTACAO", Long.class);
+        jdbcTemplate.update("INSERT INTO MOVIMENTACAO (ID, CONTA_ID, DATA_MOVIMENTACAO, TIPO, VALOR, DESCRICAO, "
+                + "CHAVE_IDEMPOTENCIA) VALUES (?, ?, CURRENT_TIMESTAMP, 'CREDITO', 10.00, 'Outra instância', ?)",
+                id, conta.getId(), chaveIdempotencia);
+        return id;
+    }
+
+    private Conta novaConta(String numero, String saldoInicial) {
+        Conta conta = new Conta(cliente, numero, "0001", "Banco XPTO", new BigDecimal(saldoInicial));
+        return contaRepository.save(conta);
+    }
+
+    private void executarEmParalelo(IntFunction<Callable<Void>> tarefaDaThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futuros = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Callable<Void> tarefa = tarefaDaThread.apply(t);
+                futuros.add(executor.submit(() -> {
+                    largada.await();
+                    return tarefa.call();
+                }));
+            }
+            largada.countDown();
+            for (Future<Void> futuro : futuros) {
+                futuro.get(2, TimeUnit.MINUTES); // Propaga a falha de qualquer thread
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void verificarConta(Long contaId, BigDecimal saldoEsperado, long creditos, long debitos) {
+        Conta conta = contaRepository.findById(contaId).orElseThrow();
+        assertEquals(0, saldoEsperado.compareTo(conta.getSaldoAtual()), "Saldo consolidado: " + conta.getSaldoAtual());
+        assertEquals(creditos, conta.getQtdCreditos());
+        assertEquals(debitos, conta.getQtdDebitos());
+        assertEquals(creditos + debitos, movimentacaoRepository.findByContaId(contaId).size());
+
+        // O consolidado diário acompanha o saldo da conta
+        TotalMovimentacaoConta total = movimentacaoDiariaRepository
+                .totalizarPorContaEPeriodo(cliente.getId(), LocalDate.of(1900, 1, 1), LocalDate.of(9999, 12, 31))
+                .stream().filter(t -> t.contaId().equals(contaId)).findFirst().orElseThrow();
+        assertEquals(creditos, total.qtdCreditos());
+        assertEquals(debitos, total.qtdDebitos());
+        assertEquals(0, saldoEsperado.compareTo(conta.getSaldoInicial().add(total.variacaoSaldo())));
+    }
+}
@@ -0,0 +1,11 @@
+package com.xpto.desafio.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Movimentação para listagens e exportação (sem a conta associada).
+ */
+public record MovimentacaoDTO(Long id, Long contaId, LocalDateTime dataMovimentacao, String tipo,
+                              BigDecimal valor, String descricao) {
+}
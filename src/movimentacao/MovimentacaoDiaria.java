@@ -0,0 +1,94 @@
+package com.xpto.desafio.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Consolidado diário das movimentações de uma conta (quantidade e soma de créditos e débitos).
+ * Atualizado a cada movimentação recebida ou excluída; pode ser reconstruído a partir de MOVIMENTACAO.
+ */
+@Entity
+@Table(name = "MOVIMENTACAO_DIARIA")
+public class MovimentacaoDiaria {
+
+    @Embeddable
+    public static class Chave implements Serializable {
+
+        @Column(name = "CONTA_ID", nullable = false)
+        private Long contaId;
+
+        @Column(name = "DATA_MOVIMENTACAO", nullable = false)
+        private LocalDate dataMovimentacao;
+
+        public Chave() {
+        }
+
+        public Chave(Long contaId, LocalDate dataMovimentacao) {
+            this.contaId = contaId;
+            this.dataMovimentacao = dataMovimentacao;
+        }
+
+        public Long getContaId() {
+            return contaId;
+        }
+
+        public LocalDate getDataMovimentacao() {
+            return dataMovimentacao;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Chave chave)) return false;
+            return Objects.equals(contaId, chave.contaId) && Objects.equals(dataMovimentacao, chave.dataMovimentacao);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(contaId, dataMovimentacao);
+        }
+    }
+
+    @EmbeddedId
+    private Chave chave;
+
+    @Column(name = "QTD_CREDITOS", nullable = false)
+    private Long qtdCreditos;
+
+    @Column(name = "QTD_DEBITOS", nullable = false)
+    private Long qtdDebitos;
+
+    @Column(name = "VALOR_CREDITOS", nullable = false)
+    private BigDecimal valorCreditos;
+
+    @Column(name = "VALOR_DEBITOS", nullable = false)
+    private BigDecimal valorDebitos;
+
+    // Construtores
+    public MovimentacaoDiaria() {
+    }
+
+    // Getters
+    public Chave getChave() {
+        return chave;
+    }
+
+    public Long getQtdCreditos() {
+        return qtdCreditos;
+    }
+
+    public Long getQtdDebitos() {
+        return qtdDebitos;
+    }
+
+    public BigDecimal getValorCreditos() {
+        return valorCreditos;
+    }
+
+    public BigDecimal getValorDebitos() {
+        return valorDebitos;
+    }
+}
@@ -0,0 +1,39 @@
+package com.xpto.desafio.repository;
+
+import com.xpto.desafio.dto.TotalMovimentacaoConta;
+import com.xpto.desafio.entity.MovimentacaoDiaria;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface MovimentacaoDiariaRepository extends JpaRepository<MovimentacaoDiaria, MovimentacaoDiaria.Chave> {
+
+    /**
+     * Totais por conta do cliente nos dias do período (no máximo um registro por conta e dia).
+     */
+    @Query("select new com.xpto.desafio.dto.TotalMovimentacaoConta(d.chave.contaId, sum(d.qtdCreditos), sum(d.qtdDebitos), " +
+            "sum(d.valorCreditos), sum(d.valorDebitos)) " +
+            "from MovimentacaoDiaria d, Conta c " +
+            "where c.id = d.chave.contaId and c.cliente.id = :clienteId " +
+            "and d.chave.dataMovimentacao between :inicio and :fim " +
+            "group by d.chave.contaId")
+    List<TotalMovimentacaoConta> totalizarPorContaEPeriodo(@Param("clienteId") Long clienteId,
+                                                          @Param("inicio") LocalDate inicio,
+                                                          @Param("fim") LocalDate fim);
+
+    /**
+     * Quantidade de movimentações de todas as contas ativas do cliente nos dias do período.
+     */
+    @Query("select coalesce(sum(d.qtdCreditos + d.qtdDebitos), 0) " +
+            "from MovimentacaoDiaria d, Conta c " +
+            "where c.id = d.chave.contaId and c.cliente.id = :clienteId and c.exclusaoLogica = false " +
+            "and d.chave.dataMovimentacao between :inicio and :fim")
+    long contarPorClienteEPeriodo(@Param("clienteId") Long clienteId,
+                                  @Param("inicio") LocalDate inicio,
+                                  @Param("fim") LocalDate fim);
+}
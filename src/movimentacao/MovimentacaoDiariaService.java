@@ -0,0 +1,270 @@
+package com.xpto.desafio.service;
+
+import com.xpto.desafio.entity.Movimentacao;
+import com.xpto.desafio.entity.MovimentacaoDiaria;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Manutenção do consolidado diário (MOVIMENTACAO_DIARIA) e dos pontos de controle mensais do saldo
+ * (SALDO_MENSAL) usados pelos relatórios por período. Deve ser chamado na mesma transação que grava
+ * ou exclui as movimentações, depois da atualização do saldo da conta (que bloqueia a conta no banco).
+ */
+@Service
+public class MovimentacaoDiariaService {
+
+    // Soma os valores ao registro da conta e dia, criando-o se ainda não existir (H2 e Oracle)
+    private static final String MERGE_CONSOLIDADO =
+            "MERGE INTO MOVIMENTACAO_DIARIA d " +
+            "USING (SELECT CAST(? AS NUMBER(19)) CONTA_ID, CAST(? AS DATE) DATA_MOVIMENTACAO, " +
+            "CAST(? AS NUMBER(19)) QTD_CREDITOS, CAST(? AS NUMBER(19)) QTD_DEBITOS, " +
+            "CAST(? AS NUMBER(19,2)) VALOR_CREDITOS, CAST(? AS NUMBER(19,2)) VALOR_DEBITOS FROM DUAL) n " +
+            "ON (d.CONTA_ID = n.CONTA_ID AND d.DATA_MOVIMENTACAO = n.DATA_MOVIMENTACAO) " +
+            "WHEN MATCHED THEN UPDATE SET QTD_CREDITOS = d.QTD_CREDITOS + n.QTD_CREDITOS, " +
+            "QTD_DEBITOS = d.QTD_DEBITOS + n.QTD_DEBITOS, " +
+            "VALOR_CREDITOS = d.VALOR_CREDITOS + n.VALOR_CREDITOS, " +
+            "VALOR_DEBITOS = d.VALOR_DEBITOS + n.VALOR_DEBITOS " +
+            "WHEN NOT MATCHED THEN INSERT (CONTA_ID, DATA_MOVIMENTACAO, QTD_CREDITOS, QTD_DEBITOS, VALOR_CREDITOS, VALOR_DEBITOS) " +
+            "VALUES (n.CONTA_ID, n.DATA_MOVIMENTACAO, n.QTD_CREDITOS, n.QTD_DEBITOS, n.VALOR_CREDITOS, n.VALOR_DEBITOS)";
+
+    public static final String SQL_LIMPAR_CONSOLIDADO = "DELETE FROM MOVIMENTACAO_DIARIA";
+
+    public static final String SQL_RECONSTRUIR_CONSOLIDADO =
+            "INSERT INTO MOVIMENTACAO_DIARIA (CONTA_ID, DATA_MOVIMENTACAO, QTD_CREDITOS, QTD_DEBITOS, VALOR_CREDITOS, VALOR_DEBITOS) " +
+            "SELECT CONTA_ID, TRUNC(DATA_MOVIMENTACAO), " +
+            "SUM(CASE WHEN TIPO = 'CREDITO' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN TIPO = 'DEBITO' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN TIPO = 'CREDITO' THEN VALOR ELSE 0 END), " +
+            "SUM(CASE WHEN TIPO = 'DEBITO' THEN VALOR ELSE 0 END) " +
+            "FROM MOVIMENTACAO GROUP BY CONTA_ID, TRUNC(DATA_MOVIMENTACAO)";
+
+    public static final String SQL_LIMPAR_SALDOS_MENSAIS = "DELETE FROM SALDO_MENSAL";
+
+    // Ajusta os pontos de controle posteriores ao dia de uma movimentação recebida ou excluída
+    private static final String SQL_AJUSTAR_SALDOS_MENSAIS =
+            "UPDATE SALDO_MENSAL SET VARIACAO_ACUMULADA = VARIACAO_ACUMULADA + ? " +
+            "WHERE CONTA_ID = ? AND MES > ?";
+
+    // Contas do cliente com movimentações antes do mês e ainda sem ponto de controle no mês
+    private static final String CONDICAO_SEM_SALDO_MENSAL =
+            "NOT EXISTS (SELECT 1 FROM SALDO_MENSAL s WHERE s.CONTA_ID = c.ID AND s.MES = ?) " +
+            "AND EXISTS (SELECT 1 FROM MOVIMENTACAO_DIARIA d WHERE d.CONTA_ID = c.ID AND d.DATA_MOVIMENTACAO < ?)";
+
+    private static final String SQL_CONTAS_SEM_SALDO_MENSAL =
+            "SELECT c.ID FROM CONTA c WHERE c.CLIENTE_ID = ? AND " + CONDICAO_SEM_SALDO_MENSAL;
+
+    private static final String SQL_BLOQUEAR_CONTAS_DO_CLIENTE =
+            "SELECT ID FROM CONTA WHERE CLIENTE_ID = ? ORDER BY ID FOR UPDATE";
+
+    private static final String SQL_BLOQUEAR_CONTAS = "SELECT ID FROM CONTA ORDER BY ID FOR UPDATE";
+
+    // Ponto de controle no mês: o anterior mais próximo somado ao consolidado dos dias entre os dois
+    private static final String SQL_CRIAR_SALDOS_MENSAIS =
+            "INSERT INTO SALDO_MENSAL (CONTA_ID, MES, VARIACAO_ACUMULADA) " +
+            "SELECT c.ID, CAST(? AS DATE), " +
+            "COALESCE((SELECT s.VARIACAO_ACUMULADA FROM SALDO_MENSAL s WHERE s.CONTA_ID = c.ID AND s.MES = " +
+            "(SELECT MAX(a.MES) FROM SALDO_MENSAL a WHERE a.CONTA_ID = c.ID AND a.MES < ?)), 0) + " +
+            "COALESCE((SELECT SUM(d.VALOR_CREDITOS - d.VALOR_DEBITOS) FROM MOVIMENTACAO_DIARIA d " +
+            "WHERE d.CONTA_ID = c.ID AND d.DATA_MOVIMENTACAO < ? AND d.DATA_MOVIMENTACAO >= " +
+            "COALESCE((SELECT MAX(a.MES) FROM SALDO_MENSAL a WHERE a.CONTA_ID = c.ID AND a.MES < ?), DATE '0001-01-01')), 0) " +
+            "FROM CONTA c WHERE c.CLIENTE_ID = ? AND " + CONDICAO_SEM_SALDO_MENSAL;
+
+    // Consolidado das contas do cliente até a data, lido como colunas primitivas (valores em centavos):
+    // a partir do ponto de controle do mês, quando existe, mais o próprio ponto de controle (última coluna 1),
+    // na mesma consulta para os dois virem do mesmo instante do banco
+    private static final String SQL_CONSOLIDADO_DO_CLIENTE =
+            "SELECT d.CONTA_ID, d.DATA_MOVIMENTACAO, d.QTD_CREDITOS, d.QTD_DEBITOS, " +
+            "d.VALOR_CREDITOS * 100, d.VALOR_DEBITOS * 100, 0 " +
+            "FROM MOVIMENTACAO_DIARIA d JOIN CONTA c ON c.ID = d.CONTA_ID " +
+            "LEFT JOIN SALDO_MENSAL s ON s.CONTA_ID = d.CONTA_ID AND s.MES = ? " +
+            "WHERE c.CLIENTE_ID = ? AND d.DATA_MOVIMENTACAO <= ? " +
+            "AND (s.MES IS NULL OR d.DATA_MOVIMENTACAO >= s.MES) " +
+            "UNION ALL " +
+            "SELECT s.CONTA_ID, s.MES, 0, 0, s.VARIACAO_ACUMULADA * 100, 0, 1 " +
+            "FROM SALDO_MENSAL s JOIN CONTA c ON c.ID = s.CONTA_ID " +
+            "WHERE c.CLIENTE_ID = ? AND s.MES = ?";
+
+    private static final Logger log = LoggerFactory.getLogger(MovimentacaoDiariaService.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BloqueioContas bloqueioContas;
+
+    // Transação própria para os pontos de controle, fora da transação de leitura do relatório
+    private TransactionTemplate transacaoPropria;
+
+    private TransactionTemplate transacao;
+
+    @PostConstruct
+    public void iniciar() {
+        transacaoPropria = new TransactionTemplate(transactionManager);
+        transacaoPropria.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transacao = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Carrega no totalizador o necessário para totalizar o período das contas do cliente até a data
+     * (inclusive): o ponto de controle do saldo no mês de início, como uma linha sem movimentações
+     * antes do mês, e o consolidado diário a partir dele, com uma linha de créditos e uma de débitos
+     * por conta e dia. Contas sem ponto de controle são lidas desde a primeira movimentação.
+     */
+    public void carregarConsolidadoDoCliente(Long clienteId, LocalDate inicio, LocalDate ate, TotalizadorMovimentacoes totalizador) {
+        LocalDate mes = inicio.withDayOfMonth(1);
+        criarSaldosMensais(clienteId, mes);
+
+        Date dataMes = Date.valueOf(mes);
+        long antesDoMes = TotalizadorMovimentacoes.instante(mes) - 1;
+        jdbcTemplate.query(SQL_CONSOLIDADO_DO_CLIENTE, (RowCallbackHandler) rs -> {
+            long contaId = rs.getLong(1);
+            if (rs.getInt(7) == 1) {
+                long variacao = rs.getLong(5);
+                if (variacao >= 0) {
+                    totalizador.adicionar(contaId, antesDoMes, TotalizadorMovimentacoes.CREDITO, variacao, 0);
+                } else {
+                    totalizador.adicionar(contaId, antesDoMes, TotalizadorMovimentacoes.DEBITO, -variacao, 0);
+                }
+                return;
+            }
+            long instante = TotalizadorMovimentacoes.instante(rs.getObject(2, LocalDate.class));
+            long qtdCreditos = rs.getLong(3);
+            long qtdDebitos = rs.getLong(4);
+            if (qtdCreditos > 0) {
+                totalizador.adicionar(contaId, instante, TotalizadorMovimentacoes.CREDITO, rs.getLong(5), qtdCreditos);
+            }
+            if (qtdDebitos > 0) {
+                totalizador.adicionar(contaId, instante, TotalizadorMovimentacoes.DEBITO, rs.getLong(6), qtdDebitos);
+            }
+        }, dataMes, clienteId, Date.valueOf(ate), clienteId, dataMes);
+    }
+
+    /**
+     * Cria os pontos de controle do mês que faltam para as contas do cliente, em transação própria
+     * (REQUIRES_NEW): os bloqueios valem só até o commit da criação, não durante todo o relatório, e
+     * uma falha não marca a transação do relatório para rollback. As contas ficam bloqueadas (na
+     * instância e no banco) durante a criação, para nenhuma movimentação anterior ao mês ser gravada
+     * entre o cálculo e o commit. Em caso de falha (conflito com outra instância), o relatório segue
+     * sem o ponto de controle.
+     */
+    private void criarSaldosMensais(Long clienteId, LocalDate mes) {
+        Date dataMes = Date.valueOf(mes);
+        List<Long> contaIds = jdbcTemplate.queryForList(SQL_CONTAS_SEM_SALDO_MENSAL, Long.class, clienteId, dataMes, dataMes);
+        if (contaIds.isEmpty()) {
+            return;
+        }
+        try {
+            bloqueioContas.executar(contaIds, () -> transacaoPropria.execute(status -> {
+                jdbcTemplate.queryForList(SQL_BLOQUEAR_CONTAS_DO_CLIENTE, Long.class, clienteId);
+                return jdbcTemplate.update(SQL_CRIAR_SALDOS_MENSAIS,
+                        dataMes, dataMes, dataMes, dataMes, clienteId, dataMes, dataMes);
+            }));
+        } catch (DataAccessException e) {
+            log.warn("Ponto de controle de {} não criado para o cliente {}: {}", mes, clienteId, e.getMessage());
+        }
+    }
+
+    /**
+     * Acumula as movimentações gravadas no consolidado (um MERGE por conta e dia, em lote JDBC).
+     */
+    public void registrar(Collection<Movimentacao> movimentacoes) {
+        acumular(movimentacoes, 1);
+    }
+
+    /**
+     * Retira do consolidado as movimentações excluídas.
+     */
+    public void estornar(Collection<Movimentacao> movimentacoes) {
+        acumular(movimentacoes, -1);
+    }
+
+    /**
+     * Reconstrói todo o consolidado a partir de MOVIMENTACAO, em uma única instrução.
+     * Os recebimentos e exclusões de movimentações ficam suspensos até o commit: nesta instância pelo
+     * bloqueio de todas as faixas de contas, que também aguarda os que estão em andamento, e nas demais
+     * pelo bloqueio das linhas de CONTA no banco, que eles atualizam antes de gravar no consolidado.
+     */
+    public int reconstruir() {
+        return bloqueioContas.executarComTodas(() -> transacao.execute(status -> {
+            jdbcTemplate.query(SQL_BLOQUEAR_CONTAS, rs -> null);
+            // Os pontos de controle do saldo são recriados sob demanda a partir do novo consolidado
+            jdbcTemplate.update(SQL_LIMPAR_SALDOS_MENSAIS);
+            jdbcTemplate.update(SQL_LIMPAR_CONSOLIDADO);
+            return jdbcTemplate.update(SQL_RECONSTRUIR_CONSOLIDADO);
+        }));
+    }
+
+    private void acumular(Collection<Movimentacao> movimentacoes, int sinal) {
+        // Agrupa por conta e dia para enviar um único MERGE por registro do consolidado
+        Map<MovimentacaoDiaria.Chave, Acumulado> acumulados = new LinkedHashMap<>();
+        for (Movimentacao movimentacao : movimentacoes) {
+            MovimentacaoDiaria.Chave chave = new MovimentacaoDiaria.Chave(
+                    movimentacao.getConta().getId(), movimentacao.getDataMovimentacao().toLocalDate());
+            Acumulado acumulado = acumulados.computeIfAbsent(chave, k -> new Acumulado());
+            if ("CREDITO".equals(movimentacao.getTipo())) {
+                acumulado.qtdCreditos += sinal;
+                acumulado.valorCreditos = acumulado.valorCreditos.add(movimentacao.getValor().multiply(BigDecimal.valueOf(sinal)));
+            } else if ("DEBITO".equals(movimentacao.getTipo())) {
+                acumulado.qtdDebitos += sinal;
+                acumulado.valorDebitos = acumulado.valorDebitos.add(movimentacao.getValor().multiply(BigDecimal.valueOf(sinal)));
+            }
+        }
+
+        if (acumulados.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<MovimentacaoDiaria.Chave, Acumulado>> registros = new ArrayList<>(acumulados.entrySet());
+        jdbcTemplate.batchUpdate(MERGE_CONSOLIDADO, registros, registros.size(), (ps, registro) -> {
+            ps.setLong(1, registro.getKey().getContaId());
+            ps.setDate(2, Date.valueOf(registro.getKey().getDataMovimentacao()));
+            ps.setLong(3, registro.getValue().qtdCreditos);
+            ps.setLong(4, registro.getValue().qtdDebitos);
+            ps.setBigDecimal(5, registro.getValue().valorCreditos);
+            ps.setBigDecimal(6, registro.getValue().valorDebitos);
+        });
+
+        // Pontos de controle dos meses seguintes ao dia (movimentações retroativas) recebem a variação
+        List<Map.Entry<MovimentacaoDiaria.Chave, Acumulado>> variacoes = registros.stream()
+                .filter(registro -> registro.getValue().variacao().signum() != 0)
+                .toList();
+        if (!variacoes.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_AJUSTAR_SALDOS_MENSAIS, variacoes, variacoes.size(), (ps, registro) -> {
+                ps.setBigDecimal(1, registro.getValue().variacao());
+                ps.setLong(2, registro.getKey().getContaId());
+                ps.setDate(3, Date.valueOf(registro.getKey().getDataMovimentacao()));
+            });
+        }
+    }
+
+    private static class Acumulado {
+        long qtdCreditos;
+        long qtdDebitos;
+        BigDecimal valorCreditos = BigDecimal.ZERO;
+        BigDecimal valorDebitos = BigDecimal.ZERO;
+
+        BigDecimal variacao() {
+            return valorCreditos.subtract(valorDebitos);
+        }
+    }
+}
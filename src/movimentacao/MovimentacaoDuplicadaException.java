@@ -0,0 +1,21 @@
+package com.xpto.desafio.service;
+
+import com.xpto.desafio.entity.Movimentacao;
+
+/**
+ * Movimentação recebida com uma chave de idempotência já gravada (reenvio da origem).
+ * Carrega a movimentação original, que deve ser devolvida no lugar de uma nova.
+ */
+public class MovimentacaoDuplicadaException extends RuntimeException {
+
+    private final Movimentacao original;
+
+    public MovimentacaoDuplicadaException(Movimentacao original) {
+        super("Movimentação já recebida com a chave de idempotência " + original.getChaveIdempotencia() + ".");
+        this.original = original;
+    }
+
+    public Movimentacao getOriginal() {
+        return original;
+    }
+}
@@ -0,0 +1,12 @@
+package com.xpto.desafio.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Movimentação recebida pela carga em lote. A data é opcional (padrão: momento do recebimento);
+ * a chave de idempotência, se informada, identifica reenvios do mesmo item.
+ */
+public record MovimentacaoLoteItem(Long contaId, String tipo, BigDecimal valor, String descricao,
+                                   LocalDateTime dataMovimentacao, String chaveIdempotencia) {
+}
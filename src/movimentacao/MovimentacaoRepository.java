@@ -1,14 +1,81 @@
 package com.xpto.desafio.repository;
 
+import com.xpto.desafio.dto.MovimentacaoDTO;
 import com.xpto.desafio.entity.Movimentacao;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface MovimentacaoRepository extends JpaRepository<Movimentacao, Long> {
     List<Movimentacao> findByContaId(Long contaId);
+
+    /**
+     * Verifica pelo índice da conta se existe ao menos uma movimentação, sem carregá-las.
+     */
+    boolean existsByContaId(Long contaId);
+
+    Optional<Movimentacao> findByChaveIdempotencia(String chaveIdempotencia);
+
+    List<Movimentacao> findByChaveIdempotenciaIn(Collection<String> chavesIdempotencia);
+
+    /**
+     * Todas as chaves de idempotência gravadas (carga do filtro em memória na inicialização).
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select m.chaveIdempotencia from Movimentacao m where m.chaveIdempotencia is not null")
+    Stream<String> streamChavesIdempotencia();
     List<Movimentacao> findByContaIdAndDataMovimentacaoBetween(Long contaId, LocalDateTime inicio, LocalDateTime fim);
+
+    /**
+     * Primeira página das movimentações da conta no período, em ordem de (data, ID).
+     */
+    @Query("select new com.xpto.desafio.dto.MovimentacaoDTO(m.id, m.conta.id, m.dataMovimentacao, m.tipo, m.valor, m.descricao) " +
+            "from Movimentacao m " +
+            "where m.conta.id = :contaId and m.dataMovimentacao between :inicio and :fim " +
+            "order by m.dataMovimentacao, m.id")
+    List<MovimentacaoDTO> buscarPaginaPorContaEPeriodo(@Param("contaId") Long contaId,
+                                                       @Param("inicio") LocalDateTime inicio,
+                                                       @Param("fim") LocalDateTime fim,
+                                                       Pageable pageable);
+
+    /**
+     * Próxima página (paginação por chave): movimentações posteriores a (ultimaData, ultimoId),
+     * lidas pelo índice da conta e data sem percorrer as páginas anteriores.
+     */
+    @Query("select new com.xpto.desafio.dto.MovimentacaoDTO(m.id, m.conta.id, m.dataMovimentacao, m.tipo, m.valor, m.descricao) " +
+            "from Movimentacao m " +
+            "where m.conta.id = :contaId and m.dataMovimentacao between :inicio and :fim " +
+            "and (m.dataMovimentacao > :ultimaData or (m.dataMovimentacao = :ultimaData and m.id > :ultimoId)) " +
+            "order by m.dataMovimentacao, m.id")
+    List<MovimentacaoDTO> buscarPaginaPorContaEPeriodoApos(@Param("contaId") Long contaId,
+                                                           @Param("inicio") LocalDateTime inicio,
+                                                           @Param("fim") LocalDateTime fim,
+                                                           @Param("ultimaData") LocalDateTime ultimaData,
+                                                           @Param("ultimoId") Long ultimoId,
+                                                           Pageable pageable);
+
+    /**
+     * Todas as movimentações da conta no período, lidas do cursor JDBC em blocos (exportação).
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.xpto.desafio.dto.MovimentacaoDTO(m.id, m.conta.id, m.dataMovimentacao, m.tipo, m.valor, m.descricao) " +
+            "from Movimentacao m " +
+            "where m.conta.id = :contaId and m.dataMovimentacao between :inicio and :fim " +
+            "order by m.dataMovimentacao, m.id")
+    Stream<MovimentacaoDTO> streamPorContaEPeriodo(@Param("contaId") Long contaId,
+                                                   @Param("inicio") LocalDateTime inicio,
+                                                   @Param("fim") LocalDateTime fim);
 }
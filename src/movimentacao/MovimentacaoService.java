@@ -1,38 +1,414 @@
 package com.xpto.desafio.service;
 
+import com.xpto.desafio.config.CacheConfig;
+import com.xpto.desafio.dto.MovimentacaoDTO;
+import com.xpto.desafio.dto.MovimentacaoLoteItem;
+import com.xpto.desafio.dto.PaginaMovimentacoes;
+import com.xpto.desafio.dto.ResultadoLoteMovimentacoes;
+import com.xpto.desafio.dto.ResultadoLoteMovimentacoes.StatusItem;
 import com.xpto.desafio.entity.Conta;
 import com.xpto.desafio.entity.Movimentacao;
 import com.xpto.desafio.repository.ContaRepository;
 import com.xpto.desafio.repository.MovimentacaoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 public class MovimentacaoService {
 
+    // Limites usados quando o período não é informado na listagem
+    private static final LocalDateTime DATA_MINIMA = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final LocalDateTime DATA_MAXIMA = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private static final int TAMANHO_MAXIMO_PAGINA = 1000;
+
     @Autowired
     private MovimentacaoRepository movimentacaoRepository;
 
     @Autowired
     private ContaRepository contaRepository;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MovimentacaoDiariaService movimentacaoDiariaService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private FiltroIdempotencia filtroIdempotencia;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BloqueioContas bloqueioContas;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${xpto.movimentacoes.tamanho-bloco-lote:1000}")
+    private int tamanhoBlocoLote;
+
+    @Value("${xpto.movimentacoes.tentativas-conflito:5}")
+    private int tentativasConflito;
+
     /**
      * Simula a integração: recebe a movimentação e efetua o cadastro.
      */
-    @Transactional
-    public Movimentacao receberEfetuarMovimentacao(Long contaId, String tipo, String descricao, double valor) {
+    public Movimentacao receberEfetuarMovimentacao(Long contaId, String tipo, String descricao, BigDecimal valor) {
+        return receberEfetuarMovimentacao(contaId, tipo, descricao, valor, null);
+    }
+
+    /**
+     * Recebe a movimentação com chave de idempotência (opcional). Um reenvio com chave já
+     * gravada não gera nova movimentação.
+     *
+     * A conta fica bloqueada nesta instância durante a transação; conflitos de versão com outras
+     * instâncias são repetidos em nova transação.
+     *
+     * @throws MovimentacaoDuplicadaException com a movimentação original, se a chave já foi gravada
+     * @throws IllegalArgumentException se o valor tiver mais de 2 casas decimais
+     */
+    public Movimentacao receberEfetuarMovimentacao(Long contaId, String tipo, String descricao, BigDecimal valor,
+                                                   String chaveIdempotencia) {
+        BigDecimal valorExato = ValorMonetario.normalizar(valor);
+        try {
+            return bloqueioContas.executar(contaId, () -> executarComRetentativa(List.of(contaId),
+                    () -> efetuarMovimentacao(contaId, tipo, descricao, valorExato, chaveIdempotencia)));
+        } catch (DataIntegrityViolationException | ConstraintViolationException e) {
+            // Reenvio concorrente (outra requisição ou instância, fora do filtro desta): o índice único
+            // rejeitou a segunda gravação e a original é lida direto do banco
+            if (chaveIdempotencia == null) {
+                throw e;
+            }
+            Movimentacao original = movimentacaoRepository.findByChaveIdempotencia(chaveIdempotencia).orElseThrow(() -> e);
+            contarDuplicadas("individual", 1);
+            throw new MovimentacaoDuplicadaException(original);
+        }
+    }
+
+    private Movimentacao efetuarMovimentacao(Long contaId, String tipo, String descricao, BigDecimal valor,
+                                             String chaveIdempotencia) {
+        if (chaveIdempotencia != null) {
+            Optional<Movimentacao> original = buscarDuplicada(chaveIdempotencia);
+            if (original.isPresent()) {
+                contarDuplicadas("individual", 1);
+                throw new MovimentacaoDuplicadaException(original.get());
+            }
+        }
+
         Conta conta = contaRepository.findById(contaId)
                 .orElseThrow(() -> new IllegalArgumentException("Conta não encontrada."));
 
         // Simulação de identificação do cliente já feita pelo relacionamento da Conta
 
-        Movimentacao movimentacao = new Movimentacao(conta, tipo, new java.math.BigDecimal(valor), descricao);
-        return movimentacaoRepository.save(movimentacao);
+        Movimentacao movimentacao = new Movimentacao(conta, tipo, valor, descricao);
+        movimentacao.setChaveIdempotencia(chaveIdempotencia);
+
+        // Saldo consolidado da conta atualizado na mesma transação
+        boolean primeiraMovimentacao = !conta.possuiMovimentacoes();
+        conta.aplicarMovimentacao(movimentacao);
+        if (primeiraMovimentacao) {
+            evictContasDoCliente(conta);
+        }
+        movimentacaoRepository.save(movimentacao);
+
+        // O flush atualiza a CONTA antes do consolidado diário: o bloqueio da linha da conta
+        // serializa os MERGE concorrentes da mesma conta e dia. Pelo repositório, os erros de
+        // versão e de chave duplicada chegam traduzidos para as exceções do Spring
+        movimentacaoRepository.flush();
+        movimentacaoDiariaService.registrar(List.of(movimentacao));
+        registrarChavesAposCommit(List.of(movimentacao));
+        return movimentacao;
+    }
+
+    /**
+     * Recebe movimentações em lote (várias contas), processando em blocos de tamanho fixo.
+     * Cada bloco valida as contas com uma única consulta e grava as movimentações em lote JDBC,
+     * em sua própria transação. Itens inválidos são rejeitados sem interromper a carga.
+     */
+    public ResultadoLoteMovimentacoes receberMovimentacoesEmLote(Iterator<MovimentacaoLoteItem> itens) {
+        ResultadoLoteMovimentacoes resultado = new ResultadoLoteMovimentacoes();
+        List<MovimentacaoLoteItem> bloco = new ArrayList<>(tamanhoBlocoLote);
+        int indiceInicial = 0;
+
+        while (itens.hasNext()) {
+            bloco.add(itens.next());
+            if (bloco.size() == tamanhoBlocoLote) {
+                processarBloco(bloco, indiceInicial, resultado);
+                indiceInicial += bloco.size();
+                bloco.clear();
+            }
+        }
+        if (!bloco.isEmpty()) {
+            processarBloco(bloco, indiceInicial, resultado);
+        }
+        return resultado;
+    }
+
+    private void processarBloco(List<MovimentacaoLoteItem> bloco, int indiceInicial, ResultadoLoteMovimentacoes resultado) {
+        Set<Long> contaIds = new HashSet<>();
+        for (MovimentacaoLoteItem item : bloco) {
+            if (item.contaId() != null) {
+                contaIds.add(item.contaId());
+            }
+        }
+        try {
+            List<StatusItem> status = bloqueioContas.executar(contaIds, () -> {
+                try {
+                    return executarComRetentativa(contaIds, () -> gravarBloco(bloco, contaIds, indiceInicial, false));
+                } catch (DataIntegrityViolationException | ConstraintViolationException e) {
+                    // Chave de idempotência gravada por outra requisição concorrente, talvez em outra instância
+                    // (que o filtro desta não conhece): a nova tentativa confere todas as chaves no banco
+                    entityManager.clear();
+                    return executarComRetentativa(contaIds, () -> gravarBloco(bloco, contaIds, indiceInicial, true));
+                }
+            });
+            status.forEach(resultado::registrar);
+        } catch (RuntimeException e) {
+            for (int i = 0; i < bloco.size(); i++) {
+                resultado.registrar(new StatusItem(indiceInicial + i, ResultadoLoteMovimentacoes.ERRO, null, e.getMessage()));
+            }
+        } finally {
+            // Libera o contexto de persistência entre blocos (open-in-view mantém o mesmo EntityManager)
+            entityManager.clear();
+        }
+    }
+
+    private List<StatusItem> gravarBloco(List<MovimentacaoLoteItem> bloco, Set<Long> contaIds, int indiceInicial,
+                                         boolean conferirChavesNoBanco) {
+        // 1. Validar todas as contas do bloco com uma única consulta
+        Map<Long, Conta> contas = new HashMap<>();
+        for (Conta conta : contaRepository.findAllById(contaIds)) {
+            contas.put(conta.getId(), conta);
+        }
+
+        // 2. Chaves de idempotência já gravadas: só as que o filtro não descarta são consultadas, em uma única consulta
+        Map<String, Long> chavesGravadas = conferirChavesNoBanco ? buscarChavesNoBanco(bloco) : buscarChavesGravadas(bloco);
+
+        // 3. Montar as movimentações válidas e atualizar o saldo consolidado das contas
+        StatusItem[] status = new StatusItem[bloco.size()];
+        List<Movimentacao> movimentacoes = new ArrayList<>(bloco.size());
+        List<Integer> posicoes = new ArrayList<>(bloco.size());
+        Map<String, Movimentacao> chavesDoBloco = new HashMap<>();
+        Map<Integer, Movimentacao> repetidasNoBloco = new HashMap<>();
+        for (int i = 0; i < bloco.size(); i++) {
+            MovimentacaoLoteItem item = bloco.get(i);
+            String chave = item.chaveIdempotencia();
+            if (chave != null && chavesGravadas.containsKey(chave)) {
+                status[i] = new StatusItem(indiceInicial + i, ResultadoLoteMovimentacoes.DUPLICADA, chavesGravadas.get(chave), null);
+                continue;
+            }
+            if (chave != null && chavesDoBloco.containsKey(chave)) {
+                // Mesma chave repetida no bloco: o ID da primeira só existe após o flush
+                repetidasNoBloco.put(i, chavesDoBloco.get(chave));
+                continue;
+            }
+            String erro = validarItemLote(item, contas);
+            if (erro != null) {
+                status[i] = new StatusItem(indiceInicial + i, ResultadoLoteMovimentacoes.REJEITADA, null, erro);
+                continue;
+            }
+            Conta conta = contas.get(item.contaId());
+            Movimentacao movimentacao = new Movimentacao(conta, item.tipo(), ValorMonetario.normalizar(item.valor()),
+                    item.descricao());
+            if (item.dataMovimentacao() != null) {
+                movimentacao.setDataMovimentacao(item.dataMovimentacao());
+            }
+            movimentacao.setChaveIdempotencia(chave);
+            if (chave != null) {
+                chavesDoBloco.put(chave, movimentacao);
+            }
+            if (!conta.possuiMovimentacoes()) {
+                evictContasDoCliente(conta);
+            }
+            conta.aplicarMovimentacao(movimentacao);
+            movimentacoes.add(movimentacao);
+            posicoes.add(i);
+        }
+
+        // 4. Gravar em lote (IDs vêm da sequence em blocos, sem ida ao banco por insert)
+        movimentacaoRepository.saveAll(movimentacoes);
+        movimentacaoRepository.flush();
+        movimentacaoDiariaService.registrar(movimentacoes);
+        registrarChavesAposCommit(movimentacoes);
+
+        repetidasNoBloco.forEach((i, primeira) ->
+                status[i] = new StatusItem(indiceInicial + i, ResultadoLoteMovimentacoes.DUPLICADA, primeira.getId(), null));
+
+        for (int j = 0; j < movimentacoes.size(); j++) {
+            int i = posicoes.get(j);
+            status[i] = new StatusItem(indiceInicial + i, ResultadoLoteMovimentacoes.INSERIDA, movimentacoes.get(j).getId(), null);
+        }
+        contarDuplicadas("lote", Arrays.stream(status)
+                .filter(item -> ResultadoLoteMovimentacoes.DUPLICADA.equals(item.status()))
+                .count());
+        return List.of(status);
+    }
+
+    /**
+     * Chaves do bloco já gravadas, com o ID da movimentação original. Chaves recentes saem do cache,
+     * conferidas por ID (a movimentação pode ter sido excluída em outra instância), e as descartadas
+     * pelo filtro de Bloom não são consultadas; as demais vão ao banco juntas.
+     */
+    private Map<String, Long> buscarChavesGravadas(List<MovimentacaoLoteItem> bloco) {
+        Map<String, Long> gravadas = new HashMap<>();
+        Map<Long, String> recentes = new HashMap<>();
+        Set<String> consultar = new HashSet<>();
+        for (MovimentacaoLoteItem item : bloco) {
+            String chave = item.chaveIdempotencia();
+            if (chave == null) {
+                continue;
+            }
+            Long id = filtroIdempotencia.idRecente(chave);
+            if (id != null) {
+                recentes.put(id, chave);
+            } else if (filtroIdempotencia.podeExistir(chave)) {
+                consultar.add(chave);
+            }
+        }
+        if (!recentes.isEmpty()) {
+            for (Movimentacao movimentacao : movimentacaoRepository.findAllById(recentes.keySet())) {
+                gravadas.put(recentes.remove(movimentacao.getId()), movimentacao.getId());
+            }
+            // IDs do cache que não existem mais: a chave pode ter sido gravada de novo, com outro ID
+            consultar.addAll(recentes.values());
+        }
+        if (!consultar.isEmpty()) {
+            for (Movimentacao movimentacao : movimentacaoRepository.findByChaveIdempotenciaIn(consultar)) {
+                gravadas.put(movimentacao.getChaveIdempotencia(), movimentacao.getId());
+            }
+        }
+        return gravadas;
+    }
+
+    /**
+     * Chaves do bloco já gravadas, consultadas todas no banco, sem o filtro e o cache desta instância.
+     */
+    private Map<String, Long> buscarChavesNoBanco(List<MovimentacaoLoteItem> bloco) {
+        Set<String> chaves = new HashSet<>();
+        for (MovimentacaoLoteItem item : bloco) {
+            if (item.chaveIdempotencia() != null) {
+                chaves.add(item.chaveIdempotencia());
+            }
+        }
+        Map<String, Long> gravadas = new HashMap<>();
+        if (!chaves.isEmpty()) {
+            for (Movimentacao movimentacao : movimentacaoRepository.findByChaveIdempotenciaIn(chaves)) {
+                gravadas.put(movimentacao.getChaveIdempotencia(), movimentacao.getId());
+            }
+        }
+        return gravadas;
+    }
+
+    private String validarItemLote(MovimentacaoLoteItem item, Map<Long, Conta> contas) {
+        if (item.contaId() == null || !contas.containsKey(item.contaId())) {
+            return "Conta não encontrada.";
+        }
+        if (!"CREDITO".equals(item.tipo()) && !"DEBITO".equals(item.tipo())) {
+            return "Tipo inválido (esperado CREDITO ou DEBITO).";
+        }
+        if (item.valor() == null || item.valor().compareTo(BigDecimal.ZERO) <= 0) {
+            return "Valor deve ser maior que zero.";
+        }
+        if (item.valor().stripTrailingZeros().scale() > ValorMonetario.ESCALA) {
+            return "Valor com mais de " + ValorMonetario.ESCALA + " casas decimais.";
+        }
+        if (item.chaveIdempotencia() != null && (item.chaveIdempotencia().isBlank()
+                || item.chaveIdempotencia().length() > Movimentacao.TAMANHO_CHAVE_IDEMPOTENCIA)) {
+            return "Chave de idempotência inválida (até " + Movimentacao.TAMANHO_CHAVE_IDEMPOTENCIA + " caracteres).";
+        }
+        return null;
+    }
+
+    private Optional<Movimentacao> buscarDuplicada(String chaveIdempotencia) {
+        Long id = filtroIdempotencia.idRecente(chaveIdempotencia);
+        if (id != null) {
+            Optional<Movimentacao> recente = movimentacaoRepository.findById(id);
+            if (recente.isPresent()) {
+                return recente;
+            }
+            // Excluída em outra instância: a chave pode ter sido gravada de novo, com outro ID
+            return movimentacaoRepository.findByChaveIdempotencia(chaveIdempotencia);
+        }
+        if (!filtroIdempotencia.podeExistir(chaveIdempotencia)) {
+            return Optional.empty(); // Chave nova: sem consulta ao banco
+        }
+        return movimentacaoRepository.findByChaveIdempotencia(chaveIdempotencia);
+    }
+
+    /**
+     * As chaves só entram no filtro em memória após o commit, para não apontar para uma gravação desfeita.
+     */
+    private void registrarChavesAposCommit(List<Movimentacao> movimentacoes) {
+        List<Movimentacao> comChave = movimentacoes.stream().filter(m -> m.getChaveIdempotencia() != null).toList();
+        if (comChave.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                comChave.forEach(m -> filtroIdempotencia.registrar(m.getChaveIdempotencia(), m.getId()));
+            }
+        });
+    }
+
+    /**
+     * A chave da movimentação excluída sai do cache de chaves recentes só após o commit: um reenvio
+     * com a mesma chave volta a ser aceito, e um rollback mantém a chave.
+     */
+    private void removerChaveAposCommit(String chaveIdempotencia) {
+        if (chaveIdempotencia == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                filtroIdempotencia.remover(chaveIdempotencia);
+            }
+        });
+    }
+
+    private void contarDuplicadas(String origem, long quantidade) {
+        if (quantidade > 0) {
+            meterRegistry.counter("xpto.movimentacoes.duplicadas", "origem", origem).increment(quantidade);
+        }
     }
 
     /**
@@ -42,6 +418,45 @@ public class MovimentacaoService {
         return movimentacaoRepository.findByContaId(contaId);
     }
 
+    /**
+     * Obtém uma página das movimentações da conta, em ordem de (data, ID), a partir do cursor
+     * (nulo para a primeira página). Período opcional: {@code inicio}/{@code fim} nulos não limitam.
+     */
+    public PaginaMovimentacoes obterPaginaMovimentacoes(Long contaId, LocalDateTime inicio, LocalDateTime fim,
+                                                        PaginaMovimentacoes.Cursor cursor, int tamanho) {
+        int tamanhoLimitado = Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO_PAGINA));
+        LocalDateTime de = inicio != null ? inicio : DATA_MINIMA;
+        LocalDateTime ate = fim != null ? fim : DATA_MAXIMA;
+
+        // Lê um item a mais para saber se existe próxima página
+        PageRequest limite = PageRequest.of(0, tamanhoLimitado + 1);
+        List<MovimentacaoDTO> itens = cursor == null
+                ? movimentacaoRepository.buscarPaginaPorContaEPeriodo(contaId, de, ate, limite)
+                : movimentacaoRepository.buscarPaginaPorContaEPeriodoApos(contaId, de, ate,
+                        cursor.dataMovimentacao(), cursor.id(), limite);
+
+        if (itens.size() <= tamanhoLimitado) {
+            return new PaginaMovimentacoes(itens, null);
+        }
+        List<MovimentacaoDTO> pagina = itens.subList(0, tamanhoLimitado);
+        MovimentacaoDTO ultima = pagina.get(tamanhoLimitado - 1);
+        return new PaginaMovimentacoes(List.copyOf(pagina),
+                new PaginaMovimentacoes.Cursor(ultima.dataMovimentacao(), ultima.id()).codificar());
+    }
+
+    /**
+     * Percorre todas as movimentações da conta no período, em ordem de (data, ID), entregando uma
+     * a uma ao consumidor. Usa um cursor JDBC, sem carregar o histórico inteiro em memória.
+     */
+    @Transactional(readOnly = true)
+    public void exportarMovimentacoes(Long contaId, LocalDateTime inicio, LocalDateTime fim,
+                                      Consumer<MovimentacaoDTO> consumidor) {
+        try (Stream<MovimentacaoDTO> movimentacoes = movimentacaoRepository.streamPorContaEPeriodo(
+                contaId, inicio != null ? inicio : DATA_MINIMA, fim != null ? fim : DATA_MAXIMA)) {
+            movimentacoes.forEach(consumidor);
+        }
+    }
+
     /**
      * Obtém movimentações por conta e período.
      */
@@ -58,9 +473,61 @@ public class MovimentacaoService {
 
     /**
      * CRUD: Deletar movimentação.
+     * O saldo consolidado e o consolidado diário da conta são estornados na mesma transação,
+     * com a conta bloqueada como no recebimento.
      */
-    @Transactional
     public void deletarMovimentacao(Long id) {
-        movimentacaoRepository.deleteById(id);
+        Optional<Long> contaId = movimentacaoRepository.findById(id).map(m -> m.getConta().getId());
+        if (contaId.isEmpty()) {
+            return;
+        }
+        bloqueioContas.executar(contaId.get(), () -> executarComRetentativa(List.of(contaId.get()), () -> {
+            // Relida na transação: a movimentação pode ter sido excluída enquanto aguardava o bloqueio
+            movimentacaoRepository.findById(id).ifPresent(movimentacao -> {
+                Conta conta = movimentacao.getConta();
+                conta.estornarMovimentacao(movimentacao);
+                if (!conta.possuiMovimentacoes()) {
+                    evictContasDoCliente(conta);
+                }
+                movimentacaoRepository.delete(movimentacao);
+                movimentacaoRepository.flush();
+                movimentacaoDiariaService.estornar(List.of(movimentacao));
+                removerChaveAposCommit(movimentacao.getChaveIdempotencia());
+            });
+            return null;
+        }));
+    }
+
+    /**
+     * Executa a operação em transação própria, repetindo-a em nova transação quando uma das contas
+     * foi alterada por outra transação (conflito na versão da conta).
+     */
+    private <T> T executarComRetentativa(Collection<Long> contaIds, Supplier<T> operacao) {
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return transactionTemplate.execute(tx -> operacao.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (tentativa >= tentativasConflito) {
+                    throw e;
+                }
+                meterRegistry.counter("xpto.movimentacoes.conflitos").increment();
+                // Descarta as contas desatualizadas (open-in-view mantém o mesmo EntityManager), inclusive
+                // do cache de segundo nível, que só conhece as alterações feitas nesta instância
+                entityManager.clear();
+                Cache cache = entityManager.getEntityManagerFactory().getCache();
+                contaIds.forEach(contaId -> cache.evict(Conta.class, contaId));
+                // Espera curta e aleatória, para as transações em conflito não colidirem de novo
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(
+                        ThreadLocalRandom.current().nextLong(1, 5L * tentativa + 1)));
+            }
+        }
+    }
+
+    /**
+     * As contas do cliente ficam em cache com o indicador de movimentações: invalida quando
+     * a conta recebe a primeira movimentação ou perde a última.
+     */
+    private void evictContasDoCliente(Conta conta) {
+        cacheManager.getCache(CacheConfig.CONTAS_POR_CLIENTE).evict(conta.getCliente().getId());
     }
 }
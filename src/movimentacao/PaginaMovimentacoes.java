@@ -0,0 +1,39 @@
+package com.xpto.desafio.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Página de movimentações ordenada por (data, ID). {@code next} é o cursor da próxima página
+ * (nulo na última), codificado a partir da última movimentação retornada.
+ */
+public record PaginaMovimentacoes(List<MovimentacaoDTO> itens, String next) {
+
+    /**
+     * Posição da última movimentação lida: a próxima página começa logo depois dela.
+     */
+    public record Cursor(LocalDateTime dataMovimentacao, Long id) {
+
+        public String codificar() {
+            String valor = dataMovimentacao + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * @throws IllegalArgumentException se o cursor não foi gerado por {@link #codificar()}
+         */
+        public static Cursor decodificar(String cursor) {
+            try {
+                String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separador = valor.indexOf('|');
+                return new Cursor(LocalDateTime.parse(valor.substring(0, separador)),
+                        Long.valueOf(valor.substring(separador + 1)));
+            } catch (DateTimeParseException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Cursor inválido.", e);
+            }
+        }
+    }
+}
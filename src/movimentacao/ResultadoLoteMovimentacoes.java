@@ -0,0 +1,73 @@
+package com.xpto.desafio.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resumo da carga de movimentações em lote, com a situação de cada item na ordem recebida.
+ */
+public class ResultadoLoteMovimentacoes {
+
+    public static final String INSERIDA = "INSERIDA";
+    public static final String REJEITADA = "REJEITADA";
+    public static final String DUPLICADA = "DUPLICADA";
+    public static final String ERRO = "ERRO";
+
+    public record StatusItem(int indice, String status, Long movimentacaoId, String mensagem) {
+    }
+
+    private int totalRecebidas;
+    private int totalInseridas;
+    private int totalRejeitadas;
+    private int totalDuplicadas;
+    private int totalErros;
+    private final List<StatusItem> itens = new ArrayList<>();
+    private String erroLeitura;
+
+    public void registrar(StatusItem item) {
+        itens.add(item);
+        totalRecebidas++;
+        switch (item.status()) {
+            case INSERIDA -> totalInseridas++;
+            case REJEITADA -> totalRejeitadas++;
+            case DUPLICADA -> totalDuplicadas++;
+            default -> totalErros++;
+        }
+    }
+
+    /**
+     * Corpo mal formado a partir do item seguinte aos registrados: a carga parou ali.
+     */
+    public void interromperLeitura(String mensagem) {
+        erroLeitura = mensagem;
+    }
+
+    // Getters
+    public int getTotalRecebidas() {
+        return totalRecebidas;
+    }
+
+    public int getTotalInseridas() {
+        return totalInseridas;
+    }
+
+    public int getTotalRejeitadas() {
+        return totalRejeitadas;
+    }
+
+    public int getTotalDuplicadas() {
+        return totalDuplicadas;
+    }
+
+    public int getTotalErros() {
+        return totalErros;
+    }
+
+    public List<StatusItem> getItens() {
+        return itens;
+    }
+
+    public String getErroLeitura() {
+        return erroLeitura;
+    }
+}
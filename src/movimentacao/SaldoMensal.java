@@ -0,0 +1,74 @@
+package com.xpto.desafio.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Ponto de controle do saldo de uma conta no início de um mês: variação acumulada (créditos menos
+ * débitos) de todas as movimentações anteriores ao mês. Criado sob demanda pelo relatório por período
+ * e ajustado a cada movimentação recebida ou excluída com data anterior ao mês.
+ */
+@Entity
+@Table(name = "SALDO_MENSAL")
+public class SaldoMensal {
+
+    @Embeddable
+    public static class Chave implements Serializable {
+
+        @Column(name = "CONTA_ID", nullable = false)
+        private Long contaId;
+
+        @Column(name = "MES", nullable = false)
+        private LocalDate mes;
+
+        public Chave() {
+        }
+
+        public Chave(Long contaId, LocalDate mes) {
+            this.contaId = contaId;
+            this.mes = mes;
+        }
+
+        public Long getContaId() {
+            return contaId;
+        }
+
+        public LocalDate getMes() {
+            return mes;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Chave chave)) return false;
+            return Objects.equals(contaId, chave.contaId) && Objects.equals(mes, chave.mes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(contaId, mes);
+        }
+    }
+
+    @EmbeddedId
+    private Chave chave;
+
+    @Column(name = "VARIACAO_ACUMULADA", nullable = false)
+    private BigDecimal variacaoAcumulada;
+
+    // Construtores
+    public SaldoMensal() {
+    }
+
+    // Getters
+    public Chave getChave() {
+        return chave;
+    }
+
+    public BigDecimal getVariacaoAcumulada() {
+        return variacaoAcumulada;
+    }
+}
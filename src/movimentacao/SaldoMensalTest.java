@@ -0,0 +1,166 @@
+package com.xpto.desafio.service;
+
+import com.desafio_dev.desafio_dev.DesafioDevApplication;
+import com.xpto.desafio.dto.MovimentacaoLoteItem;
+import com.xpto.desafio.dto.RelatorioSaldoCliente;
+import com.xpto.desafio.entity.Cliente;
+import com.xpto.desafio.entity.Conta;
+import com.xpto.desafio.entity.Movimentacao;
+import com.xpto.desafio.repository.ClienteRepository;
+import com.xpto.desafio.repository.ContaRepository;
+import com.xpto.desafio.repository.MovimentacaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pontos de controle mensais do saldo: o relatório por período precisa dar o mesmo resultado com
+ * e sem ponto de controle, inclusive depois de movimentações retroativas e exclusões.
+ */
+@SpringBootTest(classes = DesafioDevApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:saldo-mensal;MODE=Oracle;DB_CLOSE_DELAY=-1"
+})
+public class SaldoMensalTest {
+
+    private static final AtomicInteger clientesCriados = new AtomicInteger();
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private MovimentacaoService movimentacaoService;
+
+    @Autowired
+    private MovimentacaoDiariaService movimentacaoDiariaService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private MovimentacaoRepository movimentacaoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Cliente cliente;
+    private Conta conta;
+
+    @BeforeEach
+    void setUp() {
+        // CPF único por teste (mesmo banco em memória para toda a classe)
+        String cpf = String.format("222.333.%03d-55", clientesCriados.incrementAndGet());
+        cliente = clienteRepository.save(new Cliente("Cliente Saldo Mensal", "PF", cpf, null, "11977776666"));
+        conta = contaRepository.save(new Conta(cliente, "0001", "0001", "Banco XPTO", new BigDecimal("100.00")));
+
+        movimentar("CREDITO", "50.00", LocalDateTime.of(2024, 1, 10, 9, 0));
+        movimentar("DEBITO", "20.00", LocalDateTime.of(2024, 2, 5, 9, 0));
+        movimentar("CREDITO", "10.00", LocalDateTime.of(2024, 3, 3, 9, 0));
+    }
+
+    @Test
+    void deveCriarPontoDeControleNoMesDoInicio() {
+        RelatorioSaldoCliente marco = relatorio(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31));
+
+        assertEquals(new BigDecimal("30.00"), saldoMensal(LocalDate.of(2024, 3, 1)));
+        verificar(marco, "130.00", "140.00", 1, 0);
+
+        // Segunda leitura já parte do ponto de controle
+        verificar(relatorio(LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 31)), "130.00", "140.00", 1, 0);
+    }
+
+    @Test
+    void deveCriarPontoDeControleEmTransacaoPropria() {
+        // O relatório roda em transação somente leitura, desfeita no fim; o ponto de controle fica gravado
+        TransactionTemplate somenteLeitura = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        somenteLeitura.setReadOnly(true);
+        RelatorioSaldoCliente marco = somenteLeitura.execute(status -> {
+            status.setRollbackOnly();
+            return relatorioService.montarRelatorioSaldoClientePorPeriodo(cliente.getId(),
+                    LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31));
+        });
+
+        verificar(marco, "130.00", "140.00", 1, 0);
+        assertEquals(new BigDecimal("30.00"), saldoMensal(LocalDate.of(2024, 3, 1)));
+    }
+
+    @Test
+    void deveAjustarPontosDeControleComMovimentacaoRetroativa() {
+        relatorio(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31));
+
+        movimentar("DEBITO", "5.00", LocalDateTime.of(2024, 1, 20, 9, 0));
+
+        assertEquals(new BigDecimal("25.00"), saldoMensal(LocalDate.of(2024, 3, 1)));
+        verificar(relatorio(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31)), "125.00", "135.00", 1, 0);
+
+        // Novo ponto de controle em fevereiro, anterior ao de março
+        verificar(relatorio(LocalDate.of(2024, 2, 10), LocalDate.of(2024, 3, 31)), "125.00", "135.00", 1, 0);
+        assertEquals(new BigDecimal("45.00"), saldoMensal(LocalDate.of(2024, 2, 1)));
+    }
+
+    @Test
+    void deveEstornarPontosDeControleNaExclusao() {
+        relatorio(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 3, 31));
+        relatorio(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31));
+
+        Movimentacao credito = movimentacaoRepository.findByContaId(conta.getId()).stream()
+                .filter(m -> m.getDataMovimentacao().getMonthValue() == 1)
+                .findFirst().orElseThrow();
+        movimentacaoService.deletarMovimentacao(credito.getId());
+
+        assertEquals(new BigDecimal("0.00"), saldoMensal(LocalDate.of(2024, 2, 1)));
+        assertEquals(new BigDecimal("-20.00"), saldoMensal(LocalDate.of(2024, 3, 1)));
+        verificar(relatorio(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31)), "80.00", "90.00", 1, 0);
+    }
+
+    @Test
+    void deveDarMesmoResultadoAposReconstruirConsolidado() {
+        RelatorioSaldoCliente comPontoDeControle = relatorio(LocalDate.of(2024, 2, 15), LocalDate.of(2024, 3, 31));
+
+        movimentacaoDiariaService.reconstruir();
+        assertNull(saldoMensal(LocalDate.of(2024, 2, 1)));
+
+        assertEquals(comPontoDeControle, relatorio(LocalDate.of(2024, 2, 15), LocalDate.of(2024, 3, 31)));
+        verificar(comPontoDeControle, "130.00", "140.00", 1, 0);
+    }
+
+    private void movimentar(String tipo, String valor, LocalDateTime data) {
+        movimentacaoService.receberMovimentacoesEmLote(List.of(
+                new MovimentacaoLoteItem(conta.getId(), tipo, new BigDecimal(valor), "Teste", data, null)).iterator());
+    }
+
+    private RelatorioSaldoCliente relatorio(LocalDate inicio, LocalDate fim) {
+        return transactionTemplate.execute(status ->
+                relatorioService.montarRelatorioSaldoClientePorPeriodo(cliente.getId(), inicio, fim));
+    }
+
+    private BigDecimal saldoMensal(LocalDate mes) {
+        return jdbcTemplate.query("SELECT VARIACAO_ACUMULADA FROM SALDO_MENSAL WHERE CONTA_ID = ? AND MES = ?",
+                rs -> rs.next() ? rs.getBigDecimal(1).setScale(2) : null, conta.getId(), Date.valueOf(mes));
+    }
+
+    private static void verificar(RelatorioSaldoCliente relatorio, String saldoInicial, String saldoAtual,
+                                  long creditos, long debitos) {
+        assertEquals(new BigDecimal(saldoInicial), relatorio.saldoInicial());
+        assertEquals(new BigDecimal(saldoAtual), relatorio.saldoAtual());
+        assertEquals(creditos, relatorio.qtdCreditos());
+        assertEquals(debitos, relatorio.qtdDebitos());
+    }
+}
@@ -0,0 +1,17 @@
+package com.xpto.desafio.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Quantidade e soma de créditos e débitos de uma conta em um intervalo de dias.
+ */
+public record TotalMovimentacaoConta(Long contaId, Long qtdCreditos, Long qtdDebitos,
+                                     BigDecimal valorCreditos, BigDecimal valorDebitos) {
+
+    /**
+     * Efeito das movimentações no saldo da conta (créditos somam, débitos subtraem).
+     */
+    public BigDecimal variacaoSaldo() {
+        return valorCreditos.subtract(valorDebitos);
+    }
+}
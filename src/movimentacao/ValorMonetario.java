@@ -0,0 +1,115 @@
+package com.xpto.desafio.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Valores monetários com 2 casas decimais: leitura exata do texto recebido (sem passar por double)
+ * e representação em centavos (long) para os laços de totalização dos relatórios.
+ */
+public final class ValorMonetario {
+
+    public static final int ESCALA = 2;
+
+    private ValorMonetario() {
+    }
+
+    /**
+     * Lê o valor informado ("10", "10.5", "1234,56") com escala 2.
+     *
+     * @throws IllegalArgumentException se o texto não for um número com até 2 casas decimais
+     */
+    public static BigDecimal ler(String texto) {
+        return deCentavos(lerCentavos(texto));
+    }
+
+    /**
+     * Lê o valor informado direto para centavos, dígito a dígito. Aceita ponto ou vírgula como
+     * separador decimal; zeros além da segunda casa são ignorados.
+     *
+     * @throws IllegalArgumentException se o texto não for um número com até 2 casas decimais
+     */
+    public static long lerCentavos(String texto) {
+        if (texto == null || texto.isBlank()) {
+            throw new IllegalArgumentException("Valor não informado.");
+        }
+        String valor = texto.strip();
+        int tamanho = valor.length();
+        int i = 0;
+        boolean negativo = false;
+        if (valor.charAt(0) == '-' || valor.charAt(0) == '+') {
+            negativo = valor.charAt(0) == '-';
+            i++;
+        }
+        try {
+            long inteiro = 0;
+            int digitosInteiros = 0;
+            for (; i < tamanho && digitoAscii(valor.charAt(i)); i++, digitosInteiros++) {
+                inteiro = Math.addExact(Math.multiplyExact(inteiro, 10), valor.charAt(i) - '0');
+            }
+
+            long fracao = 0;
+            int casas = 0;
+            if (i < tamanho && (valor.charAt(i) == '.' || valor.charAt(i) == ',')) {
+                i++;
+                int digitosFracao = 0;
+                for (; i < tamanho && digitoAscii(valor.charAt(i)); i++, digitosFracao++) {
+                    int digito = valor.charAt(i) - '0';
+                    if (casas < ESCALA) {
+                        fracao = fracao * 10 + digito;
+                        casas++;
+                    } else if (digito != 0) {
+                        throw new IllegalArgumentException("Valor com mais de " + ESCALA + " casas decimais: " + texto);
+                    }
+                }
+                if (digitosFracao == 0) {
+                    throw new IllegalArgumentException("Valor inválido: " + texto);
+                }
+            }
+            if (i != tamanho || digitosInteiros + casas == 0) {
+                throw new IllegalArgumentException("Valor inválido: " + texto);
+            }
+            for (; casas < ESCALA; casas++) {
+                fracao *= 10;
+            }
+
+            long centavos = Math.addExact(Math.multiplyExact(inteiro, 100), fracao);
+            return negativo ? -centavos : centavos;
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Valor fora do limite: " + texto);
+        }
+    }
+
+    // Só 0-9: Character.isDigit aceita dígitos de outros sistemas (arábicos, largura total...),
+    // que o cálculo c - '0' converteria em valores errados
+    private static boolean digitoAscii(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Ajusta o valor para a escala 2 sem arredondar.
+     *
+     * @throws IllegalArgumentException se o valor tiver mais de 2 casas decimais significativas
+     */
+    public static BigDecimal normalizar(BigDecimal valor) {
+        if (valor.scale() == ESCALA) {
+            return valor;
+        }
+        try {
+            return valor.setScale(ESCALA, RoundingMode.UNNECESSARY);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Valor com mais de " + ESCALA + " casas decimais: " + valor.toPlainString());
+        }
+    }
+
+    /**
+     * Valor em centavos (exato: falha se houver frações de centavo).
+     */
+    public static long centavos(BigDecimal valor) {
+        return valor.movePointRight(ESCALA).longValueExact();
+    }
+
+    public static BigDecimal deCentavos(long centavos) {
+        return BigDecimal.valueOf(centavos, ESCALA);
+    }
+}
@@ -0,0 +1,35 @@
+package com.xpto.desafio.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ValorMonetarioTest {
+
+    @Test
+    void deveLerValoresComPontoOuVirgula() {
+        assertEquals(1000, ValorMonetario.lerCentavos("10"));
+        assertEquals(1050, ValorMonetario.lerCentavos("10.5"));
+        assertEquals(123456, ValorMonetario.lerCentavos("1234,56"));
+        assertEquals(-199, ValorMonetario.lerCentavos("-1.990"));
+        assertEquals(new BigDecimal("0.07"), ValorMonetario.ler(" .07 "));
+    }
+
+    @Test
+    void deveRejeitarValoresInvalidos() {
+        assertThrows(IllegalArgumentException.class, () -> ValorMonetario.lerCentavos("10.123"));
+        assertThrows(IllegalArgumentException.class, () -> ValorMonetario.lerCentavos("10."));
+        assertThrows(IllegalArgumentException.class, () -> ValorMonetario.lerCentavos("1e3"));
+        assertThrows(IllegalArgumentException.class, () -> ValorMonetario.lerCentavos("99999999999999999999"));
+    }
+
+    @Test
+    void deveRejeitarDigitosForaDoAscii() {
+        // Dígitos arábicos (١٠) e de largura total (１０): Character.isDigit aceita, o valor não
+        assertThrows(IllegalArgumentException.class, () -> ValorMonetario.lerCentavos("١٠"));
+        assertThrows(IllegalArgumentException.class, () -> ValorMonetario.lerCentavos("１０.00"));
+        assertThrows(IllegalArgumentException.class, () -> ValorMonetario.lerCentavos("10,٥٠"));
+    }
+}
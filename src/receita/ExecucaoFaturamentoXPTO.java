@@ -0,0 +1,100 @@
+package com.xpto.desafio.dto;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Acompanhamento de uma execução do faturamento XPTO em lote.
+ * Os contadores são atualizados pelas threads de trabalho e lidos pelo endpoint de status.
+ */
+public class ExecucaoFaturamentoXPTO {
+
+    public enum Situacao { EM_ANDAMENTO, CONCLUIDA, CONCLUIDA_COM_ERROS }
+
+    private final LocalDate periodoInicio;
+    private final LocalDate periodoFim;
+    private final LocalDateTime iniciadaEm = LocalDateTime.now();
+    private volatile LocalDateTime finalizadaEm;
+    private volatile Situacao situacao = Situacao.EM_ANDAMENTO;
+
+    private volatile int faixasTotal;
+    private final AtomicInteger faixasConcluidas = new AtomicInteger();
+    private final AtomicInteger faixasComErro = new AtomicInteger();
+    private final AtomicLong clientesFaturados = new AtomicLong();
+
+    public ExecucaoFaturamentoXPTO(LocalDate periodoInicio, LocalDate periodoFim) {
+        this.periodoInicio = periodoInicio;
+        this.periodoFim = periodoFim;
+    }
+
+    public void registrarFaixaConcluida(int clientes) {
+        clientesFaturados.addAndGet(clientes);
+        faixasConcluidas.incrementAndGet();
+    }
+
+    public void registrarFaixaComErro() {
+        faixasComErro.incrementAndGet();
+    }
+
+    public void finalizar() {
+        finalizadaEm = LocalDateTime.now();
+        situacao = faixasComErro.get() > 0 ? Situacao.CONCLUIDA_COM_ERROS : Situacao.CONCLUIDA;
+    }
+
+    public boolean isEmAndamento() {
+        return situacao == Situacao.EM_ANDAMENTO;
+    }
+
+    /**
+     * Vazão da execução: clientes faturados por segundo desde o início.
+     */
+    public double getClientesPorSegundo() {
+        LocalDateTime fim = finalizadaEm != null ? finalizadaEm : LocalDateTime.now();
+        long millis = Math.max(1, Duration.between(iniciadaEm, fim).toMillis());
+        return clientesFaturados.get() * 1000.0 / millis;
+    }
+
+    // Getters
+    public LocalDate getPeriodoInicio() {
+        return periodoInicio;
+    }
+
+    public LocalDate getPeriodoFim() {
+        return periodoFim;
+    }
+
+    public LocalDateTime getIniciadaEm() {
+        return iniciadaEm;
+    }
+
+    public LocalDateTime getFinalizadaEm() {
+        return finalizadaEm;
+    }
+
+    public Situacao getSituacao() {
+        return situacao;
+    }
+
+    public int getFaixasTotal() {
+        return faixasTotal;
+    }
+
+    public void setFaixasTotal(int faixasTotal) {
+        this.faixasTotal = faixasTotal;
+    }
+
+    public int getFaixasConcluidas() {
+        return faixasConcluidas.get();
+    }
+
+    public int getFaixasComErro() {
+        return faixasComErro.get();
+    }
+
+    public long getClientesFaturados() {
+        return clientesFaturados.get();
+    }
+}
@@ -0,0 +1,118 @@
+package com.xpto.desafio.service;
+
+import com.desafio_dev.desafio_dev.DesafioDevApplication;
+import com.xpto.desafio.dto.ExecucaoFaturamentoXPTO;
+import com.xpto.desafio.dto.MovimentacaoLoteItem;
+import com.xpto.desafio.entity.Cliente;
+import com.xpto.desafio.entity.Conta;
+import com.xpto.desafio.entity.ReceitaXPTO;
+import com.xpto.desafio.repository.ClienteRepository;
+import com.xpto.desafio.repository.ContaRepository;
+import com.xpto.desafio.repository.ReceitaXPTORepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Faturamento em lote contra o banco: fatura só os clientes sem receita no período, enquanto o
+ * cálculo individual recalcula a receita já registrada.
+ */
+@SpringBootTest(classes = DesafioDevApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:faturamento-xpto-lote;MODE=Oracle;DB_CLOSE_DELAY=-1",
+        "xpto.faturamento.tamanho-faixa=2",
+        "xpto.faturamento.threads=2"
+})
+public class FaturamentoXPTOLoteTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2024, 3, 1);
+    private static final LocalDate FIM = LocalDate.of(2024, 3, 31);
+
+    @Autowired
+    private FaturamentoXPTOService faturamentoXPTOService;
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private MovimentacaoService movimentacaoService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private ReceitaXPTORepository receitaXPTORepository;
+
+    @Test
+    void deveFaturarPendentesNoLoteERecalcularNoCalculoIndividual() throws Exception {
+        List<Conta> contas = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            Cliente cliente = clienteRepository.save(new Cliente("Cliente Faturamento " + i, "PF",
+                    String.format("123.456.%03d-77", i), null, "11966665555"));
+            Conta conta = contaRepository.save(new Conta(cliente, "0001", "0001", "Banco XPTO", new BigDecimal("100.00")));
+            contas.add(conta);
+            for (int m = 0; m < i * 5; m++) {
+                movimentar(conta, LocalDateTime.of(2024, 3, 1 + m % 28, 10, 0));
+            }
+            // Fora do período
+            movimentar(conta, LocalDateTime.of(2024, 4, 1, 0, 0));
+        }
+        Long primeiro = contas.get(0).getCliente().getId();
+        Long segundo = contas.get(1).getCliente().getId();
+        // Receita já registrada antes do lote
+        ReceitaXPTO individual = relatorioService.calcularReceitaXPTO(primeiro, INICIO, FIM);
+
+        ExecucaoFaturamentoXPTO execucao = faturar();
+
+        assertEquals(ExecucaoFaturamentoXPTO.Situacao.CONCLUIDA, execucao.getSituacao());
+        assertEquals(4, execucao.getClientesFaturados());
+        assertEquals(execucao.getFaixasTotal(), execucao.getFaixasConcluidas());
+        for (int i = 1; i <= 5; i++) {
+            ReceitaXPTO receita = receita(contas.get(i - 1).getCliente().getId());
+            assertEquals(i * 5, receita.getQtdMovimentacoes());
+            assertEquals(0, RelatorioService.calcularValorCobrado(i * 5).compareTo(receita.getValorCobrado()));
+        }
+        assertEquals(individual.getId(), receita(primeiro).getId());
+
+        // Nova movimentação no período: o lote não altera receitas já registradas...
+        movimentar(contas.get(1), LocalDateTime.of(2024, 3, 15, 12, 0));
+        ExecucaoFaturamentoXPTO reexecucao = faturar();
+        assertEquals(0, reexecucao.getClientesFaturados());
+        assertEquals(10, receita(segundo).getQtdMovimentacoes());
+
+        // ...o cálculo individual recalcula
+        assertEquals(11, relatorioService.calcularReceitaXPTO(segundo, INICIO, FIM).getQtdMovimentacoes());
+        assertEquals(11, receita(segundo).getQtdMovimentacoes());
+        assertEquals(5, receitaXPTORepository.count());
+    }
+
+    private ExecucaoFaturamentoXPTO faturar() throws InterruptedException {
+        ExecucaoFaturamentoXPTO execucao = faturamentoXPTOService.iniciarFaturamento(INICIO, FIM);
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (execucao.isEmAndamento()) {
+            assertTrue(System.nanoTime() < limite, "faturamento não terminou");
+            Thread.sleep(10);
+        }
+        return execucao;
+    }
+
+    private ReceitaXPTO receita(Long clienteId) {
+        return receitaXPTORepository.findByClienteIdAndPeriodoInicioAndPeriodoFim(clienteId, INICIO, FIM).orElseThrow();
+    }
+
+    private void movimentar(Conta conta, LocalDateTime data) {
+        movimentacaoService.receberMovimentacoesEmLote(List.of(
+                new MovimentacaoLoteItem(conta.getId(), "CREDITO", new BigDecimal("1.00"), "Faturamento", data, null)).iterator());
+    }
+}
@@ -0,0 +1,173 @@
+package com.xpto.desafio.service;
+
+import com.xpto.desafio.config.FabricaThreads;
+import com.xpto.desafio.dto.ExecucaoFaturamentoXPTO;
+import com.xpto.desafio.dto.QuantidadeMovimentacoesCliente;
+import com.xpto.desafio.repository.ClienteRepository;
+import com.xpto.desafio.repository.ReceitaXPTORepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Faturamento XPTO em lote: calcula e registra a receita do período para todos os clientes.
+ * Os clientes são divididos em faixas de ID processadas em paralelo; cada faixa roda em sua
+ * própria transação e ignora clientes já faturados no período, permitindo reexecutar após uma falha.
+ * Receitas já registradas não são recalculadas (o cálculo individual em {@link RelatorioService} recalcula).
+ */
+@Service
+public class FaturamentoXPTOService {
+
+    private static final Logger log = LoggerFactory.getLogger(FaturamentoXPTOService.class);
+
+    private static final String INSERT_RECEITA =
+            "INSERT INTO RECEITA_XPTO (CLIENTE_ID, PERIODO_INICIO, PERIODO_FIM, QTD_MOVIMENTACOES, VALOR_COBRADO) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ReceitaXPTORepository receitaXPTORepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private FabricaThreads fabricaThreads;
+
+    @Value("${xpto.faturamento.threads:4}")
+    private int threads;
+
+    @Value("${xpto.faturamento.tamanho-faixa:1000}")
+    private int tamanhoFaixa;
+
+    @Value("${xpto.faturamento.tamanho-lote-insert:500}")
+    private int tamanhoLoteInsert;
+
+    private ExecutorService coordenador;
+
+    private final AtomicReference<ExecucaoFaturamentoXPTO> ultimaExecucao = new AtomicReference<>();
+
+    @PostConstruct
+    public void iniciar() {
+        coordenador = Executors.newSingleThreadExecutor(fabricaThreads.criar("faturamento-xpto-coordenador-"));
+    }
+
+    /**
+     * Inicia o faturamento do período em segundo plano.
+     * Apenas uma execução pode estar em andamento por vez.
+     */
+    public ExecucaoFaturamentoXPTO iniciarFaturamento(LocalDate periodoInicio, LocalDate periodoFim) {
+        ExecucaoFaturamentoXPTO execucao = new ExecucaoFaturamentoXPTO(periodoInicio, periodoFim);
+        ExecucaoFaturamentoXPTO anterior = ultimaExecucao.get();
+        if ((anterior != null && anterior.isEmAndamento()) || !ultimaExecucao.compareAndSet(anterior, execucao)) {
+            throw new IllegalStateException("Já existe um faturamento em andamento.");
+        }
+        coordenador.submit(() -> executar(execucao));
+        return execucao;
+    }
+
+    /**
+     * Situação da execução mais recente (em andamento ou finalizada).
+     */
+    public Optional<ExecucaoFaturamentoXPTO> obterUltimaExecucao() {
+        return Optional.ofNullable(ultimaExecucao.get());
+    }
+
+    private void executar(ExecucaoFaturamentoXPTO execucao) {
+        Long menorId = clienteRepository.buscarMenorId();
+        Long maiorId = clienteRepository.buscarMaiorId();
+        if (menorId == null) {
+            execucao.finalizar();
+            return;
+        }
+
+        int faixas = (int) ((maiorId - menorId) / tamanhoFaixa + 1);
+        execucao.setFaixasTotal(faixas);
+
+        // Pool limitado: o número de threads também limita as conexões usadas do pool JDBC
+        ExecutorService trabalhadores = Executors.newFixedThreadPool(threads, fabricaThreads.criar("faturamento-xpto-"));
+        try {
+            for (long idInicial = menorId; idInicial <= maiorId; idInicial += tamanhoFaixa) {
+                long idFinal = Math.min(idInicial + tamanhoFaixa - 1, maiorId);
+                long inicioFaixa = idInicial;
+                trabalhadores.submit(() -> faturarFaixa(execucao, inicioFaixa, idFinal));
+            }
+        } finally {
+            trabalhadores.shutdown();
+            try {
+                trabalhadores.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                trabalhadores.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            execucao.finalizar();
+            log.info("Faturamento XPTO {} a {} finalizado: {} clientes, {} faixas com erro, {} clientes/s",
+                    execucao.getPeriodoInicio(), execucao.getPeriodoFim(), execucao.getClientesFaturados(),
+                    execucao.getFaixasComErro(), String.format("%.1f", execucao.getClientesPorSegundo()));
+        }
+    }
+
+    private void faturarFaixa(ExecucaoFaturamentoXPTO execucao, long idInicial, long idFinal) {
+        LocalDate periodoInicio = execucao.getPeriodoInicio();
+        LocalDate periodoFim = execucao.getPeriodoFim();
+
+        try {
+            int clientes;
+            try {
+                clientes = inserirReceitasDaFaixa(idInicial, idFinal, periodoInicio, periodoFim);
+            } catch (DataIntegrityViolationException e) {
+                // Receita incluída por outra execução (ou pelo cálculo individual) depois da contagem:
+                // a faixa é refeita e a consulta de pendentes já não traz esses clientes
+                clientes = inserirReceitasDaFaixa(idInicial, idFinal, periodoInicio, periodoFim);
+            }
+            execucao.registrarFaixaConcluida(clientes);
+        } catch (RuntimeException e) {
+            execucao.registrarFaixaComErro();
+            log.error("Erro ao faturar clientes {} a {}", idInicial, idFinal, e);
+        }
+    }
+
+    private int inserirReceitasDaFaixa(long idInicial, long idFinal, LocalDate periodoInicio, LocalDate periodoFim) {
+        return transactionTemplate.execute(status -> {
+            // 1. Contagem de movimentações de todos os clientes pendentes da faixa em uma única consulta
+            List<QuantidadeMovimentacoesCliente> quantidades = receitaXPTORepository
+                    .contarMovimentacoesPendentesDeFaturamento(idInicial, idFinal, periodoInicio, periodoFim);
+
+            // 2. Inserção das receitas em lote JDBC
+            jdbcTemplate.batchUpdate(INSERT_RECEITA, quantidades, tamanhoLoteInsert, (ps, quantidade) -> {
+                ps.setLong(1, quantidade.clienteId());
+                ps.setDate(2, Date.valueOf(periodoInicio));
+                ps.setDate(3, Date.valueOf(periodoFim));
+                ps.setInt(4, quantidade.quantidade().intValue());
+                ps.setBigDecimal(5, RelatorioService.calcularValorCobrado(quantidade.quantidade()));
+            });
+            return quantidades.size();
+        });
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        coordenador.shutdownNow();
+    }
+}
@@ -0,0 +1,195 @@
+package com.xpto.desafio.service;
+
+import com.xpto.desafio.config.FabricaThreads;
+import com.xpto.desafio.dto.ExecucaoFaturamentoXPTO;
+import com.xpto.desafio.dto.QuantidadeMovimentacoesCliente;
+import com.xpto.desafio.repository.ClienteRepository;
+import com.xpto.desafio.repository.ReceitaXPTORepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+/**
+ * Faturamento em lote: divisão dos clientes em faixas de ID, uma transação por tentativa de faixa,
+ * uma única nova tentativa após violação de integridade e contadores da execução.
+ */
+@ExtendWith(MockitoExtension.class)
+public class FaturamentoXPTOServiceTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2024, 3, 1);
+    private static final LocalDate FIM = LocalDate.of(2024, 3, 31);
+
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    @Mock
+    private ReceitaXPTORepository receitaXPTORepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private FabricaThreads fabricaThreads = new FabricaThreads();
+
+    @InjectMocks
+    private FaturamentoXPTOService faturamentoXPTOService;
+
+    /** Faixa (ID inicial) → tentativas; cada tentativa é uma transação. */
+    private final Map<Long, AtomicInteger> tentativas = new ConcurrentHashMap<>();
+    private final ThreadLocal<Long> faixaNaTransacao = new ThreadLocal<>();
+    private final AtomicInteger transacoes = new AtomicInteger();
+    private final List<long[]> faixasConsultadas = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(faturamentoXPTOService, "threads", 2);
+        ReflectionTestUtils.setField(faturamentoXPTOService, "tamanhoFaixa", 4);
+        ReflectionTestUtils.setField(faturamentoXPTOService, "tamanhoLoteInsert", 500);
+        faturamentoXPTOService.iniciar();
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocacao -> {
+            transacoes.incrementAndGet();
+            faixaNaTransacao.set(0L);
+            try {
+                return invocacao.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+            } finally {
+                faixaNaTransacao.remove();
+            }
+        });
+        lenient().when(receitaXPTORepository.contarMovimentacoesPendentesDeFaturamento(anyLong(), anyLong(), eq(INICIO), eq(FIM)))
+                .thenAnswer(invocacao -> {
+                    long idInicial = invocacao.getArgument(0);
+                    long idFinal = invocacao.getArgument(1);
+                    assertNotNull(faixaNaTransacao.get(), "consulta fora da transação da faixa");
+                    faixaNaTransacao.set(idInicial);
+                    int tentativa = tentativas.computeIfAbsent(idInicial, id -> new AtomicInteger()).incrementAndGet();
+                    synchronized (faixasConsultadas) {
+                        faixasConsultadas.add(new long[]{idInicial, idFinal});
+                    }
+                    // Na nova tentativa, o cliente incluído por outra execução já não está pendente
+                    return LongStream.rangeClosed(idInicial + (tentativa - 1), idFinal)
+                            .mapToObj(id -> new QuantidadeMovimentacoesCliente(id, id * 3))
+                            .toList();
+                });
+    }
+
+    @AfterEach
+    void tearDown() {
+        faturamentoXPTOService.encerrar();
+    }
+
+    @Test
+    void deveFaturarFaixasEmTransacoesPropriasComUmaNovaTentativa() throws Exception {
+        when(clienteRepository.buscarMenorId()).thenReturn(1L);
+        when(clienteRepository.buscarMaiorId()).thenReturn(10L);
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocacao -> {
+                    Long faixa = faixaNaTransacao.get();
+                    assertNotNull(faixa, "inclusão fora da transação da faixa");
+                    int tentativa = tentativas.get(faixa).get();
+                    // Faixa 5-8: conflito na primeira tentativa; faixa 9-10: conflito nas duas
+                    if ((faixa == 5 && tentativa == 1) || faixa == 9) {
+                        throw new DuplicateKeyException("receita já registrada");
+                    }
+                    return new int[0][];
+                });
+
+        ExecucaoFaturamentoXPTO execucao = faturamentoXPTOService.iniciarFaturamento(INICIO, FIM);
+        aguardar(execucao);
+
+        List<String> faixas = faixasConsultadas.stream().map(f -> f[0] + "-" + f[1]).distinct().sorted().toList();
+        assertEquals(List.of("1-4", "5-8", "9-10"), faixas);
+        assertEquals(1, tentativas.get(1L).get());
+        assertEquals(2, tentativas.get(5L).get());
+        assertEquals(2, tentativas.get(9L).get()); // uma única nova tentativa
+        assertEquals(5, transacoes.get());
+
+        assertEquals(3, execucao.getFaixasTotal());
+        assertEquals(2, execucao.getFaixasConcluidas());
+        assertEquals(1, execucao.getFaixasComErro());
+        assertEquals(4 + 3, execucao.getClientesFaturados());
+        assertEquals(ExecucaoFaturamentoXPTO.Situacao.CONCLUIDA_COM_ERROS, execucao.getSituacao());
+        assertNotNull(execucao.getFinalizadaEm());
+        assertSame(execucao, faturamentoXPTOService.obterUltimaExecucao().orElseThrow());
+    }
+
+    @Test
+    void deveRecusarNovaExecucaoEnquantoHouverUmaEmAndamento() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(clienteRepository.buscarMenorId()).thenAnswer(invocacao -> {
+            liberar.await(10, TimeUnit.SECONDS);
+            return 1L;
+        });
+        when(clienteRepository.buscarMaiorId()).thenReturn(2L);
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[0][]);
+
+        ExecucaoFaturamentoXPTO execucao = faturamentoXPTOService.iniciarFaturamento(INICIO, FIM);
+        assertThrows(IllegalStateException.class, () -> faturamentoXPTOService.iniciarFaturamento(INICIO, FIM));
+        assertTrue(execucao.isEmAndamento());
+
+        liberar.countDown();
+        aguardar(execucao);
+        assertEquals(1, execucao.getFaixasTotal());
+        assertEquals(2, execucao.getClientesFaturados());
+        assertEquals(ExecucaoFaturamentoXPTO.Situacao.CONCLUIDA, execucao.getSituacao());
+
+        // Finalizada: nova execução permitida
+        aguardar(faturamentoXPTOService.iniciarFaturamento(INICIO, FIM));
+    }
+
+    @Test
+    void deveFinalizarSemFaixasQuandoNaoHaClientes() throws Exception {
+        when(clienteRepository.buscarMenorId()).thenReturn(null);
+
+        ExecucaoFaturamentoXPTO execucao = faturamentoXPTOService.iniciarFaturamento(INICIO, FIM);
+        aguardar(execucao);
+
+        assertEquals(0, execucao.getFaixasTotal());
+        assertEquals(0, execucao.getClientesFaturados());
+        assertEquals(ExecucaoFaturamentoXPTO.Situacao.CONCLUIDA, execucao.getSituacao());
+        assertEquals(0, transacoes.get());
+    }
+
+    private static void aguardar(ExecucaoFaturamentoXPTO execucao) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (execucao.isEmAndamento()) {
+            assertTrue(System.nanoTime() < limite, "faturamento não terminou");
+            Thread.sleep(5);
+        }
+    }
+}
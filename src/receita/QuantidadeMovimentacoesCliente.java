@@ -0,0 +1,7 @@
+package com.xpto.desafio.dto;
+
+/**
+ * Projeção da quantidade de movimentações de um cliente em um período.
+ */
+public record QuantidadeMovimentacoesCliente(Long clienteId, Long quantidade) {
+}
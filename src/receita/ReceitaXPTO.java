@@ -1,11 +1,18 @@
 package com.xpto.desafio.entity;
 
+import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIdentityReference;
+import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "RECEITA_XPTO")
+@Table(name = "RECEITA_XPTO", indexes = {
+        // Uma receita por cliente e período; PERIODO_FIM antes de PERIODO_INICIO atende também a busca por intervalo
+        @Index(name = "UK_RECEITA_XPTO_CLIENTE_PERIODO", columnList = "CLIENTE_ID, PERIODO_FIM, PERIODO_INICIO", unique = true),
+        @Index(name = "IDX_RECEITA_XPTO_PERIODO_INICIO", columnList = "PERIODO_INICIO")
+})
 public class ReceitaXPTO {
 
     @Id
@@ -50,6 +57,9 @@ public class ReceitaXPTO {
         this.id = id;
     }
 
+    // Na resposta JSON vai só o ID: o cliente traz contas e endereços, que apontam de volta para ele
+    @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
+    @JsonIdentityReference(alwaysAsId = true)
     public Cliente getCliente() {
         return cliente;
     }
@@ -0,0 +1,18 @@
+package com.xpto.desafio.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Receita XPTO de um cliente somada no período (quantidade de movimentações e valor cobrado),
+ * usada no relatório de receita da empresa.
+ */
+public record ReceitaXPTOCliente(Long clienteId, String nome, Long qtdMovimentacoes, BigDecimal valorCobrado) {
+
+    /**
+     * Soma os totais de outra parte do período do mesmo cliente.
+     */
+    public ReceitaXPTOCliente somar(ReceitaXPTOCliente outra) {
+        return new ReceitaXPTOCliente(clienteId, nome, qtdMovimentacoes + outra.qtdMovimentacoes,
+                valorCobrado.add(outra.valorCobrado));
+    }
+}
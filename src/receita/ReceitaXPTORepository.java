@@ -1,14 +1,68 @@
 package com.xpto.desafio.repository;
 
+import com.xpto.desafio.dto.QuantidadeMovimentacoesCliente;
+import com.xpto.desafio.dto.ReceitaXPTOCliente;
 import com.xpto.desafio.entity.ReceitaXPTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReceitaXPTORepository extends JpaRepository<ReceitaXPTO, Long> {
     List<ReceitaXPTO> findByClienteId(Long clienteId);
     List<ReceitaXPTO> findByPeriodoInicioBetween(LocalDate inicio, LocalDate fim);
+    Optional<ReceitaXPTO> findByClienteIdAndPeriodoInicioAndPeriodoFim(Long clienteId, LocalDate periodoInicio,
+                                                                       LocalDate periodoFim);
+
+    /**
+     * Receita por cliente (quantidade e valor somados) das receitas iniciadas no período, em ordem de ID do cliente.
+     */
+    @Query("select new com.xpto.desafio.dto.ReceitaXPTOCliente(c.id, c.nome, sum(r.qtdMovimentacoes), sum(r.valorCobrado)) " +
+            "from ReceitaXPTO r join r.cliente c " +
+            "where r.periodoInicio between :inicio and :fim " +
+            "group by c.id, c.nome " +
+            "order by c.id")
+    List<ReceitaXPTOCliente> totalizarPorCliente(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
+    /**
+     * Mesma consulta de {@link #totalizarPorCliente}, lida do cursor JDBC em blocos.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.xpto.desafio.dto.ReceitaXPTOCliente(c.id, c.nome, sum(r.qtdMovimentacoes), sum(r.valorCobrado)) " +
+            "from ReceitaXPTO r join r.cliente c " +
+            "where r.periodoInicio between :inicio and :fim " +
+            "group by c.id, c.nome " +
+            "order by c.id")
+    Stream<ReceitaXPTOCliente> streamTotaisPorCliente(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
+    /**
+     * Quantidade de movimentações no período (contas ativas) de cada cliente da faixa de IDs
+     * que ainda não possui receita registrada para o período, somada do consolidado diário.
+     * Usada no faturamento em lote.
+     */
+    @Query("select new com.xpto.desafio.dto.QuantidadeMovimentacoesCliente(cl.id, " +
+            "coalesce(sum(d.qtdCreditos + d.qtdDebitos), 0)) " +
+            "from Cliente cl " +
+            "left join cl.contas ct on ct.exclusaoLogica = false " +
+            "left join MovimentacaoDiaria d on d.chave.contaId = ct.id " +
+            "and d.chave.dataMovimentacao between :periodoInicio and :periodoFim " +
+            "where cl.id between :idInicial and :idFinal " +
+            "and not exists (select r.id from ReceitaXPTO r where r.cliente = cl " +
+            "                and r.periodoInicio = :periodoInicio and r.periodoFim = :periodoFim) " +
+            "group by cl.id")
+    List<QuantidadeMovimentacoesCliente> contarMovimentacoesPendentesDeFaturamento(
+            @Param("idInicial") Long idInicial,
+            @Param("idFinal") Long idFinal,
+            @Param("periodoInicio") LocalDate periodoInicio,
+            @Param("periodoFim") LocalDate periodoFim);
 }
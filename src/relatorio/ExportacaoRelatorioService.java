@@ -0,0 +1,245 @@
+package com.xpto.desafio.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xpto.desafio.dto.ReceitaXPTOCliente;
+import com.xpto.desafio.dto.RelatorioSaldoCliente;
+import com.xpto.desafio.dto.SaldoClienteResumo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * Escrita dos relatórios em texto, CSV ou NDJSON, com os mesmos dados e regras do
+ * {@link RelatorioService}. Nos formatos CSV e NDJSON cada linha é um registro (cliente), sem os
+ * títulos e totais do texto; o CSV começa pela linha com os nomes das colunas. Valores usam ponto
+ * decimal com 2 casas e datas o formato ISO (yyyy-MM-dd).
+ */
+@Service
+public class ExportacaoRelatorioService {
+
+    private static final int TAMANHO_BUFFER = 8192;
+    private static final String FIM_LINHA_CSV = "\r\n";
+
+    private static final String CABECALHO_SALDO_CLIENTE = "clienteId,nome,dataCadastro,periodoInicio,periodoFim,"
+            + "logradouro,numero,bairro,cidade,uf,cep,qtdCreditos,qtdDebitos,totalMovimentacoes,"
+            + "valorPago,saldoInicial,saldoAtual" + FIM_LINHA_CSV;
+    private static final String CABECALHO_SALDO_TODOS_CLIENTES = "clienteId,nome,dataCadastro,dataSaldo,saldoAtual" + FIM_LINHA_CSV;
+    private static final String CABECALHO_RECEITA_XPTO = "clienteId,nome,periodoInicio,periodoFim,qtdMovimentacoes,valorCobrado" + FIM_LINHA_CSV;
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Relatório de Saldo do Cliente X no formato informado.
+     */
+    public String exportarSaldoCliente(Long clienteId, FormatoRelatorio formato) {
+        if (formato == FormatoRelatorio.TEXTO) {
+            return relatorioService.gerarRelatorioSaldoCliente(clienteId);
+        }
+        return formatarSaldoCliente(relatorioService.montarRelatorioSaldoCliente(clienteId), formato);
+    }
+
+    /**
+     * Relatório de Saldo do Cliente X e Período no formato informado.
+     */
+    public String exportarSaldoClientePorPeriodo(Long clienteId, LocalDate inicio, LocalDate fim, FormatoRelatorio formato) {
+        if (formato == FormatoRelatorio.TEXTO) {
+            return relatorioService.gerarRelatorioSaldoClientePorPeriodo(clienteId, inicio, fim);
+        }
+        return formatarSaldoCliente(relatorioService.montarRelatorioSaldoClientePorPeriodo(clienteId, inicio, fim), formato);
+    }
+
+    private String formatarSaldoCliente(RelatorioSaldoCliente dados, FormatoRelatorio formato) {
+        if (formato == FormatoRelatorio.NDJSON) {
+            try {
+                return objectMapper.writeValueAsString(comDuasCasas(dados)) + "\n";
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Falha ao serializar o relatório do cliente " + dados.clienteId(), e);
+            }
+        }
+        StringBuilder csv = new StringBuilder(CABECALHO_SALDO_CLIENTE);
+        csv.append(dados.clienteId()).append(',');
+        campoCsv(csv, dados.nome()).append(',');
+        data(csv, dados.dataCadastro()).append(',');
+        data(csv, dados.periodoInicio()).append(',');
+        data(csv, dados.periodoFim()).append(',');
+        campoCsv(csv, dados.logradouro()).append(',');
+        campoCsv(csv, dados.numero()).append(',');
+        campoCsv(csv, dados.bairro()).append(',');
+        campoCsv(csv, dados.cidade()).append(',');
+        campoCsv(csv, dados.uf()).append(',');
+        campoCsv(csv, dados.cep()).append(',');
+        csv.append(dados.qtdCreditos()).append(',')
+                .append(dados.qtdDebitos()).append(',')
+                .append(dados.totalMovimentacoes()).append(',')
+                .append(valor(dados.valorPago()).toPlainString()).append(',')
+                .append(valor(dados.saldoInicial()).toPlainString()).append(',')
+                .append(valor(dados.saldoAtual()).toPlainString()).append(FIM_LINHA_CSV);
+        return csv.toString();
+    }
+
+    /**
+     * Os mesmos dados com os valores em 2 casas, como no CSV (o valor pago sem receita é zero sem casas).
+     */
+    private static RelatorioSaldoCliente comDuasCasas(RelatorioSaldoCliente dados) {
+        return new RelatorioSaldoCliente(dados.clienteId(), dados.nome(), dados.dataCadastro(),
+                dados.periodoInicio(), dados.periodoFim(), dados.logradouro(), dados.numero(), dados.bairro(),
+                dados.cidade(), dados.uf(), dados.cep(), dados.qtdCreditos(), dados.qtdDebitos(),
+                dados.totalMovimentacoes(), valor(dados.valorPago()), valor(dados.saldoInicial()),
+                valor(dados.saldoAtual()));
+    }
+
+    /**
+     * Escreve o Relatório de Saldo de Todos os Clientes no writer, um bloco de clientes por vez.
+     */
+    public void exportarSaldoTodosClientes(FormatoRelatorio formato, Writer writer) throws IOException {
+        if (formato == FormatoRelatorio.TEXTO) {
+            relatorioService.escreverRelatorioSaldoTodosClientes(writer);
+            return;
+        }
+        String dataSaldo = LocalDate.now().toString();
+        if (formato == FormatoRelatorio.NDJSON) {
+            try (JsonGenerator json = criarGerador(writer)) {
+                relatorioService.percorrerSaldosTodosClientes(bloco -> {
+                    for (SaldoClienteResumo saldo : bloco) {
+                        json.writeStartObject();
+                        json.writeNumberField("clienteId", saldo.clienteId());
+                        json.writeStringField("nome", saldo.nome());
+                        json.writeStringField("dataCadastro", saldo.dataCadastro().toLocalDate().toString());
+                        json.writeStringField("dataSaldo", dataSaldo);
+                        json.writeNumberField("saldoAtual", valor(saldo.saldoAtual()));
+                        json.writeEndObject();
+                        json.writeRaw('\n');
+                    }
+                    json.flush();
+                });
+            }
+            return;
+        }
+
+        StringBuilder buffer = new StringBuilder(TAMANHO_BUFFER);
+        buffer.append(CABECALHO_SALDO_TODOS_CLIENTES);
+        relatorioService.percorrerSaldosTodosClientes(bloco -> {
+            for (SaldoClienteResumo saldo : bloco) {
+                buffer.append(saldo.clienteId()).append(',');
+                campoCsv(buffer, saldo.nome()).append(',');
+                data(buffer, saldo.dataCadastro().toLocalDate()).append(',')
+                        .append(dataSaldo).append(',')
+                        .append(valor(saldo.saldoAtual()).toPlainString()).append(FIM_LINHA_CSV);
+            }
+            descarregar(buffer, writer);
+            writer.flush();
+        });
+        descarregar(buffer, writer);
+        writer.flush();
+    }
+
+    /**
+     * Escreve o Relatório de Receita da Empresa (XPTO) no writer, um cliente por linha em ordem de ID.
+     */
+    public void exportarReceitaXPTO(LocalDate inicio, LocalDate fim, boolean paralelo, FormatoRelatorio formato,
+                                    Writer writer) throws IOException {
+        if (formato == FormatoRelatorio.TEXTO) {
+            relatorioService.escreverRelatorioReceitaXPTO(inicio, fim, paralelo, writer);
+            return;
+        }
+        String periodoInicio = inicio.toString();
+        String periodoFim = fim.toString();
+        if (formato == FormatoRelatorio.NDJSON) {
+            try (JsonGenerator json = criarGerador(writer)) {
+                relatorioService.percorrerReceitaXPTO(inicio, fim, paralelo, receita -> {
+                    json.writeStartObject();
+                    json.writeNumberField("clienteId", receita.clienteId());
+                    json.writeStringField("nome", receita.nome());
+                    json.writeStringField("periodoInicio", periodoInicio);
+                    json.writeStringField("periodoFim", periodoFim);
+                    json.writeNumberField("qtdMovimentacoes", receita.qtdMovimentacoes());
+                    json.writeNumberField("valorCobrado", valor(receita.valorCobrado()));
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                });
+                json.flush();
+            }
+            return;
+        }
+
+        StringBuilder buffer = new StringBuilder(TAMANHO_BUFFER + 256);
+        buffer.append(CABECALHO_RECEITA_XPTO);
+        relatorioService.percorrerReceitaXPTO(inicio, fim, paralelo, receita -> {
+            buffer.append(receita.clienteId()).append(',');
+            campoCsv(buffer, receita.nome()).append(',')
+                    .append(periodoInicio).append(',')
+                    .append(periodoFim).append(',')
+                    .append(receita.qtdMovimentacoes()).append(',')
+                    .append(valor(receita.valorCobrado()).toPlainString()).append(FIM_LINHA_CSV);
+            if (buffer.length() >= TAMANHO_BUFFER) {
+                descarregar(buffer, writer);
+            }
+        });
+        descarregar(buffer, writer);
+        writer.flush();
+    }
+
+    /**
+     * Gerador JSON sobre o writer da resposta, com um objeto por linha e sem fechar o writer.
+     */
+    private JsonGenerator criarGerador(Writer writer) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(writer);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.setRootValueSeparator(null); // a quebra de linha é escrita após cada objeto
+        return json;
+    }
+
+    /**
+     * Campo CSV (RFC 4180): entre aspas quando contém separador, aspas ou quebra de linha.
+     * Valor nulo fica vazio.
+     */
+    private static StringBuilder campoCsv(StringBuilder linha, String valor) {
+        if (valor == null) {
+            return linha;
+        }
+        boolean aspas = false;
+        for (int i = 0; i < valor.length() && !aspas; i++) {
+            char c = valor.charAt(i);
+            aspas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!aspas) {
+            return linha.append(valor);
+        }
+        linha.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') {
+                linha.append('"');
+            }
+            linha.append(c);
+        }
+        return linha.append('"');
+    }
+
+    private static StringBuilder data(StringBuilder linha, LocalDate data) {
+        return data != null ? linha.append(data) : linha;
+    }
+
+    /**
+     * Valor com 2 casas e ponto decimal, arredondado como no relatório em texto.
+     */
+    private static BigDecimal valor(BigDecimal valor) {
+        return valor.setScale(ValorMonetario.ESCALA, RoundingMode.HALF_UP);
+    }
+
+    private static void descarregar(StringBuilder buffer, Writer writer) throws IOException {
+        writer.append(buffer);
+        buffer.setLength(0);
+    }
+}
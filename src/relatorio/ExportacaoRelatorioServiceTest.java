@@ -0,0 +1,300 @@
+package com.xpto.desafio.service;
+
+import com.desafio_dev.desafio_dev.DesafioDevApplication;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.xpto.desafio.dto.MovimentacaoLoteItem;
+import com.xpto.desafio.entity.Cliente;
+import com.xpto.desafio.entity.Conta;
+import com.xpto.desafio.entity.Endereco;
+import com.xpto.desafio.entity.ReceitaXPTO;
+import com.xpto.desafio.repository.ClienteRepository;
+import com.xpto.desafio.repository.ContaRepository;
+import com.xpto.desafio.repository.EnderecoRepository;
+import com.xpto.desafio.repository.ReceitaXPTORepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Relatórios em CSV (RFC 4180) e NDJSON lidos de volta: cabeçalho, campos com separador, aspas e
+ * quebra de linha, valores com 2 casas e os mesmos números do relatório em texto.
+ */
+@SpringBootTest(classes = DesafioDevApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:exportacao-relatorio;MODE=Oracle;DB_CLOSE_DELAY=-1"
+})
+public class ExportacaoRelatorioServiceTest {
+
+    private static final AtomicInteger clientesCriados = new AtomicInteger();
+
+    private static final String NOME = "Silva, \"Zé\"\nFilho";
+    private static final LocalDate INICIO = LocalDate.of(2024, 3, 1);
+    private static final LocalDate FIM = LocalDate.of(2024, 3, 31);
+
+    @Autowired
+    private ExportacaoRelatorioService exportacaoRelatorioService;
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private MovimentacaoService movimentacaoService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private EnderecoRepository enderecoRepository;
+
+    @Autowired
+    private ReceitaXPTORepository receitaXPTORepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        // CPF único por teste (mesmo banco em memória para toda a classe)
+        String cpf = String.format("888.999.%03d-22", clientesCriados.incrementAndGet());
+        cliente = clienteRepository.save(new Cliente(NOME, "PF", cpf, null, "11944443333"));
+        enderecoRepository.save(new Endereco(cliente, "Rua A, bloco \"B\"", "10", "Centro", "São Paulo", "SP", "01000-000"));
+        Conta conta = contaRepository.save(new Conta(cliente, "0001", "0001", "Banco XPTO", new BigDecimal("100.5")));
+
+        movimentar(conta, "CREDITO", "0.05", LocalDateTime.of(2024, 2, 10, 9, 0));
+        movimentar(conta, "CREDITO", "30", LocalDateTime.of(2024, 3, 1, 0, 0));
+        movimentar(conta, "DEBITO", "10.1", LocalDateTime.of(2024, 3, 31, 23, 59, 59));
+        receitaXPTORepository.save(new ReceitaXPTO(cliente, INICIO, FIM, 2, new BigDecimal("2.00")));
+    }
+
+    @Test
+    void deveExportarSaldoClientePorPeriodoEmCsv() {
+        String csv = exportar(FormatoRelatorio.CSV);
+
+        assertTrue(csv.endsWith("\r\n"));
+        List<List<String>> registros = lerCsv(csv);
+        assertEquals(2, registros.size());
+        assertEquals(List.of("clienteId", "nome", "dataCadastro", "periodoInicio", "periodoFim", "logradouro",
+                "numero", "bairro", "cidade", "uf", "cep", "qtdCreditos", "qtdDebitos", "totalMovimentacoes",
+                "valorPago", "saldoInicial", "saldoAtual"), registros.get(0));
+        assertEquals(List.of(String.valueOf(cliente.getId()), NOME, LocalDate.now().toString(), "2024-03-01",
+                "2024-03-31", "Rua A, bloco \"B\"", "10", "Centro", "São Paulo", "SP", "01000-000",
+                "1", "1", "2", "2.00", "100.55", "120.45"), registros.get(1));
+    }
+
+    @Test
+    void deveExportarSaldoClientePorPeriodoEmNdjson() throws IOException {
+        String ndjson = exportar(FormatoRelatorio.NDJSON);
+
+        List<JsonNode> objetos = lerNdjson(ndjson);
+        assertEquals(1, objetos.size());
+        JsonNode saldo = objetos.get(0);
+        assertEquals(cliente.getId().longValue(), saldo.get("clienteId").asLong());
+        assertEquals(NOME, saldo.get("nome").asText());
+        assertEquals("2024-03-01", saldo.get("periodoInicio").asText());
+        assertEquals("Rua A, bloco \"B\"", saldo.get("logradouro").asText());
+        assertEquals(1, saldo.get("qtdCreditos").asLong());
+        assertEquals(1, saldo.get("qtdDebitos").asLong());
+        // Valores com 2 casas, como no CSV
+        assertTrue(ndjson.contains("\"valorPago\":2.00"), ndjson);
+        assertTrue(ndjson.contains("\"saldoInicial\":100.55"), ndjson);
+        assertTrue(ndjson.contains("\"saldoAtual\":120.45"), ndjson);
+    }
+
+    @Test
+    void deveExportarValoresComDuasCasasSemReceitaNoPeriodo() {
+        LocalDate abril = LocalDate.of(2024, 4, 1);
+        String ndjson = transactionTemplate.execute(status -> exportacaoRelatorioService
+                .exportarSaldoClientePorPeriodo(cliente.getId(), abril, abril, FormatoRelatorio.NDJSON));
+        String csv = transactionTemplate.execute(status -> exportacaoRelatorioService
+                .exportarSaldoClientePorPeriodo(cliente.getId(), abril, abril, FormatoRelatorio.CSV));
+
+        assertTrue(ndjson.contains("\"valorPago\":0.00"), ndjson);
+        assertTrue(ndjson.contains("\"saldoInicial\":120.45"), ndjson);
+        assertEquals(List.of("0.00", "120.45", "120.45"), lerCsv(csv).get(1).subList(14, 17));
+    }
+
+    @Test
+    void deveExportarMesmosNumerosEmTextoCsvENdjson() throws IOException {
+        String texto = exportar(FormatoRelatorio.TEXTO);
+        List<String> csv = lerCsv(exportar(FormatoRelatorio.CSV)).get(1);
+        JsonNode ndjson = lerNdjson(exportar(FormatoRelatorio.NDJSON)).get(0);
+
+        assertTrue(texto.contains("Movimentações de crédito: " + csv.get(11) + "\n"), texto);
+        assertTrue(texto.contains("Movimentações de débito: " + csv.get(12) + "\n"), texto);
+        assertTrue(texto.contains("Total de movimentações: " + csv.get(13) + "\n"), texto);
+        assertTrue(texto.contains(String.format("Valor pago pelas movimentações (no período): R$ %.2f\n",
+                new BigDecimal(csv.get(14)))), texto);
+        assertTrue(texto.contains(String.format("Saldo inicial (no período): R$ %.2f\n", new BigDecimal(csv.get(15)))), texto);
+        assertTrue(texto.contains(String.format("Saldo atual (no período): R$ %.2f\n", new BigDecimal(csv.get(16)))), texto);
+
+        assertEquals(csv.get(13), ndjson.get("totalMovimentacoes").asText());
+        assertEquals(new BigDecimal(csv.get(14)), ndjson.get("valorPago").decimalValue());
+        assertEquals(new BigDecimal(csv.get(15)), ndjson.get("saldoInicial").decimalValue());
+        assertEquals(new BigDecimal(csv.get(16)), ndjson.get("saldoAtual").decimalValue());
+    }
+
+    @Test
+    void deveExportarSaldoTodosClientesComMesmosNumeros() throws IOException {
+        List<List<String>> csv = lerCsv(exportarSaldoTodosClientes(FormatoRelatorio.CSV));
+        List<JsonNode> ndjson = lerNdjson(exportarSaldoTodosClientes(FormatoRelatorio.NDJSON));
+        String texto = exportarSaldoTodosClientes(FormatoRelatorio.TEXTO);
+
+        assertEquals(List.of("clienteId", "nome", "dataCadastro", "dataSaldo", "saldoAtual"), csv.get(0));
+        assertEquals(csv.size() - 1, ndjson.size());
+        for (int i = 1; i < csv.size(); i++) {
+            List<String> registro = csv.get(i);
+            JsonNode objeto = ndjson.get(i - 1);
+            assertEquals(registro.get(0), objeto.get("clienteId").asText());
+            assertEquals(registro.get(1), objeto.get("nome").asText());
+            assertEquals(registro.get(4), objeto.get("saldoAtual").decimalValue().toPlainString());
+            assertTrue(registro.get(4).matches("-?\\d+\\.\\d{2}"), registro.get(4));
+        }
+
+        List<String> registro = csv.stream()
+                .filter(r -> r.get(0).equals(String.valueOf(cliente.getId())))
+                .findFirst().orElseThrow();
+        assertEquals(NOME, registro.get(1));
+        assertEquals("120.45", registro.get(4));
+        assertTrue(texto.contains(String.format("Cliente: %s - Cliente desde: %s - Saldo em %s: R$ %.2f\n",
+                NOME, registro.get(2), registro.get(3), new BigDecimal(registro.get(4)))), texto);
+    }
+
+    @Test
+    void deveExportarReceitaXPTOComMesmosNumeros() throws IOException {
+        List<List<String>> csv = lerCsv(exportarReceitaXPTO(FormatoRelatorio.CSV));
+        List<JsonNode> ndjson = lerNdjson(exportarReceitaXPTO(FormatoRelatorio.NDJSON));
+        String texto = exportarReceitaXPTO(FormatoRelatorio.TEXTO);
+
+        assertEquals(List.of("clienteId", "nome", "periodoInicio", "periodoFim", "qtdMovimentacoes", "valorCobrado"),
+                csv.get(0));
+        assertEquals(csv.size() - 1, ndjson.size());
+        int indice = -1;
+        for (int i = 1; i < csv.size(); i++) {
+            if (csv.get(i).get(0).equals(String.valueOf(cliente.getId()))) {
+                indice = i;
+            }
+        }
+        assertTrue(indice > 0, "cliente sem linha de receita");
+        assertEquals(List.of(String.valueOf(cliente.getId()), NOME, "2024-03-01", "2024-03-31", "2", "2.00"),
+                csv.get(indice));
+
+        JsonNode receita = ndjson.get(indice - 1);
+        assertEquals(cliente.getId().longValue(), receita.get("clienteId").asLong());
+        assertEquals(NOME, receita.get("nome").asText());
+        assertEquals(2, receita.get("qtdMovimentacoes").asLong());
+        assertEquals(new BigDecimal("2.00"), receita.get("valorCobrado").decimalValue());
+
+        assertTrue(texto.contains(String.format("Cliente %s - Quantidade de movimentações: %d - Valor das movimentações: R$ %.2f\n",
+                NOME, 2, new BigDecimal("2.00"))), texto);
+    }
+
+    private String exportar(FormatoRelatorio formato) {
+        return transactionTemplate.execute(status ->
+                exportacaoRelatorioService.exportarSaldoClientePorPeriodo(cliente.getId(), INICIO, FIM, formato));
+    }
+
+    private String exportarSaldoTodosClientes(FormatoRelatorio formato) throws IOException {
+        StringWriter writer = new StringWriter();
+        exportacaoRelatorioService.exportarSaldoTodosClientes(formato, writer);
+        return writer.toString();
+    }
+
+    private String exportarReceitaXPTO(FormatoRelatorio formato) throws IOException {
+        StringWriter writer = new StringWriter();
+        exportacaoRelatorioService.exportarReceitaXPTO(INICIO, FIM, false, formato, writer);
+        return writer.toString();
+    }
+
+    /**
+     * Um objeto JSON por linha, com números decimais lidos sem perda de casas.
+     */
+    private List<JsonNode> lerNdjson(String ndjson) throws IOException {
+        assertTrue(ndjson.isEmpty() || ndjson.endsWith("\n"));
+        ObjectReader leitor = objectMapper.reader()
+                .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                .with(JsonNodeFactory.withExactBigDecimals(true));
+        List<JsonNode> objetos = new ArrayList<>();
+        for (String linha : ndjson.split("\n")) {
+            if (!linha.isEmpty()) {
+                JsonNode objeto = leitor.readTree(linha);
+                assertTrue(objeto.isObject(), linha);
+                objetos.add(objeto);
+            }
+        }
+        return objetos;
+    }
+
+    /**
+     * Leitura RFC 4180: registros terminados em CRLF, campos entre aspas podem conter vírgula,
+     * aspas duplicadas e quebras de linha.
+     */
+    private static List<List<String>> lerCsv(String csv) {
+        List<List<String>> registros = new ArrayList<>();
+        List<String> registro = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        int i = 0;
+        while (i < csv.length()) {
+            char c = csv.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < csv.length() && csv.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                assertEquals(0, campo.length(), "aspas no meio de campo sem aspas");
+                entreAspas = true;
+            } else if (c == ',') {
+                registro.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\r') {
+                assertEquals('\n', csv.charAt(i + 1), "CR sem LF fora de aspas");
+                registro.add(campo.toString());
+                campo.setLength(0);
+                registros.add(registro);
+                registro = new ArrayList<>();
+                i++;
+            } else {
+                assertNotEquals('\n', c, "LF sem CR fora de aspas");
+                campo.append(c);
+            }
+            i++;
+        }
+        assertFalse(entreAspas, "aspas não fechadas");
+        assertTrue(registro.isEmpty() && campo.length() == 0, "último registro sem CRLF");
+        return registros;
+    }
+
+    private void movimentar(Conta conta, String tipo, String valor, LocalDateTime data) {
+        movimentacaoService.receberMovimentacoesEmLote(List.of(
+                new MovimentacaoLoteItem(conta.getId(), tipo, new BigDecimal(valor), "Teste", data, null)).iterator());
+    }
+}
@@ -0,0 +1,55 @@
+package com.xpto.desafio.service;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Formatos de saída dos relatórios, escolhidos pelo cabeçalho Accept da requisição.
+ */
+public enum FormatoRelatorio {
+
+    TEXTO(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8)),
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8)),
+    NDJSON(MediaType.APPLICATION_NDJSON);
+
+    private final MediaType mediaType;
+
+    FormatoRelatorio(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Primeiro formato aceito, pela ordem de qualidade do Accept. Sem Accept, com curinga
+     * ou com Accept inválido, mantém o texto.
+     */
+    public static FormatoRelatorio negociar(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return TEXTO;
+        }
+        List<MediaType> aceitos;
+        try {
+            aceitos = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(aceitos); // considera a qualidade (q) antes da especificidade
+        } catch (IllegalArgumentException e) {
+            return TEXTO;
+        }
+        for (MediaType aceito : aceitos) {
+            if (aceito.isWildcardType() || aceito.isWildcardSubtype() || aceito.getQualityValue() == 0) {
+                continue;
+            }
+            for (FormatoRelatorio formato : values()) {
+                if (formato.mediaType.isCompatibleWith(aceito)) {
+                    return formato;
+                }
+            }
+        }
+        return TEXTO;
+    }
+}
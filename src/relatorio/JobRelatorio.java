@@ -0,0 +1,148 @@
+package com.xpto.desafio.dto;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Solicitação de relatório executada em segundo plano. O resultado fica em disco até {@code expiraEm}.
+ * A situação é atualizada pela thread de execução e lida pelo endpoint de status.
+ */
+public class JobRelatorio {
+
+    /**
+     * Tipos de relatório assíncrono. Menor prioridade executa antes: relatórios de um cliente
+     * são rápidos e não devem esperar atrás dos relatórios de todos os clientes.
+     */
+    public enum TipoRelatorio {
+        SALDO_CLIENTE(0, true, false),
+        SALDO_CLIENTE_PERIODO(1, true, true),
+        RECEITA_XPTO(2, false, true),
+        SALDO_TODOS_CLIENTES(3, false, false);
+
+        private final int prioridade;
+        private final boolean porCliente;
+        private final boolean porPeriodo;
+
+        TipoRelatorio(int prioridade, boolean porCliente, boolean porPeriodo) {
+            this.prioridade = prioridade;
+            this.porCliente = porCliente;
+            this.porPeriodo = porPeriodo;
+        }
+
+        public int getPrioridade() {
+            return prioridade;
+        }
+
+        public boolean isPorCliente() {
+            return porCliente;
+        }
+
+        public boolean isPorPeriodo() {
+            return porPeriodo;
+        }
+    }
+
+    public enum Situacao { PENDENTE, EM_EXECUCAO, CONCLUIDO, ERRO }
+
+    private final String id;
+    private final TipoRelatorio tipo;
+    private final Long clienteId;
+    private final LocalDate inicio;
+    private final LocalDate fim;
+    private final LocalDateTime criadoEm = LocalDateTime.now();
+    private volatile LocalDateTime iniciadoEm;
+    private volatile LocalDateTime concluidoEm;
+    private volatile LocalDateTime expiraEm;
+    private volatile Situacao situacao = Situacao.PENDENTE;
+    private volatile String mensagemErro;
+
+    public JobRelatorio(String id, TipoRelatorio tipo, Long clienteId, LocalDate inicio, LocalDate fim) {
+        this.id = id;
+        this.tipo = tipo;
+        this.clienteId = clienteId;
+        this.inicio = inicio;
+        this.fim = fim;
+    }
+
+    /**
+     * Chave dos parâmetros: solicitações com a mesma chave reaproveitam o mesmo job.
+     */
+    public static String chave(TipoRelatorio tipo, Long clienteId, LocalDate inicio, LocalDate fim) {
+        return tipo + "|" + clienteId + "|" + inicio + "|" + fim;
+    }
+
+    public void iniciar() {
+        iniciadoEm = LocalDateTime.now();
+        situacao = Situacao.EM_EXECUCAO;
+    }
+
+    public void concluir(Duration ttl) {
+        concluidoEm = LocalDateTime.now();
+        expiraEm = concluidoEm.plus(ttl);
+        situacao = Situacao.CONCLUIDO;
+    }
+
+    public void falhar(String mensagem, Duration ttl) {
+        concluidoEm = LocalDateTime.now();
+        expiraEm = concluidoEm.plus(ttl);
+        mensagemErro = mensagem;
+        situacao = Situacao.ERRO;
+    }
+
+    public boolean isExpirado(LocalDateTime agora) {
+        return expiraEm != null && expiraEm.isBefore(agora);
+    }
+
+    /**
+     * Job pendente, em execução ou concluído e ainda válido pode atender uma nova solicitação igual.
+     */
+    public boolean isReaproveitavel(LocalDateTime agora) {
+        return situacao != Situacao.ERRO && !isExpirado(agora);
+    }
+
+    // Getters
+    public String getId() {
+        return id;
+    }
+
+    public TipoRelatorio getTipo() {
+        return tipo;
+    }
+
+    public Long getClienteId() {
+        return clienteId;
+    }
+
+    public LocalDate getInicio() {
+        return inicio;
+    }
+
+    public LocalDate getFim() {
+        return fim;
+    }
+
+    public LocalDateTime getCriadoEm() {
+        return criadoEm;
+    }
+
+    public LocalDateTime getIniciadoEm() {
+        return iniciadoEm;
+    }
+
+    public LocalDateTime getConcluidoEm() {
+        return concluidoEm;
+    }
+
+    public LocalDateTime getExpiraEm() {
+        return expiraEm;
+    }
+
+    public Situacao getSituacao() {
+        return situacao;
+    }
+
+    public String getMensagemErro() {
+        return mensagemErro;
+    }
+}
@@ -0,0 +1,245 @@
+package com.xpto.desafio.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Modelo de linha de relatório compilado uma única vez a partir do formato usado com
+ * {@link String#format(String, Object...)}, gerando o mesmo texto sem interpretar o formato
+ * nem converter os valores em objetos a cada linha. Escreve direto em um {@link StringBuilder}
+ * reaproveitado pelo relatório.
+ * <p>
+ * Marcadores suportados: {@code %s}, {@code %d} e {@code %.2f}, com os dígitos e o separador
+ * decimal do locale padrão, como o {@code String.format}.
+ */
+public final class ModeloRelatorio {
+
+    private static final char TEXTO = 's';
+    private static final char INTEIRO = 'd';
+    private static final char MOEDA = 'f';
+
+    private static volatile SimbolosLocale simbolos = SimbolosLocale.de(Locale.getDefault(Locale.Category.FORMAT));
+
+    private final String formato;
+    private final String[] literais;
+    private final char[] marcadores;
+
+    private ModeloRelatorio(String formato, String[] literais, char[] marcadores) {
+        this.formato = formato;
+        this.literais = literais;
+        this.marcadores = marcadores;
+    }
+
+    /**
+     * Compila o formato em trechos literais e marcadores.
+     *
+     * @throws IllegalArgumentException se o formato tiver marcador não suportado
+     */
+    public static ModeloRelatorio compilar(String formato) {
+        List<String> literais = new ArrayList<>();
+        StringBuilder marcadores = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < formato.length(); i++) {
+            char c = formato.charAt(i);
+            if (c != '%') {
+                literal.append(c);
+                continue;
+            }
+            if (formato.startsWith("%s", i)) {
+                marcadores.append(TEXTO);
+                i += 1;
+            } else if (formato.startsWith("%d", i)) {
+                marcadores.append(INTEIRO);
+                i += 1;
+            } else if (formato.startsWith("%.2f", i)) {
+                marcadores.append(MOEDA);
+                i += 3;
+            } else {
+                throw new IllegalArgumentException("Marcador não suportado na posição " + i + ": " + formato);
+            }
+            literais.add(literal.toString());
+            literal.setLength(0);
+        }
+        literais.add(literal.toString());
+        return new ModeloRelatorio(formato, literais.toArray(String[]::new), marcadores.toString().toCharArray());
+    }
+
+    /**
+     * Inicia uma linha no destino; os valores devem ser informados na ordem dos marcadores.
+     */
+    public Linha em(StringBuilder destino) {
+        destino.append(literais[0]);
+        return new Linha(destino);
+    }
+
+    public String getFormato() {
+        return formato;
+    }
+
+    public final class Linha {
+
+        private final StringBuilder destino;
+        private int marcador;
+
+        private Linha(StringBuilder destino) {
+            this.destino = destino;
+        }
+
+        /**
+         * Valor de um {@code %s}.
+         */
+        public Linha texto(String valor) {
+            verificar(TEXTO);
+            destino.append(valor);
+            return proximo();
+        }
+
+        /**
+         * Data em um {@code %s}, no formato de {@link LocalDate#toString()} (yyyy-MM-dd).
+         */
+        public Linha data(LocalDate data) {
+            verificar(TEXTO);
+            int ano = data.getYear();
+            if (ano < 1000 || ano > 9999) {
+                destino.append(data);
+            } else {
+                destino.append(ano).append('-');
+                doisDigitos(data.getMonthValue());
+                destino.append('-');
+                doisDigitos(data.getDayOfMonth());
+            }
+            return proximo();
+        }
+
+        /**
+         * Valor de um {@code %d}.
+         */
+        public Linha inteiro(long valor) {
+            verificar(INTEIRO);
+            SimbolosLocale locale = simbolosAtuais();
+            if (locale.zero() == '0') {
+                destino.append(valor);
+            } else if (valor == Long.MIN_VALUE) {
+                // Sem valor positivo correspondente em long
+                String digitos = Long.toString(valor);
+                destino.append('-');
+                for (int i = 1; i < digitos.length(); i++) {
+                    destino.append((char) (locale.zero() + digitos.charAt(i) - '0'));
+                }
+            } else {
+                if (valor < 0) {
+                    destino.append('-');
+                    valor = -valor;
+                }
+                digitos(valor, locale.zero());
+            }
+            return proximo();
+        }
+
+        /**
+         * Valor em centavos de um {@code %.2f}.
+         */
+        public Linha moeda(long centavos) {
+            verificar(MOEDA);
+            if (centavos == Long.MIN_VALUE) {
+                destino.append(String.format("%.2f", ValorMonetario.deCentavos(centavos)));
+                return proximo();
+            }
+            if (centavos < 0) {
+                destino.append('-');
+                centavos = -centavos;
+            }
+            magnitude(centavos, simbolosAtuais());
+            return proximo();
+        }
+
+        /**
+         * Valor de um {@code %.2f}, arredondado como no {@code String.format} (HALF_UP).
+         */
+        public Linha moeda(BigDecimal valor) {
+            verificar(MOEDA);
+            BigDecimal arredondado = valor.abs().setScale(2, RoundingMode.HALF_UP);
+            if (arredondado.precision() > 18) {
+                // Fora do intervalo de centavos em long
+                destino.append(String.format("%.2f", valor));
+                return proximo();
+            }
+            long centavos = arredondado.movePointRight(2).longValue();
+            // O sinal vem do valor original, como no String.format
+            if (valor.signum() < 0) {
+                destino.append('-');
+            }
+            magnitude(centavos, simbolosAtuais());
+            return proximo();
+        }
+
+        private void magnitude(long centavos, SimbolosLocale locale) {
+            long inteiro = centavos / 100;
+            int fracao = (int) (centavos % 100);
+            if (locale.zero() == '0') {
+                destino.append(inteiro).append(locale.separadorDecimal());
+                doisDigitos(fracao);
+            } else {
+                digitos(inteiro, locale.zero());
+                destino.append(locale.separadorDecimal())
+                        .append((char) (locale.zero() + fracao / 10))
+                        .append((char) (locale.zero() + fracao % 10));
+            }
+        }
+
+        private void digitos(long valor, char zero) {
+            int inicio = destino.length();
+            do {
+                destino.append((char) (zero + valor % 10));
+                valor /= 10;
+            } while (valor > 0);
+            // Dígitos gerados do menos para o mais significativo
+            for (int i = inicio, j = destino.length() - 1; i < j; i++, j--) {
+                char c = destino.charAt(i);
+                destino.setCharAt(i, destino.charAt(j));
+                destino.setCharAt(j, c);
+            }
+        }
+
+        private void doisDigitos(int valor) {
+            destino.append((char) ('0' + valor / 10)).append((char) ('0' + valor % 10));
+        }
+
+        private void verificar(char esperado) {
+            if (marcador >= marcadores.length || marcadores[marcador] != esperado) {
+                throw new IllegalStateException("Valor não corresponde ao marcador " + (marcador + 1) + " de: " + formato);
+            }
+        }
+
+        private Linha proximo() {
+            destino.append(literais[++marcador]);
+            return this;
+        }
+    }
+
+    /**
+     * Dígito zero e separador decimal do locale padrão, relidos quando o locale padrão muda.
+     */
+    private static SimbolosLocale simbolosAtuais() {
+        SimbolosLocale atual = simbolos;
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        if (atual.locale() != locale && !atual.locale().equals(locale)) {
+            atual = SimbolosLocale.de(locale);
+            simbolos = atual;
+        }
+        return atual;
+    }
+
+    private record SimbolosLocale(Locale locale, char zero, char separadorDecimal) {
+
+        static SimbolosLocale de(Locale locale) {
+            DecimalFormatSymbols dfs = DecimalFormatSymbols.getInstance(locale);
+            return new SimbolosLocale(locale, dfs.getZeroDigit(), dfs.getDecimalSeparator());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.xpto.desafio.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ModeloRelatorioTest {
+
+    private static final String FORMATO = "Cliente %s - Cliente desde: %s - Movimentações: %d - Saldo: R$ %.2f - Pago: R$ %.2f\n";
+
+    private static final Locale[] LOCALES = {
+            Locale.US,
+            Locale.forLanguageTag("pt-BR"),
+            Locale.GERMANY,
+            Locale.forLanguageTag("th-TH-u-nu-thai"), // dígitos tailandeses
+            Locale.forLanguageTag("ar-EG")
+    };
+
+    private Locale localeOriginal;
+
+    @BeforeEach
+    void setUp() {
+        localeOriginal = Locale.getDefault(Locale.Category.FORMAT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Locale.setDefault(Locale.Category.FORMAT, localeOriginal);
+    }
+
+    @Test
+    void deveGerarMesmoTextoQueStringFormat() {
+        ModeloRelatorio modelo = ModeloRelatorio.compilar(FORMATO);
+        Random random = new Random(42);
+
+        for (Locale locale : LOCALES) {
+            Locale.setDefault(Locale.Category.FORMAT, locale);
+            for (int i = 0; i < 20_000; i++) {
+                String nome = "Cliente " + i;
+                LocalDate data = LocalDate.ofEpochDay(random.nextInt(1_000_000) - 400_000);
+                long quantidade = i % 50 == 0 ? Long.MIN_VALUE : random.nextLong() >> random.nextInt(64);
+                long centavos = i % 50 == 1 ? Long.MIN_VALUE : random.nextLong() >> random.nextInt(64);
+                BigDecimal valor = switch (i % 5) {
+                    case 0 -> BigDecimal.valueOf(random.nextLong(), random.nextInt(6)); // arredondamento HALF_UP
+                    case 1 -> new BigDecimal("-0.001");                                  // "-0.00", como no Formatter
+                    case 2 -> new BigDecimal("1E+25");                                    // acima de long em centavos
+                    case 3 -> BigDecimal.valueOf(random.nextInt(1_000_000), 2).negate();
+                    default -> BigDecimal.valueOf(random.nextInt(), random.nextInt(4) - 1);
+                };
+
+                String esperado = String.format(FORMATO, nome, data.toString(), quantidade,
+                        ValorMonetario.deCentavos(centavos), valor);
+                StringBuilder gerado = new StringBuilder();
+                modelo.em(gerado).texto(nome).data(data).inteiro(quantidade).moeda(centavos).moeda(valor);
+
+                assertEquals(esperado, gerado.toString(), "Locale " + locale);
+            }
+        }
+    }
+
+    @Test
+    void deveEscreverTextoNuloComoStringFormat() {
+        StringBuilder gerado = new StringBuilder();
+        ModeloRelatorio.compilar("Endereço: %s\n").em(gerado).texto(null);
+
+        assertEquals(String.format("Endereço: %s\n", (Object) null), gerado.toString());
+    }
+
+    @Test
+    void deveRejeitarMarcadorNaoSuportado() {
+        assertThrows(IllegalArgumentException.class, () -> ModeloRelatorio.compilar("Valor: %10.3f\n"));
+    }
+
+    @Test
+    void deveRejeitarValorForaDaOrdemDosMarcadores() {
+        ModeloRelatorio modelo = ModeloRelatorio.compilar("Total: %d - R$ %.2f\n");
+
+        assertThrows(IllegalStateException.class, () -> modelo.em(new StringBuilder()).moeda(100L));
+    }
+}
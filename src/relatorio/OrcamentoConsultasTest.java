@@ -0,0 +1,306 @@
+package com.xpto.desafio.service;
+
+import com.desafio_dev.desafio_dev.DesafioDevApplication;
+import com.xpto.desafio.dto.MovimentacaoLoteItem;
+import com.xpto.desafio.entity.Cliente;
+import com.xpto.desafio.entity.Conta;
+import com.xpto.desafio.entity.ReceitaXPTO;
+import com.xpto.desafio.repository.ContaRepository;
+import com.xpto.desafio.repository.ReceitaXPTORepository;
+import jakarta.persistence.EntityManagerFactory;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Orçamento de instruções SQL dos relatórios: cada caminho (serviço e endpoint) tem um máximo de
+ * instruções, que não pode crescer com a quantidade de contas ou de clientes. Um N+1 ou uma consulta
+ * a mais faz o teste (e o build) falhar com a lista das instruções executadas.
+ * As instruções são contadas no DataSource (datasource-proxy), o que inclui JPA e JdbcTemplate,
+ * com o cache de segundo nível vazio.
+ */
+@SpringBootTest(classes = DesafioDevApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:orcamento-consultas;MODE=Oracle;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+public class OrcamentoConsultasTest {
+
+    // Orçamentos (instruções por chamada)
+    private static final int SALDO_CLIENTE = 4;            // cliente, endereços, contas e receitas
+    private static final int SALDO_CLIENTE_PERIODO = 8;    // os 4 acima, consolidado e criação dos pontos de controle (3)
+    private static final int SALDO_TODOS_CLIENTES = 1;     // um bloco de até 500 clientes
+    private static final int RECEITA_XPTO = 1;             // totais agrupados no banco
+    private static final int RECEITA_XPTO_POR_MES = 1;     // paralelo: uma consulta por mês
+    private static final int CALCULO_RECEITA_XPTO = 3;     // cliente, contagem e inclusão da receita
+
+    private static final LocalDate INICIO = LocalDate.of(2024, 2, 10);
+    private static final LocalDate FIM = LocalDate.of(2024, 3, 31);
+
+    private static final ContadorConsultas contador = new ContadorConsultas();
+    private static final AtomicInteger clientesCriados = new AtomicInteger();
+
+    /**
+     * Envolve o DataSource da aplicação com o contador (apenas neste teste).
+     */
+    @TestConfiguration
+    static class ContagemConsultas {
+
+        @Bean
+        static BeanPostProcessor contadorConsultasNoDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                        return ProxyDataSourceBuilder.create(dataSource).name(beanName).listener(contador).build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Registra as instruções executadas em qualquer thread enquanto a contagem está ativa
+     * (os relatórios em streaming e o paralelo rodam fora da thread do teste).
+     */
+    static class ContadorConsultas implements QueryExecutionListener {
+
+        private final AtomicBoolean ativo = new AtomicBoolean();
+        private final Queue<String> instrucoes = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (ativo.get()) {
+                instrucoes.add(queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery());
+            }
+        }
+
+        List<String> contar(Execucao execucao) throws Exception {
+            instrucoes.clear();
+            ativo.set(true);
+            try {
+                execucao.executar();
+            } finally {
+                ativo.set(false);
+            }
+            return List.copyOf(instrucoes);
+        }
+    }
+
+    @FunctionalInterface
+    interface Execucao {
+        void executar() throws Exception;
+    }
+
+    @FunctionalInterface
+    interface ExecucaoCliente {
+        void executar(Long clienteId) throws Exception;
+    }
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private MovimentacaoService movimentacaoService;
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private ReceitaXPTORepository receitaXPTORepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Cliente clienteUmaConta;
+    private Cliente clienteCincoContas;
+
+    @BeforeEach
+    void setUp() {
+        clienteUmaConta = criarCliente(1);
+        clienteCincoContas = criarCliente(5);
+    }
+
+    @Test
+    void relatorioSaldoClienteDentroDoOrcamento() throws Exception {
+        verificarPorCliente("gerarRelatorioSaldoCliente", SALDO_CLIENTE, clienteId ->
+                transactionTemplate.execute(status -> relatorioService.gerarRelatorioSaldoCliente(clienteId)));
+    }
+
+    @Test
+    void relatorioSaldoClientePorPeriodoDentroDoOrcamento() throws Exception {
+        verificarPorCliente("gerarRelatorioSaldoClientePorPeriodo", SALDO_CLIENTE_PERIODO, clienteId ->
+                transactionTemplate.execute(status -> relatorioService.gerarRelatorioSaldoClientePorPeriodo(clienteId, INICIO, FIM)));
+    }
+
+    @Test
+    void relatorioSaldoTodosClientesDentroDoOrcamento() throws Exception {
+        verificar("gerarRelatorioSaldoTodosClientes", SALDO_TODOS_CLIENTES,
+                () -> relatorioService.gerarRelatorioSaldoTodosClientes());
+    }
+
+    @Test
+    void relatorioReceitaXPTODentroDoOrcamento() throws Exception {
+        verificar("gerarRelatorioReceitaXPTO", RECEITA_XPTO,
+                () -> relatorioService.gerarRelatorioReceitaXPTO(INICIO, FIM));
+        // Fevereiro e março
+        verificar("escreverRelatorioReceitaXPTO (paralelo)", 2 * RECEITA_XPTO_POR_MES,
+                () -> relatorioService.escreverRelatorioReceitaXPTO(INICIO, FIM, true, new StringWriter()));
+    }
+
+    @Test
+    void relatorioReceitaXPTOComPeriodoInvertidoSemConsultas() throws Exception {
+        StringWriter relatorio = new StringWriter();
+        verificar("escreverRelatorioReceitaXPTO (paralelo, período invertido)", 0,
+                () -> relatorioService.escreverRelatorioReceitaXPTO(FIM, INICIO, true, relatorio));
+        assertTrue(relatorio.toString().contains("Total de receitas: R$ 0"), relatorio::toString);
+
+        verificar("GET /api/relatorios/receita-xpto-periodo (período invertido)", 0, () ->
+                mockMvc.perform(get("/api/relatorios/receita-xpto-periodo")
+                                .param("inicio", "31/03/2024").param("fim", "10/02/2024"))
+                        .andExpect(status().isBadRequest()));
+    }
+
+    @Test
+    void calculoReceitaXPTODentroDoOrcamento() throws Exception {
+        verificarPorCliente("calcularReceitaXPTO", CALCULO_RECEITA_XPTO,
+                clienteId -> relatorioService.calcularReceitaXPTO(clienteId, INICIO, FIM));
+    }
+
+    @Test
+    void recalculoReceitaXPTOAtualizaAReceitaDoPeriodo() {
+        ReceitaXPTO primeira = relatorioService.calcularReceitaXPTO(clienteUmaConta.getId(), INICIO, FIM);
+        Conta conta = contaRepository.findByClienteId(clienteUmaConta.getId()).get(0);
+        movimentacaoService.receberMovimentacoesEmLote(List.of(new MovimentacaoLoteItem(conta.getId(), "CREDITO",
+                new BigDecimal("10.00"), "Teste", LocalDateTime.of(2024, 3, 6, 9, 0), null)).iterator());
+
+        // Mesmo cliente e período: a chave única rejeita a segunda inclusão e a receita é atualizada
+        ReceitaXPTO recalculada = relatorioService.calcularReceitaXPTO(clienteUmaConta.getId(), INICIO, FIM);
+
+        assertEquals(primeira.getId(), recalculada.getId());
+        assertEquals(primeira.getQtdMovimentacoes() + 1, recalculada.getQtdMovimentacoes());
+        assertEquals(new BigDecimal("1.00"), recalculada.getValorCobrado().subtract(primeira.getValorCobrado()));
+        assertEquals(recalculada.getQtdMovimentacoes(), receitaXPTORepository
+                .findByClienteIdAndPeriodoInicioAndPeriodoFim(clienteUmaConta.getId(), INICIO, FIM)
+                .orElseThrow().getQtdMovimentacoes());
+    }
+
+    @Test
+    void endpointsDeRelatorioDentroDoOrcamento() throws Exception {
+        verificarPorCliente("GET /api/relatorios/saldo-cliente", SALDO_CLIENTE, clienteId ->
+                mockMvc.perform(get("/api/relatorios/saldo-cliente/{id}", clienteId).header(HttpHeaders.ACCEPT, "text/csv"))
+                        .andExpect(status().isOk()));
+        verificarPorCliente("GET /api/relatorios/saldo-cliente-periodo", SALDO_CLIENTE_PERIODO, clienteId ->
+                mockMvc.perform(get("/api/relatorios/saldo-cliente-periodo/{id}", clienteId)
+                                .param("inicio", "10/02/2024").param("fim", "31/03/2024")
+                                .header(HttpHeaders.ACCEPT, "application/x-ndjson"))
+                        .andExpect(status().isOk()));
+        verificarPorCliente("POST /api/relatorios/receita-xpto", CALCULO_RECEITA_XPTO, clienteId ->
+                mockMvc.perform(post("/api/relatorios/receita-xpto/{id}", clienteId)
+                                .param("inicio", "10/02/2024").param("fim", "31/03/2024"))
+                        .andExpect(status().isCreated()));
+        verificar("GET /api/relatorios/saldo-todos-clientes", SALDO_TODOS_CLIENTES,
+                () -> streaming("/api/relatorios/saldo-todos-clientes"));
+        verificar("GET /api/relatorios/receita-xpto-periodo", RECEITA_XPTO,
+                () -> streaming("/api/relatorios/receita-xpto-periodo?inicio=10/02/2024&fim=31/03/2024"));
+    }
+
+    /**
+     * Confere o orçamento para um cliente com uma conta e outro com cinco: a quantidade de
+     * instruções deve ser a mesma.
+     */
+    private void verificarPorCliente(String caminho, int orcamento, ExecucaoCliente execucao) throws Exception {
+        List<String> umaConta = verificar(caminho, orcamento, () -> execucao.executar(clienteUmaConta.getId()));
+        List<String> cincoContas = verificar(caminho, orcamento, () -> execucao.executar(clienteCincoContas.getId()));
+        assertEquals(umaConta.size(), cincoContas.size(), () -> caminho + " varia com a quantidade de contas:\n"
+                + String.join("\n", cincoContas));
+    }
+
+    private List<String> verificar(String caminho, int orcamento, Execucao execucao) throws Exception {
+        entityManagerFactory.getCache().evictAll();
+        List<String> instrucoes = contador.contar(execucao);
+        assertTrue(instrucoes.size() <= orcamento, () -> caminho + " executou " + instrucoes.size()
+                + " instruções SQL (orçamento: " + orcamento + "):\n" + String.join("\n", instrucoes));
+        return instrucoes;
+    }
+
+    private void streaming(String url) throws Exception {
+        MvcResult resultado = mockMvc.perform(get(url).header(HttpHeaders.ACCEPT, "text/csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(resultado)).andExpect(status().isOk());
+    }
+
+    /**
+     * Cliente com a conta inicial e mais {@code contas - 1} contas, com movimentações antes e dentro
+     * do período e uma receita XPTO calculada.
+     */
+    private Cliente criarCliente(int contas) {
+        // CPF único por cliente (mesmo banco em memória para toda a classe)
+        String cpf = String.format("444.555.%03d-77", clientesCriados.incrementAndGet());
+        Cliente cliente = clienteService.criarClienteComMovimentacaoInicial("Cliente Orçamento", "PF", cpf, null, "11944443333",
+                "Rua A", "10", "Centro", "São Paulo", "SP", "01000-000",
+                "0001", "0001", "Banco XPTO", new BigDecimal("100.00"));
+
+        List<MovimentacaoLoteItem> itens = new ArrayList<>();
+        for (Conta conta : contaRepository.findByClienteId(cliente.getId())) {
+            itens.add(new MovimentacaoLoteItem(conta.getId(), "CREDITO", new BigDecimal("10.00"), "Teste",
+                    LocalDateTime.of(2024, 1, 10, 9, 0), null));
+        }
+        for (int i = 1; i < contas; i++) {
+            Conta conta = contaRepository.save(new Conta(cliente, String.format("%04d", i + 1), "0001", "Banco XPTO",
+                    new BigDecimal("50.00")));
+            itens.add(new MovimentacaoLoteItem(conta.getId(), "CREDITO", new BigDecimal("10.00"), "Teste",
+                    LocalDateTime.of(2024, 1, 10, 9, 0), null));
+            itens.add(new MovimentacaoLoteItem(conta.getId(), "DEBITO", new BigDecimal("5.00"), "Teste",
+                    LocalDateTime.of(2024, 3, 5, 9, 0), null));
+        }
+        movimentacaoService.receberMovimentacoesEmLote(itens.iterator());
+        relatorioService.calcularReceitaXPTO(cliente.getId(), LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 30));
+        return cliente;
+    }
+}
@@ -1,12 +1,25 @@
 package com.xpto.desafio.controller;
 
+import com.xpto.desafio.dto.ExecucaoFaturamentoXPTO;
 import com.xpto.desafio.entity.ReceitaXPTO;
+import com.xpto.desafio.service.ExportacaoRelatorioService;
+import com.xpto.desafio.service.FaturamentoXPTOService;
+import com.xpto.desafio.service.FormatoRelatorio;
+import com.xpto.desafio.service.MovimentacaoDiariaService;
 import com.xpto.desafio.service.RelatorioService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
@@ -14,11 +27,29 @@ import java.time.format.DateTimeFormatter;
 @RequestMapping("/api/relatorios")
 public class RelatorioController {
 
+    public static final String CABECALHO_TOKEN_ADMINISTRACAO = "X-Token-Administracao";
+
     @Autowired
     private RelatorioService relatorioService;
 
+    @Autowired
+    private FaturamentoXPTOService faturamentoXPTOService;
+
+    @Autowired
+    private MovimentacaoDiariaService movimentacaoDiariaService;
+
+    @Autowired
+    private ExportacaoRelatorioService exportacaoRelatorioService;
+
+    @Value("${xpto.administracao.token:}")
+    private String tokenAdministracao;
+
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
+    /**
+     * Calcula e registra a receita XPTO do cliente no período. Se o período já tem receita
+     * registrada, ela é recalculada e atualizada.
+     */
     @PostMapping("/receita-xpto/{clienteId}")
     public ResponseEntity<ReceitaXPTO> calcularReceitaXPTO(
             @PathVariable Long clienteId,
@@ -36,11 +67,69 @@ public class RelatorioController {
         }
     }
 
+    /**
+     * Inicia o faturamento XPTO do período para todos os clientes, em segundo plano (202; 409 se já
+     * houver um em andamento). Diferente do cálculo individual, o lote só fatura clientes sem receita
+     * no período e não altera as já registradas: reexecutar após uma falha continua de onde parou.
+     * Para recalcular a receita de um cliente, use POST /receita-xpto/{clienteId}.
+     */
+    @PostMapping("/receita-xpto/faturamento")
+    public ResponseEntity<ExecucaoFaturamentoXPTO> iniciarFaturamentoXPTO(
+            @RequestParam String inicio,
+            @RequestParam String fim) {
+        try {
+            LocalDate inicioDate = LocalDate.parse(inicio, formatter);
+            LocalDate fimDate = LocalDate.parse(fim, formatter);
+            ExecucaoFaturamentoXPTO execucao = faturamentoXPTOService.iniciarFaturamento(inicioDate, fimDate);
+            return new ResponseEntity<>(execucao, HttpStatus.ACCEPTED);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT); // Faturamento já em andamento
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/receita-xpto/faturamento")
+    public ResponseEntity<ExecucaoFaturamentoXPTO> statusFaturamentoXPTO() {
+        return faturamentoXPTOService.obterUltimaExecucao()
+                .map(execucao -> new ResponseEntity<>(execucao, HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Reconstrói o consolidado diário de movimentações usado pelos relatórios por período.
+     * Retorna a quantidade de registros (conta e dia) gerados.
+     * Operação administrativa: exige o cabeçalho X-Token-Administracao igual a xpto.administracao.token;
+     * sem a propriedade configurada, o endpoint fica desativado (403).
+     */
+    @PostMapping("/movimentacao-diaria/reconstrucao")
+    public ResponseEntity<Integer> reconstruirMovimentacaoDiaria(
+            @RequestHeader(value = CABECALHO_TOKEN_ADMINISTRACAO, required = false) String token) {
+        if (!tokenAdministracaoValido(token)) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        return new ResponseEntity<>(movimentacaoDiariaService.reconstruir(), HttpStatus.OK);
+    }
+
+    private boolean tokenAdministracaoValido(String token) {
+        // Comparação em tempo constante
+        return !tokenAdministracao.isEmpty() && token != null && MessageDigest.isEqual(
+                tokenAdministracao.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /*
+     * Relatórios em texto, CSV (text/csv) ou NDJSON (application/x-ndjson), conforme o cabeçalho
+     * Accept; outros tipos recebem o texto, como antes. A compactação gzip fica a cargo do servidor
+     * (server.compression), quando o cliente envia Accept-Encoding.
+     */
     @GetMapping("/saldo-cliente/{clienteId}")
-    public ResponseEntity<String> relatorioSaldoCliente(@PathVariable Long clienteId) {
+    public ResponseEntity<String> relatorioSaldoCliente(
+            @PathVariable Long clienteId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        FormatoRelatorio formato = FormatoRelatorio.negociar(accept);
         try {
-            String relatorio = relatorioService.gerarRelatorioSaldoCliente(clienteId);
-            return new ResponseEntity<>(relatorio, HttpStatus.OK);
+            String relatorio = exportacaoRelatorioService.exportarSaldoCliente(clienteId, formato);
+            return ResponseEntity.ok().contentType(formato.getMediaType()).varyBy(HttpHeaders.ACCEPT).body(relatorio);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -50,34 +139,62 @@ public class RelatorioController {
     public ResponseEntity<String> relatorioSaldoClientePeriodo(
             @PathVariable Long clienteId,
             @RequestParam String inicio,
-            @RequestParam String fim) {
+            @RequestParam String fim,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        FormatoRelatorio formato = FormatoRelatorio.negociar(accept);
         try {
             LocalDate inicioDate = LocalDate.parse(inicio, formatter);
             LocalDate fimDate = LocalDate.parse(fim, formatter);
-            String relatorio = relatorioService.gerarRelatorioSaldoClientePorPeriodo(clienteId, inicioDate, fimDate);
-            return new ResponseEntity<>(relatorio, HttpStatus.OK);
+            String relatorio = exportacaoRelatorioService.exportarSaldoClientePorPeriodo(clienteId, inicioDate, fimDate, formato);
+            return ResponseEntity.ok().contentType(formato.getMediaType()).varyBy(HttpHeaders.ACCEPT).body(relatorio);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
 
     @GetMapping("/saldo-todos-clientes")
-    public ResponseEntity<String> relatorioSaldoTodosClientes() {
-        String relatorio = relatorioService.gerarRelatorioSaldoTodosClientes();
-        return new ResponseEntity<>(relatorio, HttpStatus.OK);
+    public ResponseEntity<StreamingResponseBody> relatorioSaldoTodosClientes(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        FormatoRelatorio formato = FormatoRelatorio.negociar(accept);
+        // Linhas escritas direto na resposta, bloco a bloco, sem montar o relatório em memória
+        StreamingResponseBody relatorio = saida -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+            exportacaoRelatorioService.exportarSaldoTodosClientes(formato, writer);
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(formato.getMediaType())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(relatorio);
     }
 
     @GetMapping("/receita-xpto-periodo")
-    public ResponseEntity<String> relatorioReceitaXPTO(
+    public ResponseEntity<StreamingResponseBody> relatorioReceitaXPTO(
             @RequestParam String inicio,
-            @RequestParam String fim) {
+            @RequestParam String fim,
+            @RequestParam(defaultValue = "false") boolean paralelo,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        LocalDate inicioDate;
+        LocalDate fimDate;
         try {
-            LocalDate inicioDate = LocalDate.parse(inicio, formatter);
-            LocalDate fimDate = LocalDate.parse(fim, formatter);
-            String relatorio = relatorioService.gerarRelatorioReceitaXPTO(inicioDate, fimDate);
-            return new ResponseEntity<>(relatorio, HttpStatus.OK);
+            inicioDate = LocalDate.parse(inicio, formatter);
+            fimDate = LocalDate.parse(fim, formatter);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
         }
+        if (fimDate.isBefore(inicioDate)) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST); // Período invertido
+        }
+
+        FormatoRelatorio formato = FormatoRelatorio.negociar(accept);
+        StreamingResponseBody relatorio = saida -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+            exportacaoRelatorioService.exportarReceitaXPTO(inicioDate, fimDate, paralelo, formato, writer);
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(formato.getMediaType())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(relatorio);
     }
 }
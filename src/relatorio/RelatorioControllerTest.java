@@ -0,0 +1,42 @@
+package com.xpto.desafio.service;
+
+import com.desafio_dev.desafio_dev.DesafioDevApplication;
+import com.xpto.desafio.controller.RelatorioController;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Reconstrução do consolidado diário: só com o token de administração.
+ */
+@SpringBootTest(classes = DesafioDevApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:relatorio-controller;MODE=Oracle;DB_CLOSE_DELAY=-1",
+        "xpto.administracao.token=token-de-teste"
+})
+@AutoConfigureMockMvc
+public class RelatorioControllerTest {
+
+    private static final String RECONSTRUCAO = "/api/relatorios/movimentacao-diaria/reconstrucao";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void deveRecusarReconstrucaoSemTokenDeAdministracao() throws Exception {
+        mockMvc.perform(post(RECONSTRUCAO))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post(RECONSTRUCAO).header(RelatorioController.CABECALHO_TOKEN_ADMINISTRACAO, "outro-token"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void deveReconstruirComTokenDeAdministracao() throws Exception {
+        mockMvc.perform(post(RECONSTRUCAO).header(RelatorioController.CABECALHO_TOKEN_ADMINISTRACAO, "token-de-teste"))
+                .andExpect(status().isOk());
+    }
+}
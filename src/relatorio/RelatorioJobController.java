@@ -0,0 +1,130 @@
+package com.xpto.desafio.controller;
+
+import com.xpto.desafio.dto.JobRelatorio;
+import com.xpto.desafio.dto.JobRelatorio.TipoRelatorio;
+import com.xpto.desafio.service.RelatorioJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Relatórios assíncronos: a solicitação devolve o job (202) e o resultado é baixado depois de concluído.
+ */
+@RestController
+@RequestMapping("/api/relatorios/jobs")
+public class RelatorioJobController {
+
+    @Autowired
+    private RelatorioJobService relatorioJobService;
+
+    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    @PostMapping
+    public ResponseEntity<JobRelatorio> solicitarRelatorio(
+            @RequestParam TipoRelatorio tipo,
+            @RequestParam(required = false) Long clienteId,
+            @RequestParam(required = false) String inicio,
+            @RequestParam(required = false) String fim) {
+        try {
+            LocalDate inicioDate = inicio != null ? LocalDate.parse(inicio, formatter) : null;
+            LocalDate fimDate = fim != null ? LocalDate.parse(fim, formatter) : null;
+            JobRelatorio job = relatorioJobService.solicitar(tipo, clienteId, inicioDate, fimDate);
+            return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE); // Fila de relatórios cheia
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<JobRelatorio> statusRelatorio(@PathVariable String id) {
+        return relatorioJobService.obterJob(id)
+                .map(job -> new ResponseEntity<>(job, HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Baixa o resultado do job concluído. O arquivo é enviado compactado quando o cliente aceita gzip.
+     * Se o resultado foi removido depois da consulta ao job (TTL), responde 410.
+     */
+    @GetMapping("/{id}/resultado")
+    public ResponseEntity<StreamingResponseBody> baixarResultado(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) throws IOException {
+        JobRelatorio job = relatorioJobService.obterJob(id).orElse(null);
+        if (job == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        if (job.getSituacao() != JobRelatorio.Situacao.CONCLUIDO) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT); // Pendente, em execução ou com erro
+        }
+
+        // Aberto antes da resposta: o job não é removido enquanto o arquivo estiver sendo enviado
+        InputStream arquivo;
+        try {
+            arquivo = relatorioJobService.abrirResultado(job);
+        } catch (NoSuchFileException e) {
+            return new ResponseEntity<>(HttpStatus.GONE);
+        }
+        boolean gzip = aceitaGzip(acceptEncoding);
+        StreamingResponseBody resultado = saida -> {
+            try (InputStream compactado = arquivo;
+                 InputStream entrada = gzip ? compactado : new GZIPInputStream(compactado)) {
+                entrada.transferTo(saida);
+            }
+        };
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8));
+        if (gzip) {
+            resposta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return resposta.body(resultado);
+    }
+
+    /**
+     * Se o Accept-Encoding aceita gzip: "gzip" (ou "x-gzip") com qualidade maior que zero ou, sem
+     * eles, "*" com qualidade maior que zero. Qualidade inválida descarta a codificação.
+     */
+    static boolean aceitaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double curinga = null;
+        for (String codificacao : acceptEncoding.split(",")) {
+            String[] partes = codificacao.split(";");
+            String nome = partes[0].trim().toLowerCase();
+            double qualidade = 1;
+            for (int i = 1; i < partes.length; i++) {
+                String parametro = partes[i].trim().toLowerCase();
+                if (parametro.startsWith("q=")) {
+                    try {
+                        qualidade = Double.parseDouble(parametro.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        qualidade = 0;
+                    }
+                }
+            }
+            if (nome.equals("gzip") || nome.equals("x-gzip")) {
+                gzip = gzip == null ? qualidade : Math.max(gzip, qualidade);
+            } else if (nome.equals("*")) {
+                curinga = qualidade;
+            }
+        }
+        Double aceito = gzip != null ? gzip : curinga;
+        return aceito != null && aceito > 0;
+    }
+}
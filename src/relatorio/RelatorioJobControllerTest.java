@@ -0,0 +1,153 @@
+package com.xpto.desafio.service;
+
+import com.desafio_dev.desafio_dev.DesafioDevApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xpto.desafio.dto.JobRelatorio;
+import com.xpto.desafio.entity.Cliente;
+import com.xpto.desafio.repository.ClienteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Download do resultado dos jobs: compactado só quando o Accept-Encoding aceita gzip com
+ * qualidade maior que zero, e 410 quando o resultado já foi removido.
+ */
+@SpringBootTest(classes = DesafioDevApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:relatorio-job-controller;MODE=Oracle;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+public class RelatorioJobControllerTest {
+
+    private static final AtomicInteger clientesCriados = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RelatorioJobService relatorioJobService;
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        // CPF único por teste (mesmo banco em memória para toda a classe)
+        String cpf = String.format("999.111.%03d-33", clientesCriados.incrementAndGet());
+        cliente = clienteRepository.save(new Cliente("Cliente Job", "PF", cpf, null, "11955554444"));
+    }
+
+    @Test
+    void deveBaixarCompactadoOuNaoConformeAcceptEncoding() throws Exception {
+        String id = solicitarEAguardar();
+        String esperado = transactionTemplate.execute(status -> relatorioService.gerarRelatorioSaldoCliente(cliente.getId()));
+
+        String[] comGzip = {"gzip", "deflate, gzip;q=0.5", "GZIP ; Q=1", "identity, *;q=0.1", "x-gzip"};
+        for (String acceptEncoding : comGzip) {
+            MockHttpServletResponse resposta = baixar(id, acceptEncoding);
+            assertEquals("gzip", resposta.getHeader(HttpHeaders.CONTENT_ENCODING), acceptEncoding);
+            assertEquals(esperado, descompactar(resposta.getContentAsByteArray()), acceptEncoding);
+        }
+
+        String[] semGzip = {null, "identity", "gzip;q=0", "gzip;q=0.000, deflate", "*;q=0.5, gzip;q=0", "*;q=0",
+                "gzip;q=abc", "br"};
+        for (String acceptEncoding : semGzip) {
+            MockHttpServletResponse resposta = baixar(id, acceptEncoding);
+            assertNull(resposta.getHeader(HttpHeaders.CONTENT_ENCODING), acceptEncoding);
+            assertEquals(esperado, resposta.getContentAsString(StandardCharsets.UTF_8), acceptEncoding);
+        }
+    }
+
+    @Test
+    void deveResponderGoneQuandoResultadoJaFoiRemovido() throws Exception {
+        String id = solicitarEAguardar();
+        JobRelatorio job = relatorioJobService.obterJob(id).orElseThrow();
+        Files.delete(relatorioJobService.obterArquivoResultado(job));
+
+        mockMvc.perform(get("/api/relatorios/jobs/" + id + "/resultado"))
+                .andExpect(status().isGone());
+    }
+
+    @Test
+    void deveResponderNotFoundParaJobInexistente() throws Exception {
+        mockMvc.perform(get("/api/relatorios/jobs/nao-existe/resultado"))
+                .andExpect(status().isNotFound());
+    }
+
+    private String solicitarEAguardar() throws Exception {
+        String corpo = mockMvc.perform(post("/api/relatorios/jobs")
+                        .param("tipo", "SALDO_CLIENTE")
+                        .param("clienteId", cliente.getId().toString()))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        String id = objectMapper.readTree(corpo).get("id").asText();
+
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (true) {
+            JsonNode job = objectMapper.readTree(mockMvc.perform(get("/api/relatorios/jobs/" + id))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            if ("CONCLUIDO".equals(job.get("situacao").asText())) {
+                return id;
+            }
+            assertNotEquals("ERRO", job.get("situacao").asText());
+            assertTrue(System.nanoTime() < limite, "job não terminou");
+            Thread.sleep(10);
+        }
+    }
+
+    private MockHttpServletResponse baixar(String id, String acceptEncoding) throws Exception {
+        MockHttpServletRequestBuilder requisicao = get("/api/relatorios/jobs/" + id + "/resultado");
+        if (acceptEncoding != null) {
+            requisicao.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        MvcResult resultado = mockMvc.perform(requisicao)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+    }
+
+    private static String descompactar(byte[] conteudo) throws IOException {
+        try (InputStream entrada = new GZIPInputStream(new ByteArrayInputStream(conteudo))) {
+            return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.xpto.desafio.service;
+
+import com.xpto.desafio.config.FabricaThreads;
+import com.xpto.desafio.dto.JobRelatorio;
+import com.xpto.desafio.dto.JobRelatorio.TipoRelatorio;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Geração assíncrona de relatórios: cada solicitação vira um job executado em um pool limitado,
+ * com fila por prioridade do tipo de relatório. O resultado é gravado compactado (gzip) em disco
+ * e removido após o TTL. Solicitações com os mesmos parâmetros reaproveitam o job existente.
+ * <p>
+ * Um job com download em andamento só é removido depois que o download termina. Arquivos de
+ * resultado sem job nesta instância (gerados antes de um reinício) são removidos pela data de
+ * modificação, também após o TTL.
+ */
+@Service
+public class RelatorioJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(RelatorioJobService.class);
+
+    private static final String ARQUIVO_RESULTADO = ".txt.gz";
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private FabricaThreads fabricaThreads;
+
+    @Value("${xpto.relatorios.jobs.threads:2}")
+    private int threads;
+
+    @Value("${xpto.relatorios.jobs.limite-fila:100}")
+    private int limiteFila;
+
+    @Value("${xpto.relatorios.jobs.ttl:PT1H}")
+    private Duration ttl;
+
+    @Value("${xpto.relatorios.jobs.diretorio:${java.io.tmpdir}/xpto-relatorios}")
+    private String diretorio;
+
+    private final Map<String, JobRelatorio> jobs = new ConcurrentHashMap<>();
+    private final Map<String, JobRelatorio> jobsPorChave = new ConcurrentHashMap<>();
+    private final Map<String, Integer> downloadsEmAndamento = new ConcurrentHashMap<>();
+    private final AtomicLong sequencia = new AtomicLong();
+
+    private Path diretorioResultados;
+    private Semaphore vagasFila;
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void iniciar() throws IOException {
+        diretorioResultados = Files.createDirectories(Path.of(diretorio));
+        vagasFila = new Semaphore(limiteFila);
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(),
+                fabricaThreads.criar("relatorio-job-"));
+    }
+
+    /**
+     * Solicita o relatório. Retorna o job existente se houver um com os mesmos parâmetros
+     * pendente, em execução ou concluído dentro do TTL.
+     *
+     * @throws IllegalArgumentException se faltar o cliente ou o período exigido pelo tipo, ou se o período for invertido
+     * @throws IllegalStateException se a fila de relatórios estiver cheia
+     */
+    public JobRelatorio solicitar(TipoRelatorio tipo, Long clienteId, LocalDate inicio, LocalDate fim) {
+        if ((tipo.isPorCliente() && clienteId == null) || (tipo.isPorPeriodo() && (inicio == null || fim == null))) {
+            throw new IllegalArgumentException("Parâmetros obrigatórios ausentes para o relatório " + tipo + ".");
+        }
+        if (tipo.isPorPeriodo() && fim.isBefore(inicio)) {
+            throw new IllegalArgumentException("Período inválido: fim anterior ao início.");
+        }
+        // Parâmetros que o tipo não usa são descartados para não diferenciar solicitações iguais
+        Long cliente = tipo.isPorCliente() ? clienteId : null;
+        LocalDate de = tipo.isPorPeriodo() ? inicio : null;
+        LocalDate ate = tipo.isPorPeriodo() ? fim : null;
+
+        String chave = JobRelatorio.chave(tipo, cliente, de, ate);
+        JobRelatorio[] criado = new JobRelatorio[1];
+        JobRelatorio job = jobsPorChave.compute(chave, (k, atual) -> {
+            if (atual != null && atual.isReaproveitavel(LocalDateTime.now())) {
+                return atual;
+            }
+            if (!vagasFila.tryAcquire()) {
+                throw new IllegalStateException("Fila de relatórios cheia.");
+            }
+            criado[0] = new JobRelatorio(UUID.randomUUID().toString(), tipo, cliente, de, ate);
+            return criado[0];
+        });
+
+        if (criado[0] != null) {
+            jobs.put(job.getId(), job);
+            try {
+                executor.execute(new TarefaRelatorio(job, sequencia.incrementAndGet()));
+            } catch (RejectedExecutionException e) {
+                vagasFila.release();
+                job.falhar("Serviço de relatórios encerrado.", ttl);
+            }
+        }
+        return job;
+    }
+
+    /**
+     * Situação do job (vazio se não existir ou se já expirou).
+     */
+    public Optional<JobRelatorio> obterJob(String id) {
+        return Optional.ofNullable(jobs.get(id)).filter(job -> !job.isExpirado(LocalDateTime.now()));
+    }
+
+    /**
+     * Arquivo compactado (gzip) com o resultado do job concluído.
+     */
+    public Path obterArquivoResultado(JobRelatorio job) {
+        return diretorioResultados.resolve(job.getId() + ARQUIVO_RESULTADO);
+    }
+
+    /**
+     * Abre o resultado compactado (gzip) do job para download. O job e o arquivo não são removidos
+     * até o fluxo retornado ser fechado.
+     *
+     * @throws NoSuchFileException se o job ou o resultado já foi removido
+     */
+    public InputStream abrirResultado(JobRelatorio job) throws IOException {
+        // Registrado sob o mapa de jobs: a remoção do job expirado não ocorre entre a verificação e o registro
+        if (jobs.computeIfPresent(job.getId(), (id, atual) -> {
+            downloadsEmAndamento.merge(id, 1, Integer::sum);
+            return atual;
+        }) == null) {
+            throw new NoSuchFileException(obterArquivoResultado(job).toString());
+        }
+        try {
+            return new ResultadoEmDownload(Files.newInputStream(obterArquivoResultado(job)), job.getId());
+        } catch (IOException e) {
+            encerrarDownload(job.getId());
+            throw e;
+        }
+    }
+
+    /**
+     * Remove os jobs expirados e seus arquivos de resultado, exceto os com download em andamento,
+     * e os arquivos de resultado sem job modificados há mais que o TTL.
+     */
+    @Scheduled(fixedDelayString = "${xpto.relatorios.jobs.intervalo-limpeza:PT5M}")
+    public void removerExpirados() {
+        LocalDateTime agora = LocalDateTime.now();
+        for (JobRelatorio job : jobs.values()) {
+            if (job.isExpirado(agora) && jobs.computeIfPresent(job.getId(), (id, atual) ->
+                    downloadsEmAndamento.containsKey(id) ? atual : null) == null) {
+                jobsPorChave.remove(JobRelatorio.chave(job.getTipo(), job.getClienteId(), job.getInicio(), job.getFim()), job);
+                removerArquivo(job);
+            }
+        }
+        removerArquivosSemJob(Instant.now().minus(ttl));
+    }
+
+    private void removerArquivosSemJob(Instant limite) {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorioResultados, "*" + ARQUIVO_RESULTADO)) {
+            for (Path arquivo : arquivos) {
+                String nome = arquivo.getFileName().toString();
+                if (jobs.containsKey(nome.substring(0, nome.length() - ARQUIVO_RESULTADO.length()))) {
+                    continue;
+                }
+                try {
+                    if (Files.getLastModifiedTime(arquivo).compareTo(FileTime.from(limite)) < 0) {
+                        Files.deleteIfExists(arquivo);
+                    }
+                } catch (NoSuchFileException e) {
+                    // Removido por outra instância que compartilha o diretório
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Não foi possível remover os resultados antigos de {}", diretorioResultados, e);
+        }
+    }
+
+    private void encerrarDownload(String id) {
+        downloadsEmAndamento.computeIfPresent(id, (k, quantidade) -> quantidade > 1 ? quantidade - 1 : null);
+    }
+
+    private void executar(JobRelatorio job) {
+        job.iniciar();
+        Path arquivo = obterArquivoResultado(job);
+        try {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(arquivo)), StandardCharsets.UTF_8))) {
+                escrever(job, writer);
+            }
+            job.concluir(ttl);
+        } catch (Exception e) {
+            log.error("Erro ao gerar relatório {} ({})", job.getId(), job.getTipo(), e);
+            removerArquivo(job);
+            job.falhar(e.getMessage(), ttl);
+        }
+    }
+
+    private void escrever(JobRelatorio job, Writer writer) throws IOException {
+        switch (job.getTipo()) {
+            // Relatórios de um cliente percorrem coleções lazy: executados em transação
+            case SALDO_CLIENTE -> {
+                String relatorio = transactionTemplate.execute(status ->
+                        relatorioService.gerarRelatorioSaldoCliente(job.getClienteId()));
+                writer.write(relatorio);
+            }
+            case SALDO_CLIENTE_PERIODO -> {
+                String relatorio = transactionTemplate.execute(status ->
+                        relatorioService.gerarRelatorioSaldoClientePorPeriodo(job.getClienteId(), job.getInicio(), job.getFim()));
+                writer.write(relatorio);
+            }
+            case RECEITA_XPTO -> relatorioService.escreverRelatorioReceitaXPTO(job.getInicio(), job.getFim(), false, writer);
+            case SALDO_TODOS_CLIENTES -> relatorioService.escreverRelatorioSaldoTodosClientes(writer);
+        }
+    }
+
+    private void removerArquivo(JobRelatorio job) {
+        try {
+            Files.deleteIfExists(obterArquivoResultado(job));
+        } catch (IOException e) {
+            log.warn("Não foi possível remover o resultado do relatório {}", job.getId(), e);
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Fluxo do resultado em download: ao ser fechado (uma única vez), libera o job para remoção.
+     */
+    private class ResultadoEmDownload extends FilterInputStream {
+
+        private final String jobId;
+        private boolean fechado;
+
+        ResultadoEmDownload(InputStream entrada, String jobId) {
+            super(entrada);
+            this.jobId = jobId;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (fechado) {
+                return;
+            }
+            fechado = true;
+            try {
+                super.close();
+            } finally {
+                encerrarDownload(jobId);
+            }
+        }
+    }
+
+    /**
+     * Tarefa na fila do pool: ordenada pela prioridade do tipo e, no mesmo tipo, por ordem de chegada.
+     */
+    private class TarefaRelatorio implements Runnable, Comparable<TarefaRelatorio> {
+
+        private final JobRelatorio job;
+        private final long ordem;
+
+        TarefaRelatorio(JobRelatorio job, long ordem) {
+            this.job = job;
+            this.ordem = ordem;
+        }
+
+        @Override
+        public void run() {
+            vagasFila.release();
+            executar(job);
+        }
+
+        @Override
+        public int compareTo(TarefaRelatorio outra) {
+            int prioridade = Integer.compare(job.getTipo().getPrioridade(), outra.job.getTipo().getPrioridade());
+            return prioridade != 0 ? prioridade : Long.compare(ordem, outra.ordem);
+        }
+    }
+}
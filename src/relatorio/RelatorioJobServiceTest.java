@@ -0,0 +1,233 @@
+package com.xpto.desafio.service;
+
+import com.xpto.desafio.config.FabricaThreads;
+import com.xpto.desafio.dto.JobRelatorio;
+import com.xpto.desafio.dto.JobRelatorio.TipoRelatorio;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+
+/**
+ * Jobs de relatório: prioridade da fila, reaproveitamento por parâmetros, limite da fila, TTL,
+ * downloads em andamento e arquivos de resultado sem job.
+ */
+@ExtendWith(MockitoExtension.class)
+public class RelatorioJobServiceTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2024, 3, 1);
+    private static final LocalDate FIM = LocalDate.of(2024, 3, 31);
+
+    @Mock
+    private RelatorioService relatorioService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private FabricaThreads fabricaThreads = new FabricaThreads();
+
+    @InjectMocks
+    private RelatorioJobService relatorioJobService;
+
+    @TempDir
+    Path diretorio;
+
+    private final List<TipoRelatorio> executados = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ReflectionTestUtils.setField(relatorioJobService, "threads", 1);
+        ReflectionTestUtils.setField(relatorioJobService, "limiteFila", 2);
+        ReflectionTestUtils.setField(relatorioJobService, "ttl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(relatorioJobService, "diretorio", diretorio.toString());
+        relatorioJobService.iniciar();
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocacao ->
+                invocacao.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(relatorioService.gerarRelatorioSaldoCliente(anyLong())).thenAnswer(invocacao -> {
+            executados.add(TipoRelatorio.SALDO_CLIENTE);
+            return "Relatório do cliente " + invocacao.getArgument(0) + "\n";
+        });
+        lenient().when(relatorioService.gerarRelatorioSaldoClientePorPeriodo(anyLong(), any(), any())).thenAnswer(invocacao -> {
+            executados.add(TipoRelatorio.SALDO_CLIENTE_PERIODO);
+            return "Relatório do cliente por período\n";
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        relatorioJobService.encerrar();
+    }
+
+    @Test
+    void deveExecutarPorPrioridadeERecusarComFilaCheia() throws Exception {
+        CountDownLatch iniciado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        doAnswer(invocacao -> {
+            executados.add(TipoRelatorio.SALDO_TODOS_CLIENTES);
+            iniciado.countDown();
+            liberar.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(relatorioService).escreverRelatorioSaldoTodosClientes(any(Writer.class));
+        doAnswer(invocacao -> {
+            executados.add(TipoRelatorio.RECEITA_XPTO);
+            return null;
+        }).when(relatorioService).escreverRelatorioReceitaXPTO(any(), any(), anyBoolean(), any(Writer.class));
+
+        // A única thread fica ocupada; os seguintes aguardam na fila
+        JobRelatorio todos = relatorioJobService.solicitar(TipoRelatorio.SALDO_TODOS_CLIENTES, null, null, null);
+        assertTrue(iniciado.await(10, TimeUnit.SECONDS));
+        JobRelatorio receita = relatorioJobService.solicitar(TipoRelatorio.RECEITA_XPTO, null, INICIO, FIM);
+        JobRelatorio cliente = relatorioJobService.solicitar(TipoRelatorio.SALDO_CLIENTE, 1L, null, null);
+
+        assertThrows(IllegalStateException.class,
+                () -> relatorioJobService.solicitar(TipoRelatorio.SALDO_CLIENTE_PERIODO, 1L, INICIO, FIM));
+        // Solicitação igual a um job na fila não ocupa vaga
+        assertSame(receita, relatorioJobService.solicitar(TipoRelatorio.RECEITA_XPTO, null, INICIO, FIM));
+
+        liberar.countDown();
+        aguardar(todos);
+        aguardar(receita);
+        aguardar(cliente);
+
+        assertEquals(List.of(TipoRelatorio.SALDO_TODOS_CLIENTES, TipoRelatorio.SALDO_CLIENTE, TipoRelatorio.RECEITA_XPTO),
+                executados);
+        // Vagas devolvidas quando os jobs saem da fila
+        aguardar(relatorioJobService.solicitar(TipoRelatorio.SALDO_CLIENTE_PERIODO, 1L, INICIO, FIM));
+    }
+
+    @Test
+    void deveReaproveitarJobComMesmosParametros() throws Exception {
+        JobRelatorio job = relatorioJobService.solicitar(TipoRelatorio.SALDO_CLIENTE, 1L, null, null);
+        aguardar(job);
+
+        // Período não faz parte do relatório de um cliente: mesma chave
+        assertSame(job, relatorioJobService.solicitar(TipoRelatorio.SALDO_CLIENTE, 1L, INICIO, FIM));
+        assertNotSame(job, relatorioJobService.solicitar(TipoRelatorio.SALDO_CLIENTE, 2L, null, null));
+        assertEquals(List.of(TipoRelatorio.SALDO_CLIENTE), executados.subList(0, 1));
+        assertEquals("Relatório do cliente 1\n", ler(relatorioJobService.abrirResultado(job)));
+    }
+
+    @Test
+    void deveCriarNovoJobAposErro() throws Exception {
+        doAnswer(invocacao -> {
+            throw new IllegalStateException("falha de teste");
+        }).when(relatorioService).escreverRelatorioSaldoTodosClientes(any(Writer.class));
+
+        JobRelatorio job = relatorioJobService.solicitar(TipoRelatorio.SALDO_TODOS_CLIENTES, null, null, null);
+        aguardar(job);
+
+        assertEquals(JobRelatorio.Situacao.ERRO, job.getSituacao());
+        assertFalse(Files.exists(relatorioJobService.obterArquivoResultado(job)));
+        assertNotSame(job, relatorioJobService.solicitar(TipoRelatorio.SALDO_TODOS_CLIENTES, null, null, null));
+    }
+
+    @Test
+    void deveRemoverJobEResultadoAposTTL() throws Exception {
+        ReflectionTestUtils.setField(relatorioJobService, "ttl", Duration.ZERO);
+        JobRelatorio job = relatorioJobService.solicitar(TipoRelatorio.SALDO_CLIENTE, 1L, null, null);
+        aguardar(job);
+        Path arquivo = relatorioJobService.obterArquivoResultado(job);
+        Thread.sleep(5);
+
+        assertTrue(relatorioJobService.obterJob(job.getId()).isEmpty());
+        assertTrue(Files.exists(arquivo));
+        relatorioJobService.removerExpirados();
+
+        assertFalse(Files.exists(arquivo));
+        assertThrows(NoSuchFileException.class, () -> relatorioJobService.abrirResultado(job));
+        assertNotSame(job, relatorioJobService.solicitar(TipoRelatorio.SALDO_CLIENTE, 1L, null, null));
+    }
+
+    @Test
+    void deveManterResultadoComDownloadEmAndamento() throws Exception {
+        ReflectionTestUtils.setField(relatorioJobService, "ttl", Duration.ZERO);
+        JobRelatorio job = relatorioJobService.solicitar(TipoRelatorio.SALDO_CLIENTE, 1L, null, null);
+        aguardar(job);
+        Path arquivo = relatorioJobService.obterArquivoResultado(job);
+        InputStream primeiro = relatorioJobService.abrirResultado(job);
+        InputStream segundo = relatorioJobService.abrirResultado(job);
+        Thread.sleep(5);
+
+        relatorioJobService.removerExpirados();
+        assertTrue(Files.exists(arquivo));
+
+        // Fechar duas vezes o mesmo fluxo não libera o outro download
+        primeiro.close();
+        primeiro.close();
+        relatorioJobService.removerExpirados();
+        assertEquals("Relatório do cliente 1\n", ler(segundo));
+
+        relatorioJobService.removerExpirados();
+        assertFalse(Files.exists(arquivo));
+    }
+
+    @Test
+    void deveRemoverResultadosSemJobPelaDataDeModificacao() throws Exception {
+        JobRelatorio job = relatorioJobService.solicitar(TipoRelatorio.SALDO_CLIENTE, 1L, null, null);
+        aguardar(job);
+        Instant antes = Instant.now().minus(Duration.ofHours(2));
+        Path doJob = relatorioJobService.obterArquivoResultado(job);
+        Files.setLastModifiedTime(doJob, FileTime.from(antes));
+        // Resultados de antes de um reinício
+        Path antigo = Files.write(diretorio.resolve("antigo.txt.gz"), new byte[0]);
+        Files.setLastModifiedTime(antigo, FileTime.from(antes));
+        Path recente = Files.write(diretorio.resolve("recente.txt.gz"), new byte[0]);
+        Path outro = Files.write(diretorio.resolve("outro.txt"), new byte[0]);
+        Files.setLastModifiedTime(outro, FileTime.from(antes));
+
+        relatorioJobService.removerExpirados();
+
+        assertFalse(Files.exists(antigo));
+        assertTrue(Files.exists(recente));
+        assertTrue(Files.exists(doJob));
+        assertTrue(Files.exists(outro));
+    }
+
+    private static void aguardar(JobRelatorio job) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (job.getSituacao() != JobRelatorio.Situacao.CONCLUIDO && job.getSituacao() != JobRelatorio.Situacao.ERRO) {
+            assertTrue(System.nanoTime() < limite, "job não terminou: " + job.getSituacao());
+            Thread.sleep(5);
+        }
+    }
+
+    private static String ler(InputStream resultado) throws IOException {
+        try (InputStream entrada = new GZIPInputStream(resultado)) {
+            return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
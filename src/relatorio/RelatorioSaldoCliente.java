@@ -0,0 +1,50 @@
+package com.xpto.desafio.dto;
+
+import com.xpto.desafio.entity.Endereco;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Dados do Relatório de Saldo do Cliente (geral ou por período), montados uma vez e escritos
+ * em texto, CSV ou NDJSON. No relatório geral {@code periodoInicio} e {@code periodoFim} são nulos;
+ * sem endereço cadastrado, os campos de endereço também.
+ */
+public record RelatorioSaldoCliente(
+        Long clienteId,
+        String nome,
+        LocalDate dataCadastro,
+        LocalDate periodoInicio,
+        LocalDate periodoFim,
+        String logradouro,
+        String numero,
+        String bairro,
+        String cidade,
+        String uf,
+        String cep,
+        long qtdCreditos,
+        long qtdDebitos,
+        long totalMovimentacoes,
+        BigDecimal valorPago,
+        BigDecimal saldoInicial,
+        BigDecimal saldoAtual) {
+
+    public static RelatorioSaldoCliente de(Long clienteId, String nome, LocalDate dataCadastro,
+                                           LocalDate periodoInicio, LocalDate periodoFim, Endereco endereco,
+                                           long qtdCreditos, long qtdDebitos, BigDecimal valorPago,
+                                           BigDecimal saldoInicial, BigDecimal saldoAtual) {
+        return new RelatorioSaldoCliente(clienteId, nome, dataCadastro, periodoInicio, periodoFim,
+                endereco != null ? endereco.getLogradouro() : null,
+                endereco != null ? endereco.getNumero() : null,
+                endereco != null ? endereco.getBairro() : null,
+                endereco != null ? endereco.getCidade() : null,
+                endereco != null ? endereco.getUf() : null,
+                endereco != null ? endereco.getCep() : null,
+                qtdCreditos, qtdDebitos, qtdCreditos + qtdDebitos, valorPago, saldoInicial, saldoAtual);
+    }
+
+    public boolean possuiEndereco() {
+        // Logradouro é obrigatório no endereço cadastrado
+        return logradouro != null;
+    }
+}
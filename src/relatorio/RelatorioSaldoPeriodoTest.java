@@ -0,0 +1,147 @@
+package com.xpto.desafio.service;
+
+import com.desafio_dev.desafio_dev.DesafioDevApplication;
+import com.xpto.desafio.dto.MovimentacaoLoteItem;
+import com.xpto.desafio.entity.Cliente;
+import com.xpto.desafio.entity.Conta;
+import com.xpto.desafio.entity.Movimentacao;
+import com.xpto.desafio.repository.ClienteRepository;
+import com.xpto.desafio.repository.ContaRepository;
+import com.xpto.desafio.repository.MovimentacaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Relatório de saldo por período: os números impressos precisam ser os mesmos da soma em
+ * BigDecimal das movimentações do cliente, como era calculado antes do consolidado diário.
+ */
+@SpringBootTest(classes = DesafioDevApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:relatorio-saldo-periodo;MODE=Oracle;DB_CLOSE_DELAY=-1"
+})
+public class RelatorioSaldoPeriodoTest {
+
+    private static final AtomicInteger clientesCriados = new AtomicInteger();
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private MovimentacaoService movimentacaoService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private MovimentacaoRepository movimentacaoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Cliente cliente;
+    private final List<Conta> contas = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // CPF único por teste (mesmo banco em memória para toda a classe)
+        String cpf = String.format("777.888.%03d-11", clientesCriados.incrementAndGet());
+        cliente = clienteRepository.save(new Cliente("Cliente Relatório Período", "PF", cpf, null, "11933332222"));
+        contas.clear();
+        contas.add(contaRepository.save(new Conta(cliente, "0001", "0001", "Banco XPTO", new BigDecimal("100.00"))));
+        contas.add(contaRepository.save(new Conta(cliente, "0001", "0002", "Banco XPTO", new BigDecimal("0.00"))));
+        contas.add(contaRepository.save(new Conta(cliente, "0001", "0003", "Banco XPTO", new BigDecimal("2500.55"))));
+
+        Conta principal = contas.get(0);
+        movimentar(principal, "CREDITO", "50.10", LocalDateTime.of(2024, 1, 10, 9, 0));
+        movimentar(principal, "DEBITO", "20.05", LocalDateTime.of(2024, 2, 29, 23, 59, 59));
+        movimentar(principal, "CREDITO", "10.00", LocalDateTime.of(2024, 3, 1, 0, 0));
+        movimentar(principal, "DEBITO", "0.01", LocalDateTime.of(2024, 3, 15, 12, 30));
+        movimentar(principal, "CREDITO", "7.77", LocalDateTime.of(2024, 3, 31, 23, 59, 59));
+        movimentar(principal, "DEBITO", "999.99", LocalDateTime.of(2024, 4, 1, 0, 0));
+
+        Conta secundaria = contas.get(1);
+        movimentar(secundaria, "CREDITO", "1000.00", LocalDateTime.of(2024, 3, 1, 0, 0));
+        movimentar(secundaria, "DEBITO", "333.33", LocalDateTime.of(2024, 3, 1, 0, 0));
+        movimentar(secundaria, "DEBITO", "333.33", LocalDateTime.of(2024, 3, 20, 18, 0));
+
+        // Só movimentações anteriores ao período
+        Conta antiga = contas.get(2);
+        movimentar(antiga, "DEBITO", "500.55", LocalDateTime.of(2023, 12, 31, 23, 59, 59));
+        movimentar(antiga, "CREDITO", "0.45", LocalDateTime.of(2024, 2, 1, 0, 0));
+    }
+
+    @Test
+    void deveImprimirMesmosNumerosDaSomaDasMovimentacoes() {
+        LocalDate[][] periodos = {
+                {LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31)},
+                {LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 1)},
+                {LocalDate.of(2024, 3, 15), LocalDate.of(2024, 4, 1)},
+                {LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)},
+                {LocalDate.of(2023, 6, 1), LocalDate.of(2023, 6, 30)},
+                {LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31)} // já com ponto de controle
+        };
+
+        for (LocalDate[] periodo : periodos) {
+            String relatorio = transactionTemplate.execute(status ->
+                    relatorioService.gerarRelatorioSaldoClientePorPeriodo(cliente.getId(), periodo[0], periodo[1]));
+            for (String linha : linhasEsperadas(periodo[0], periodo[1])) {
+                assertTrue(relatorio.contains(linha), () -> "esperado: " + linha + "\n" + relatorio);
+            }
+        }
+    }
+
+    /**
+     * Soma em BigDecimal de todas as movimentações das contas do cliente.
+     */
+    private List<String> linhasEsperadas(LocalDate inicio, LocalDate fim) {
+        LocalDateTime inicioPeriodo = inicio.atStartOfDay();
+        LocalDateTime fimPeriodo = fim.plusDays(1).atStartOfDay();
+        BigDecimal saldoInicial = BigDecimal.ZERO;
+        BigDecimal variacaoNoPeriodo = BigDecimal.ZERO;
+        long creditos = 0;
+        long debitos = 0;
+        for (Conta conta : contas) {
+            saldoInicial = saldoInicial.add(conta.getSaldoInicial());
+            for (Movimentacao movimentacao : movimentacaoRepository.findByContaId(conta.getId())) {
+                boolean credito = "CREDITO".equals(movimentacao.getTipo());
+                BigDecimal valor = credito ? movimentacao.getValor() : movimentacao.getValor().negate();
+                LocalDateTime data = movimentacao.getDataMovimentacao();
+                if (data.isBefore(inicioPeriodo)) {
+                    saldoInicial = saldoInicial.add(valor);
+                } else if (data.isBefore(fimPeriodo)) {
+                    variacaoNoPeriodo = variacaoNoPeriodo.add(valor);
+                    if (credito) {
+                        creditos++;
+                    } else {
+                        debitos++;
+                    }
+                }
+            }
+        }
+        return List.of(
+                String.format("Movimentações de crédito: %d\n", creditos),
+                String.format("Movimentações de débito: %d\n", debitos),
+                String.format("Total de movimentações: %d\n", creditos + debitos),
+                String.format("Saldo inicial (no período): R$ %.2f\n", saldoInicial),
+                String.format("Saldo atual (no período): R$ %.2f\n", saldoInicial.add(variacaoNoPeriodo)));
+    }
+
+    private void movimentar(Conta conta, String tipo, String valor, LocalDateTime data) {
+        movimentacaoService.receberMovimentacoesEmLote(List.of(
+                new MovimentacaoLoteItem(conta.getId(), tipo, new BigDecimal(valor), "Teste", data, null)).iterator());
+    }
+}
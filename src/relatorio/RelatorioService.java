@@ -1,29 +1,69 @@
 package com.xpto.desafio.service;
 
+import com.xpto.desafio.dto.ReceitaXPTOCliente;
+import com.xpto.desafio.dto.RelatorioSaldoCliente;
+import com.xpto.desafio.dto.SaldoClienteResumo;
 import com.xpto.desafio.entity.Cliente;
 import com.xpto.desafio.entity.Conta;
-import com.xpto.desafio.entity.Movimentacao;
+import com.xpto.desafio.entity.Endereco;
 import com.xpto.desafio.entity.ReceitaXPTO;
 import com.xpto.desafio.repository.ClienteRepository;
 import com.xpto.desafio.repository.ContaRepository;
-import com.xpto.desafio.repository.MovimentacaoRepository;
+import com.xpto.desafio.repository.MovimentacaoDiariaRepository;
 import com.xpto.desafio.repository.ReceitaXPTORepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
 
 @Service
 public class RelatorioService {
 
+    private static final int TAMANHO_BLOCO_CLIENTES = 500;
+    private static final int TAMANHO_BUFFER_RELATORIO = 8192;
+
+    // Linhas dos relatórios, compiladas uma única vez (mesmo texto do String.format)
+    private static final ModeloRelatorio LINHA_PERIODO = ModeloRelatorio.compilar("Período: %s a %s\n");
+    private static final ModeloRelatorio LINHA_CLIENTE = ModeloRelatorio.compilar("Cliente: %s - Cliente desde: %s\n");
+    private static final ModeloRelatorio LINHA_ENDERECO = ModeloRelatorio.compilar("Endereço: %s, %s, %s, %s, %s, %s\n");
+    private static final ModeloRelatorio LINHA_CREDITOS = ModeloRelatorio.compilar("Movimentações de crédito: %d\n");
+    private static final ModeloRelatorio LINHA_DEBITOS = ModeloRelatorio.compilar("Movimentações de débito: %d\n");
+    private static final ModeloRelatorio LINHA_TOTAL_MOVIMENTACOES = ModeloRelatorio.compilar("Total de movimentações: %d\n");
+    private static final ModeloRelatorio LINHA_VALOR_PAGO = ModeloRelatorio.compilar("Valor pago pelas movimentações: R$ %.2f\n");
+    private static final ModeloRelatorio LINHA_SALDO_INICIAL = ModeloRelatorio.compilar("Saldo inicial: R$ %.2f\n");
+    private static final ModeloRelatorio LINHA_SALDO_ATUAL = ModeloRelatorio.compilar("Saldo atual: R$ %.2f\n");
+    private static final ModeloRelatorio LINHA_VALOR_PAGO_PERIODO =
+            ModeloRelatorio.compilar("Valor pago pelas movimentações (no período): R$ %.2f\n");
+    private static final ModeloRelatorio LINHA_SALDO_INICIAL_PERIODO = ModeloRelatorio.compilar("Saldo inicial (no período): R$ %.2f\n");
+    private static final ModeloRelatorio LINHA_SALDO_ATUAL_PERIODO = ModeloRelatorio.compilar("Saldo atual (no período): R$ %.2f\n");
+    private static final ModeloRelatorio LINHA_SALDO_TODOS_CLIENTES =
+            ModeloRelatorio.compilar("Cliente: %s - Cliente desde: %s - Saldo em %s: R$ %.2f\n");
+    private static final ModeloRelatorio LINHA_RECEITA_CLIENTE =
+            ModeloRelatorio.compilar("Cliente %s - Quantidade de movimentações: %d - Valor das movimentações: R$ %.2f\n");
+    private static final ModeloRelatorio LINHA_TOTAL_RECEITAS = ModeloRelatorio.compilar("Total de receitas: R$ %.2f\n");
+
     @Autowired
     private ClienteRepository clienteRepository;
 
@@ -31,175 +71,206 @@ public class RelatorioService {
     private ContaRepository contaRepository;
 
     @Autowired
-    private MovimentacaoRepository movimentacaoRepository;
+    private MovimentacaoDiariaRepository movimentacaoDiariaRepository;
 
     @Autowired
     private ReceitaXPTORepository receitaXPTORepository;
 
+    @Autowired
+    private MovimentacaoDiariaService movimentacaoDiariaService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${xpto.relatorios.paralelismo:4}")
+    private int paralelismo;
+
+    // Pool fork/join da totalização mensal, compartilhado pelas requisições
+    private ForkJoinPool poolTotalizacao;
+
+    @PostConstruct
+    public void iniciar() {
+        poolTotalizacao = new ForkJoinPool(paralelismo);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        poolTotalizacao.shutdownNow();
+    }
+
     /**
      * Calcula a receita da XPTO para um cliente em um período de 30 dias.
      * Regra:
      * Até 10 movimentações: R$ 1,00 por movimentação
      * De 11 a 20 movimentações: R$ 0,75 por movimentação
      * Acima de 20 movimentações: R$ 0,50 por movimentação
+     *
+     * Há uma única receita por cliente e período: calcular de novo um período já registrado atualiza a receita.
      */
-    @Transactional
     public ReceitaXPTO calcularReceitaXPTO(Long clienteId, LocalDate periodoInicio, LocalDate periodoFim) {
+        try {
+            return transactionTemplate.execute(status -> registrarReceitaXPTO(clienteId, periodoInicio, periodoFim, false));
+        } catch (DataIntegrityViolationException | ConstraintViolationException e) {
+            // Período já registrado (recálculo ou requisição concorrente): a chave única rejeitou a inclusão
+            // e a receita existente é atualizada em nova transação
+            return transactionTemplate.execute(status -> registrarReceitaXPTO(clienteId, periodoInicio, periodoFim, true));
+        }
+    }
+
+    private ReceitaXPTO registrarReceitaXPTO(Long clienteId, LocalDate periodoInicio, LocalDate periodoFim,
+                                             boolean existente) {
         Cliente cliente = clienteRepository.findById(clienteId)
                 .orElseThrow(() -> new IllegalArgumentException("Cliente não encontrado."));
 
-        // 1. Obter todas as contas ativas do cliente
-        List<Conta> contas = contaRepository.findByClienteIdAndExclusaoLogicaFalse(clienteId);
-
-        // 2. Contar o total de movimentações no período
-        long totalMovimentacoes = contas.stream()
-                .flatMap(conta -> movimentacaoRepository.findByContaIdAndDataMovimentacaoBetween(
-                        conta.getId(),
-                        periodoInicio.atStartOfDay(),
-                        periodoFim.atStartOfDay().plus(1, ChronoUnit.DAYS).minus(1, ChronoUnit.SECONDS)
-                ).stream())
-                .count();
+        // 1 e 2. Contar o total de movimentações das contas ativas do cliente no período (consolidado diário)
+        long totalMovimentacoes = movimentacaoDiariaRepository.contarPorClienteEPeriodo(clienteId, periodoInicio, periodoFim);
 
         // 3. Aplicar a regra de precificação
-        BigDecimal valorCobrado;
+        BigDecimal valorCobrado = calcularValorCobrado(totalMovimentacoes);
+
+        // 4. Salvar o registro da receita
+        if (!existente) {
+            return receitaXPTORepository.save(new ReceitaXPTO(
+                    cliente,
+                    periodoInicio,
+                    periodoFim,
+                    (int) totalMovimentacoes,
+                    valorCobrado
+            ));
+        }
+        ReceitaXPTO receita = receitaXPTORepository
+                .findByClienteIdAndPeriodoInicioAndPeriodoFim(clienteId, periodoInicio, periodoFim)
+                .orElseThrow(() -> new IllegalStateException("Receita do período não encontrada."));
+        receita.setQtdMovimentacoes((int) totalMovimentacoes);
+        receita.setValorCobrado(valorCobrado);
+        return receita;
+    }
+
+    /**
+     * Regra de precificação da XPTO por faixa de quantidade de movimentações no período.
+     */
+    public static BigDecimal calcularValorCobrado(long totalMovimentacoes) {
+        return ValorMonetario.deCentavos(calcularCentavosCobrados(totalMovimentacoes));
+    }
+
+    /**
+     * Mesma regra de {@link #calcularValorCobrado(long)}, em centavos.
+     */
+    public static long calcularCentavosCobrados(long totalMovimentacoes) {
         if (totalMovimentacoes <= 10) {
-            valorCobrado = BigDecimal.valueOf(totalMovimentacoes).multiply(new BigDecimal("1.00"));
+            return totalMovimentacoes * 100;
         } else if (totalMovimentacoes <= 20) {
             // 10 * 1.00 + (totalMovimentacoes - 10) * 0.75
-            valorCobrado = BigDecimal.valueOf(10).multiply(new BigDecimal("1.00"))
-                    .add(BigDecimal.valueOf(totalMovimentacoes - 10).multiply(new BigDecimal("0.75")));
+            return 10 * 100 + (totalMovimentacoes - 10) * 75;
         } else {
             // 10 * 1.00 + 10 * 0.75 + (totalMovimentacoes - 20) * 0.50
-            valorCobrado = BigDecimal.valueOf(10).multiply(new BigDecimal("1.00"))
-                    .add(BigDecimal.valueOf(10).multiply(new BigDecimal("0.75")))
-                    .add(BigDecimal.valueOf(totalMovimentacoes - 20).multiply(new BigDecimal("0.50")));
+            return 10 * 100 + 10 * 75 + (totalMovimentacoes - 20) * 50;
         }
-
-        // 4. Salvar o registro da receita
-        ReceitaXPTO receita = new ReceitaXPTO(
-                cliente,
-                periodoInicio,
-                periodoFim,
-                (int) totalMovimentacoes,
-                valorCobrado.setScale(2, RoundingMode.HALF_UP)
-        );
-
-        return receitaXPTORepository.save(receita);
     }
 
     /**
      * Gera o Relatório de Saldo do Cliente X.
      */
     public String gerarRelatorioSaldoCliente(Long clienteId) {
+        RelatorioSaldoCliente dados = montarRelatorioSaldoCliente(clienteId);
+
+        StringBuilder relatorio = new StringBuilder();
+        relatorio.append("--- Relatório de Saldo do Cliente ---\n");
+        escreverCabecalhoCliente(relatorio, dados);
+        LINHA_CREDITOS.em(relatorio).inteiro(dados.qtdCreditos());
+        LINHA_DEBITOS.em(relatorio).inteiro(dados.qtdDebitos());
+        LINHA_TOTAL_MOVIMENTACOES.em(relatorio).inteiro(dados.totalMovimentacoes());
+        LINHA_VALOR_PAGO.em(relatorio).moeda(dados.valorPago());
+        LINHA_SALDO_INICIAL.em(relatorio).moeda(dados.saldoInicial());
+        LINHA_SALDO_ATUAL.em(relatorio).moeda(dados.saldoAtual());
+        relatorio.append("--------------------------------------\n");
+
+        return relatorio.toString();
+    }
+
+    /**
+     * Dados do Relatório de Saldo do Cliente X, para escrita em qualquer formato.
+     */
+    public RelatorioSaldoCliente montarRelatorioSaldoCliente(Long clienteId) {
         Cliente cliente = clienteRepository.findById(clienteId)
                 .orElseThrow(() -> new IllegalArgumentException("Cliente não encontrado."));
 
         // 1. Obter dados básicos
-        String dataCadastro = cliente.getDataCadastro().toLocalDate().toString();
+        LocalDate dataCadastro = cliente.getDataCadastro().toLocalDate();
         Endereco endereco = cliente.getEnderecos().stream().findFirst().orElse(null); // Simplificação: pega o primeiro
 
-        // 2. Calcular saldos e movimentações
-        BigDecimal saldoInicialTotal = BigDecimal.ZERO;
-        BigDecimal saldoAtualTotal = BigDecimal.ZERO;
+        // 2. Calcular saldos e movimentações (a partir do saldo consolidado de cada conta), somados em centavos
+        long saldoInicialTotal = 0;
+        long saldoAtualTotal = 0;
         long creditos = 0;
         long debitos = 0;
 
         for (Conta conta : cliente.getContas()) {
-            saldoInicialTotal = saldoInicialTotal.add(conta.getSaldoInicial());
-
-            BigDecimal saldoConta = conta.getSaldoInicial();
-            for (Movimentacao mov : conta.getMovimentacoes()) {
-                if ("CREDITO".equals(mov.getTipo())) {
-                    saldoConta = saldoConta.add(mov.getValor());
-                    creditos++;
-                } else if ("DEBITO".equals(mov.getTipo())) {
-                    saldoConta = saldoConta.subtract(mov.getValor());
-                    debitos++;
-                }
-            }
-            saldoAtualTotal = saldoAtualTotal.add(saldoConta);
+            saldoInicialTotal = Math.addExact(saldoInicialTotal, ValorMonetario.centavos(conta.getSaldoInicial()));
+            saldoAtualTotal = Math.addExact(saldoAtualTotal, ValorMonetario.centavos(conta.getSaldoAtual()));
+            creditos += conta.getQtdCreditos();
+            debitos += conta.getQtdDebitos();
         }
 
-        long totalMovimentacoes = creditos + debitos;
-
         // 3. Obter valor pago pelas movimentações (último registro de receita)
         BigDecimal valorPago = cliente.getReceitasXPTO().stream()
                 .max((r1, r2) -> r1.getPeriodoFim().compareTo(r2.getPeriodoFim()))
                 .map(ReceitaXPTO::getValorCobrado)
                 .orElse(BigDecimal.ZERO);
 
-        // 4. Formatar o relatório
+        return RelatorioSaldoCliente.de(cliente.getId(), cliente.getNome(), dataCadastro, null, null, endereco,
+                creditos, debitos, valorPago,
+                ValorMonetario.deCentavos(saldoInicialTotal), ValorMonetario.deCentavos(saldoAtualTotal));
+    }
+
+    /**
+     * Gera o Relatório de Saldo do Cliente X e Período.
+     */
+    public String gerarRelatorioSaldoClientePorPeriodo(Long clienteId, LocalDate inicio, LocalDate fim) {
+        RelatorioSaldoCliente dados = montarRelatorioSaldoClientePorPeriodo(clienteId, inicio, fim);
+
         StringBuilder relatorio = new StringBuilder();
-        relatorio.append("--- Relatório de Saldo do Cliente ---\n");
-        relatorio.append(String.format("Cliente: %s - Cliente desde: %s\n", cliente.getNome(), dataCadastro));
-        if (endereco != null) {
-            relatorio.append(String.format("Endereço: %s, %s, %s, %s, %s, %s\n",
-                    endereco.getLogradouro(), endereco.getNumero(), endereco.getBairro(),
-                    endereco.getCidade(), endereco.getUf(), endereco.getCep()));
-        }
-        relatorio.append(String.format("Movimentações de crédito: %d\n", creditos));
-        relatorio.append(String.format("Movimentações de débito: %d\n", debitos));
-        relatorio.append(String.format("Total de movimentações: %d\n", totalMovimentacoes));
-        relatorio.append(String.format("Valor pago pelas movimentações: R$ %.2f\n", valorPago));
-        relatorio.append(String.format("Saldo inicial: R$ %.2f\n", saldoInicialTotal));
-        relatorio.append(String.format("Saldo atual: R$ %.2f\n", saldoAtualTotal));
-        relatorio.append("--------------------------------------\n");
+        relatorio.append("--- Relatório de Saldo do Cliente por Período ---\n");
+        LINHA_PERIODO.em(relatorio).data(inicio).data(fim);
+        escreverCabecalhoCliente(relatorio, dados);
+        LINHA_CREDITOS.em(relatorio).inteiro(dados.qtdCreditos());
+        LINHA_DEBITOS.em(relatorio).inteiro(dados.qtdDebitos());
+        LINHA_TOTAL_MOVIMENTACOES.em(relatorio).inteiro(dados.totalMovimentacoes());
+        LINHA_VALOR_PAGO_PERIODO.em(relatorio).moeda(dados.valorPago());
+        LINHA_SALDO_INICIAL_PERIODO.em(relatorio).moeda(dados.saldoInicial());
+        LINHA_SALDO_ATUAL_PERIODO.em(relatorio).moeda(dados.saldoAtual());
+        relatorio.append("--------------------------------------------------\n");
 
         return relatorio.toString();
     }
 
     /**
-     * Gera o Relatório de Saldo do Cliente X e Período.
+     * Dados do Relatório de Saldo do Cliente X e Período, para escrita em qualquer formato.
      */
-    public String gerarRelatorioSaldoClientePorPeriodo(Long clienteId, LocalDate inicio, LocalDate fim) {
+    public RelatorioSaldoCliente montarRelatorioSaldoClientePorPeriodo(Long clienteId, LocalDate inicio, LocalDate fim) {
         Cliente cliente = clienteRepository.findById(clienteId)
                 .orElseThrow(() -> new IllegalArgumentException("Cliente não encontrado."));
 
         // 1. Obter dados básicos
-        String dataCadastro = cliente.getDataCadastro().toLocalDate().toString();
+        LocalDate dataCadastro = cliente.getDataCadastro().toLocalDate();
         Endereco endereco = cliente.getEnderecos().stream().findFirst().orElse(null); // Simplificação: pega o primeiro
 
-        // 2. Calcular saldos e movimentações no período
-        long creditos = 0;
-        long debitos = 0;
-        BigDecimal saldoInicialPeriodo = BigDecimal.ZERO;
-        BigDecimal saldoAtualPeriodo = BigDecimal.ZERO;
-
-        LocalDateTime inicioDateTime = inicio.atStartOfDay();
-        LocalDateTime fimDateTime = fim.atStartOfDay().plus(1, ChronoUnit.DAYS).minus(1, ChronoUnit.SECONDS);
+        // 2. Calcular saldos e movimentações no período: o ponto de controle do saldo no mês de início
+        // e o consolidado diário das contas desde ele até o fim do período são lidos em colunas
+        // primitivas e totalizados em uma passada (somas em centavos)
+        TotalizadorMovimentacoes totalizador = new TotalizadorMovimentacoes();
+        movimentacaoDiariaService.carregarConsolidadoDoCliente(clienteId, inicio, fim, totalizador);
+        TotalizadorMovimentacoes.Totais totais = totalizador.totalizar(
+                TotalizadorMovimentacoes.instante(inicio), TotalizadorMovimentacoes.instante(fim.plusDays(1)));
 
+        long saldoInicialPeriodo = 0;
         for (Conta conta : cliente.getContas()) {
             // Saldo inicial do período: Saldo da conta na data de início
-            BigDecimal saldoContaNoInicio = conta.getSaldoInicial();
-            for (Movimentacao mov : conta.getMovimentacoes()) {
-                if (mov.getDataMovimentacao().isBefore(inicioDateTime)) {
-                    if ("CREDITO".equals(mov.getTipo())) {
-                        saldoContaNoInicio = saldoContaNoInicio.add(mov.getValor());
-                    } else if ("DEBITO".equals(mov.getTipo())) {
-                        saldoContaNoInicio = saldoContaNoInicio.subtract(mov.getValor());
-                    }
-                }
-            }
-            saldoInicialPeriodo = saldoInicialPeriodo.add(saldoContaNoInicio);
-
-            // Movimentações e saldo final no período
-            BigDecimal saldoContaNoFim = saldoContaNoInicio;
-            List<Movimentacao> movimentacoesPeriodo = movimentacaoRepository.findByContaIdAndDataMovimentacaoBetween(
-                    conta.getId(), inicioDateTime, fimDateTime);
-
-            for (Movimentacao mov : movimentacoesPeriodo) {
-                if ("CREDITO".equals(mov.getTipo())) {
-                    saldoContaNoFim = saldoContaNoFim.add(mov.getValor());
-                    creditos++;
-                } else if ("DEBITO".equals(mov.getTipo())) {
-                    saldoContaNoFim = saldoContaNoFim.subtract(mov.getValor());
-                    debitos++;
-                }
-            }
-            saldoAtualPeriodo = saldoAtualPeriodo.add(saldoContaNoFim);
+            long saldoContaNoInicio = Math.addExact(ValorMonetario.centavos(conta.getSaldoInicial()),
+                    totais.variacaoAntes(conta.getId()));
+            saldoInicialPeriodo = Math.addExact(saldoInicialPeriodo, saldoContaNoInicio);
         }
-
-        long totalMovimentacoes = creditos + debitos;
+        long saldoAtualPeriodo = Math.addExact(saldoInicialPeriodo, totais.variacaoNoPeriodo());
 
         // 3. Obter valor pago pelas movimentações (receita no período)
         BigDecimal valorPago = cliente.getReceitasXPTO().stream()
@@ -207,85 +278,202 @@ public class RelatorioService {
                 .map(ReceitaXPTO::getValorCobrado)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
-        // 4. Formatar o relatório
-        StringBuilder relatorio = new StringBuilder();
-        relatorio.append("--- Relatório de Saldo do Cliente por Período ---\n");
-        relatorio.append(String.format("Período: %s a %s\n", inicio.toString(), fim.toString()));
-        relatorio.append(String.format("Cliente: %s - Cliente desde: %s\n", cliente.getNome(), dataCadastro));
-        if (endereco != null) {
-            relatorio.append(String.format("Endereço: %s, %s, %s, %s, %s, %s\n",
-                    endereco.getLogradouro(), endereco.getNumero(), endereco.getBairro(),
-                    endereco.getCidade(), endereco.getUf(), endereco.getCep()));
-        }
-        relatorio.append(String.format("Movimentações de crédito: %d\n", creditos));
-        relatorio.append(String.format("Movimentações de débito: %d\n", debitos));
-        relatorio.append(String.format("Total de movimentações: %d\n", totalMovimentacoes));
-        relatorio.append(String.format("Valor pago pelas movimentações (no período): R$ %.2f\n", valorPago));
-        relatorio.append(String.format("Saldo inicial (no período): R$ %.2f\n", saldoInicialPeriodo));
-        relatorio.append(String.format("Saldo atual (no período): R$ %.2f\n", saldoAtualPeriodo));
-        relatorio.append("--------------------------------------------------\n");
+        return RelatorioSaldoCliente.de(cliente.getId(), cliente.getNome(), dataCadastro, inicio, fim, endereco,
+                totais.qtdCreditos(), totais.qtdDebitos(), valorPago,
+                ValorMonetario.deCentavos(saldoInicialPeriodo), ValorMonetario.deCentavos(saldoAtualPeriodo));
+    }
 
-        return relatorio.toString();
+    private static void escreverCabecalhoCliente(StringBuilder relatorio, RelatorioSaldoCliente dados) {
+        LINHA_CLIENTE.em(relatorio).texto(dados.nome()).data(dados.dataCadastro());
+        if (dados.possuiEndereco()) {
+            LINHA_ENDERECO.em(relatorio).texto(dados.logradouro()).texto(dados.numero())
+                    .texto(dados.bairro()).texto(dados.cidade()).texto(dados.uf()).texto(dados.cep());
+        }
     }
 
     /**
      * Gera o Relatório de Saldo de Todos os Clientes.
      */
     public String gerarRelatorioSaldoTodosClientes() {
-        List<Cliente> clientes = clienteRepository.findAll();
-        StringBuilder relatorio = new StringBuilder();
-        relatorio.append("--- Relatório de Saldo de Todos os Clientes ---\n");
-
-        for (Cliente cliente : clientes) {
-            BigDecimal saldoAtualTotal = BigDecimal.ZERO;
-            for (Conta conta : cliente.getContas()) {
-                BigDecimal saldoConta = conta.getSaldoInicial();
-                for (Movimentacao mov : conta.getMovimentacoes()) {
-                    if ("CREDITO".equals(mov.getTipo())) {
-                        saldoConta = saldoConta.add(mov.getValor());
-                    } else if ("DEBITO".equals(mov.getTipo())) {
-                        saldoConta = saldoConta.subtract(mov.getValor());
-                    }
-                }
-                saldoAtualTotal = saldoAtualTotal.add(saldoConta);
-            }
-            relatorio.append(String.format("Cliente: %s - Cliente desde: %s - Saldo em %s: R$ %.2f\n",
-                    cliente.getNome(),
-                    cliente.getDataCadastro().toLocalDate().toString(),
-                    LocalDate.now().toString(),
-                    saldoAtualTotal));
+        StringWriter relatorio = new StringWriter();
+        try {
+            escreverRelatorioSaldoTodosClientes(relatorio);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        relatorio.append("--------------------------------------------------\n");
         return relatorio.toString();
     }
 
     /**
-     * Gera o Relatório de Receita da Empresa (XPTO) por Período.
+     * Escreve o Relatório de Saldo de Todos os Clientes diretamente no writer.
+     */
+    public void escreverRelatorioSaldoTodosClientes(Writer writer) throws IOException {
+        String dataSaldo = LocalDate.now().toString();
+        writer.write("--- Relatório de Saldo de Todos os Clientes ---\n");
+
+        // Cada bloco de clientes é montado no mesmo buffer e enviado ao writer de uma vez
+        StringBuilder buffer = new StringBuilder(TAMANHO_BLOCO_CLIENTES * 96);
+        percorrerSaldosTodosClientes(bloco -> {
+            for (SaldoClienteResumo saldo : bloco) {
+                LINHA_SALDO_TODOS_CLIENTES.em(buffer)
+                        .texto(saldo.nome())
+                        .data(saldo.dataCadastro().toLocalDate())
+                        .texto(dataSaldo)
+                        .moeda(saldo.saldoAtual());
+            }
+            descarregar(buffer, writer);
+            writer.flush();
+        });
+
+        writer.write("--------------------------------------------------\n");
+        writer.flush();
+    }
+
+    /**
+     * Percorre o saldo de todos os clientes em blocos ordenados por ID, com o saldo somado no banco,
+     * de modo que o consumo de memória não depende da quantidade de clientes.
      */
+    public void percorrerSaldosTodosClientes(EscritaRelatorio<List<SaldoClienteResumo>> escrita) throws IOException {
+        Long ultimoId = 0L;
+        List<SaldoClienteResumo> bloco;
+        do {
+            bloco = clienteRepository.buscarSaldosAposId(ultimoId, PageRequest.of(0, TAMANHO_BLOCO_CLIENTES));
+            if (!bloco.isEmpty()) {
+                escrita.escrever(bloco);
+                ultimoId = bloco.get(bloco.size() - 1).clienteId();
+            }
+        } while (bloco.size() == TAMANHO_BLOCO_CLIENTES);
+    }
+
+    /**
+     * Gera o Relatório de Receita da Empresa (XPTO) por Período. Transacional aqui também: a chamada
+     * interna a escreverRelatorioReceitaXPTO não passa pelo proxy e a consulta em streaming exige transação.
+     */
+    @Transactional(readOnly = true)
     public String gerarRelatorioReceitaXPTO(LocalDate inicio, LocalDate fim) {
-        List<ReceitaXPTO> receitas = receitaXPTORepository.findByPeriodoInicioBetween(inicio, fim);
-        StringBuilder relatorio = new StringBuilder();
-        relatorio.append("--- Relatório de Receita da Empresa (XPTO) por Período ---\n");
-        relatorio.append(String.format("Período: %s a %s\n", inicio.toString(), fim.toString()));
-
-        BigDecimal totalReceitas = BigDecimal.ZERO;
-
-        // Agrupar por cliente
-        receitas.stream()
-                .collect(Collectors.groupingBy(ReceitaXPTO::getCliente))
-                .forEach((cliente, listaReceitas) -> {
-                    long qtdMovimentacoes = listaReceitas.stream().mapToLong(ReceitaXPTO::getQtdMovimentacoes).sum();
-                    BigDecimal valorTotalCobrado = listaReceitas.stream().map(ReceitaXPTO::getValorCobrado).reduce(BigDecimal.ZERO, BigDecimal::add);
-                    totalReceitas = totalReceitas.add(valorTotalCobrado);
-
-                    relatorio.append(String.format("Cliente %s - Quantidade de movimentações: %d - Valor das movimentações: R$ %.2f\n",
-                            cliente.getNome(),
-                            qtdMovimentacoes,
-                            valorTotalCobrado));
-                });
-
-        relatorio.append(String.format("Total de receitas: R$ %.2f\n", totalReceitas));
-        relatorio.append("------------------------------------------------------------\n");
+        StringWriter relatorio = new StringWriter();
+        try {
+            escreverRelatorioReceitaXPTO(inicio, fim, false, relatorio);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
         return relatorio.toString();
     }
+
+    /**
+     * Escreve o Relatório de Receita da Empresa (XPTO) diretamente no writer, com uma linha por
+     * cliente em ordem de ID.
+     */
+    @Transactional(readOnly = true)
+    public void escreverRelatorioReceitaXPTO(LocalDate inicio, LocalDate fim, boolean paralelo, Writer writer) throws IOException {
+        StringBuilder buffer = new StringBuilder(TAMANHO_BUFFER_RELATORIO + 256);
+        buffer.append("--- Relatório de Receita da Empresa (XPTO) por Período ---\n");
+        LINHA_PERIODO.em(buffer).data(inicio).data(fim);
+
+        long totalReceitas = percorrerReceitaXPTO(inicio, fim, paralelo,
+                receita -> escreverLinhaReceitaXPTO(buffer, writer, receita));
+
+        LINHA_TOTAL_RECEITAS.em(buffer).moeda(totalReceitas);
+        buffer.append("------------------------------------------------------------\n");
+        descarregar(buffer, writer);
+        writer.flush();
+    }
+
+    /**
+     * Percorre a receita XPTO por cliente no período, em ordem de ID, e devolve o total em centavos.
+     * Os totais por cliente são somados no banco em uma única consulta; com {@code paralelo}, o
+     * período é dividido em meses totalizados em paralelo (fork/join) e combinados ao final, para
+     * períodos longos.
+     */
+    @Transactional(readOnly = true)
+    public long percorrerReceitaXPTO(LocalDate inicio, LocalDate fim, boolean paralelo,
+                                     EscritaRelatorio<ReceitaXPTOCliente> escrita) throws IOException {
+        long totalReceitas = 0; // centavos
+        if (paralelo) {
+            for (ReceitaXPTOCliente receita : totalizarReceitaXPTOPorMeses(inicio, fim)) {
+                escrita.escrever(receita);
+                totalReceitas = Math.addExact(totalReceitas, ValorMonetario.centavos(receita.valorCobrado()));
+            }
+        } else {
+            try (Stream<ReceitaXPTOCliente> receitas = receitaXPTORepository.streamTotaisPorCliente(inicio, fim)) {
+                Iterator<ReceitaXPTOCliente> iterator = receitas.iterator();
+                while (iterator.hasNext()) {
+                    ReceitaXPTOCliente receita = iterator.next();
+                    escrita.escrever(receita);
+                    totalReceitas = Math.addExact(totalReceitas, ValorMonetario.centavos(receita.valorCobrado()));
+                }
+            }
+        }
+        return totalReceitas;
+    }
+
+    private static void escreverLinhaReceitaXPTO(StringBuilder buffer, Writer writer, ReceitaXPTOCliente receita) throws IOException {
+        LINHA_RECEITA_CLIENTE.em(buffer)
+                .texto(receita.nome())
+                .inteiro(receita.qtdMovimentacoes())
+                .moeda(receita.valorCobrado());
+        if (buffer.length() >= TAMANHO_BUFFER_RELATORIO) {
+            descarregar(buffer, writer);
+        }
+    }
+
+    private static void descarregar(StringBuilder buffer, Writer writer) throws IOException {
+        writer.append(buffer);
+        buffer.setLength(0);
+    }
+
+    /**
+     * Totaliza a receita por cliente mês a mês no pool fork/join e devolve os totais em ordem de ID.
+     */
+    private List<ReceitaXPTOCliente> totalizarReceitaXPTOPorMeses(LocalDate inicio, LocalDate fim) {
+        List<LocalDate[]> meses = new ArrayList<>();
+        for (LocalDate mes = inicio; !mes.isAfter(fim); mes = mes.withDayOfMonth(1).plusMonths(1)) {
+            LocalDate fimMes = mes.withDayOfMonth(mes.lengthOfMonth());
+            meses.add(new LocalDate[]{mes, fimMes.isAfter(fim) ? fim : fimMes});
+        }
+        Map<Long, ReceitaXPTOCliente> totais = poolTotalizacao.invoke(new TotalizacaoReceitaPorMeses(meses));
+        return List.copyOf(new TreeMap<>(totais).values());
+    }
+
+    /**
+     * Divide a lista de meses ao meio até restar um mês (ou nenhum, com período vazio), totalizado com a
+     * consulta agrupada; os resultados das metades são combinados somando os totais de cada cliente.
+     */
+    private class TotalizacaoReceitaPorMeses extends RecursiveTask<Map<Long, ReceitaXPTOCliente>> {
+
+        private final List<LocalDate[]> meses;
+
+        TotalizacaoReceitaPorMeses(List<LocalDate[]> meses) {
+            this.meses = meses;
+        }
+
+        @Override
+        protected Map<Long, ReceitaXPTOCliente> compute() {
+            if (meses.size() <= 1) {
+                Map<Long, ReceitaXPTOCliente> totais = new HashMap<>();
+                if (meses.isEmpty()) {
+                    return totais;
+                }
+                for (ReceitaXPTOCliente receita : receitaXPTORepository.totalizarPorCliente(meses.get(0)[0], meses.get(0)[1])) {
+                    totais.put(receita.clienteId(), receita);
+                }
+                return totais;
+            }
+            int meio = meses.size() / 2;
+            TotalizacaoReceitaPorMeses primeiraMetade = new TotalizacaoReceitaPorMeses(meses.subList(0, meio));
+            primeiraMetade.fork();
+            Map<Long, ReceitaXPTOCliente> totais = new TotalizacaoReceitaPorMeses(meses.subList(meio, meses.size())).compute();
+            primeiraMetade.join().forEach((clienteId, receita) -> totais.merge(clienteId, receita, ReceitaXPTOCliente::somar));
+            return totais;
+        }
+    }
+
+    /**
+     * Escrita de uma linha (ou bloco de linhas) do relatório no destino.
+     */
+    @FunctionalInterface
+    public interface EscritaRelatorio<T> {
+
+        void escrever(T linha) throws IOException;
+    }
 }
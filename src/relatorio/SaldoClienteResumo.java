@@ -0,0 +1,18 @@
+package com.xpto.desafio.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Projeção do saldo consolidado de um cliente (soma do saldo atual de suas contas),
+ * usada no relatório de saldo de todos os clientes.
+ */
+public record SaldoClienteResumo(Long clienteId, String nome, LocalDateTime dataCadastro, BigDecimal saldoAtual) {
+
+    public SaldoClienteResumo {
+        // Cliente sem contas não tem soma de saldo
+        if (saldoAtual == null) {
+            saldoAtual = BigDecimal.ZERO;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.xpto.desafio.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Núcleo de totalização dos relatórios sobre colunas primitivas: conta, instante (segundos desde
+ * a época), tipo (byte), valor em centavos e quantidade de movimentações da linha. Uma linha pode
+ * ser uma movimentação (quantidade 1) ou um registro já consolidado do mesmo tipo.
+ * <p>
+ * A carga e a totalização não criam objetos por linha: as colunas crescem em blocos e os totais
+ * por conta ficam em arrays indexados por uma tabela de endereçamento aberto.
+ */
+public final class TotalizadorMovimentacoes {
+
+    public static final byte CREDITO = 1;
+    public static final byte DEBITO = 2;
+
+    private static final int CAPACIDADE_INICIAL = 1024;
+    private static final long SEGUNDOS_POR_DIA = 86_400;
+
+    private long[] contas;
+    private long[] instantes;
+    private byte[] tipos;
+    private long[] centavos;
+    private long[] quantidades;
+    private int tamanho;
+
+    public TotalizadorMovimentacoes() {
+        this(CAPACIDADE_INICIAL);
+    }
+
+    public TotalizadorMovimentacoes(int capacidade) {
+        int inicial = Math.max(capacidade, 16);
+        contas = new long[inicial];
+        instantes = new long[inicial];
+        tipos = new byte[inicial];
+        centavos = new long[inicial];
+        quantidades = new long[inicial];
+    }
+
+    public void adicionar(long contaId, long instante, byte tipo, long valorCentavos, long quantidade) {
+        if (tamanho == contas.length) {
+            crescer();
+        }
+        contas[tamanho] = contaId;
+        instantes[tamanho] = instante;
+        tipos[tamanho] = tipo;
+        centavos[tamanho] = valorCentavos;
+        quantidades[tamanho] = quantidade;
+        tamanho++;
+    }
+
+    /**
+     * Instante do início do dia, em segundos desde a época (sem fuso, como as datas gravadas).
+     */
+    public static long instante(LocalDate dia) {
+        return dia.toEpochDay() * SEGUNDOS_POR_DIA;
+    }
+
+    public static long instante(LocalDateTime momento) {
+        return momento.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    public void limpar() {
+        tamanho = 0;
+    }
+
+    /**
+     * Totaliza em uma única passada, separando por conta o efeito no saldo antes do período e
+     * os créditos e débitos dentro dele ({@code inicio} inclusivo, {@code fim} exclusivo).
+     * Linhas a partir de {@code fim} são ignoradas.
+     */
+    public Totais totalizar(long inicio, long fim) {
+        Totais totais = new Totais();
+        for (int i = 0; i < tamanho; i++) {
+            long instante = instantes[i];
+            if (instante >= fim) {
+                continue;
+            }
+            int conta = totais.posicao(contas[i]);
+            long valor = tipos[i] == CREDITO ? centavos[i] : -centavos[i];
+            if (instante < inicio) {
+                totais.variacaoAntes[conta] += valor;
+            } else if (tipos[i] == CREDITO) {
+                totais.creditos[conta] += centavos[i];
+                totais.qtdCreditos[conta] += quantidades[i];
+            } else {
+                totais.debitos[conta] += centavos[i];
+                totais.qtdDebitos[conta] += quantidades[i];
+            }
+        }
+        return totais;
+    }
+
+    private void crescer() {
+        int novaCapacidade = contas.length + (contas.length >> 1);
+        contas = Arrays.copyOf(contas, novaCapacidade);
+        instantes = Arrays.copyOf(instantes, novaCapacidade);
+        tipos = Arrays.copyOf(tipos, novaCapacidade);
+        centavos = Arrays.copyOf(centavos, novaCapacidade);
+        quantidades = Arrays.copyOf(quantidades, novaCapacidade);
+    }
+
+    /**
+     * Totais por conta, em centavos. Contas sem linhas retornam zero.
+     */
+    public static final class Totais {
+
+        private static final long VAZIO = Long.MIN_VALUE;
+
+        private long[] chaves;
+        private int[] indices;
+        private int contasTotalizadas;
+
+        private long[] variacaoAntes;
+        private long[] creditos;
+        private long[] debitos;
+        private long[] qtdCreditos;
+        private long[] qtdDebitos;
+
+        private Totais() {
+            chaves = new long[16];
+            Arrays.fill(chaves, VAZIO);
+            indices = new int[16];
+            variacaoAntes = new long[8];
+            creditos = new long[8];
+            debitos = new long[8];
+            qtdCreditos = new long[8];
+            qtdDebitos = new long[8];
+        }
+
+        public long variacaoAntes(long contaId) {
+            int i = buscar(contaId);
+            return i < 0 ? 0 : variacaoAntes[i];
+        }
+
+        public long variacaoNoPeriodo(long contaId) {
+            int i = buscar(contaId);
+            return i < 0 ? 0 : creditos[i] - debitos[i];
+        }
+
+        public long qtdCreditos() {
+            return somar(qtdCreditos);
+        }
+
+        public long qtdDebitos() {
+            return somar(qtdDebitos);
+        }
+
+        public long variacaoNoPeriodo() {
+            return somar(creditos) - somar(debitos);
+        }
+
+        private long somar(long[] valores) {
+            long soma = 0;
+            for (int i = 0; i < contasTotalizadas; i++) {
+                soma = Math.addExact(soma, valores[i]);
+            }
+            return soma;
+        }
+
+        private int buscar(long contaId) {
+            int mascara = chaves.length - 1;
+            for (int slot = espalhar(contaId) & mascara; chaves[slot] != VAZIO; slot = (slot + 1) & mascara) {
+                if (chaves[slot] == contaId) {
+                    return indices[slot];
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Posição da conta nos arrays de totais, incluindo-a na primeira ocorrência.
+         */
+        private int posicao(long contaId) {
+            int mascara = chaves.length - 1;
+            int slot = espalhar(contaId) & mascara;
+            for (; chaves[slot] != VAZIO; slot = (slot + 1) & mascara) {
+                if (chaves[slot] == contaId) {
+                    return indices[slot];
+                }
+            }
+            if (contasTotalizadas == variacaoAntes.length) {
+                int capacidade = variacaoAntes.length * 2;
+                variacaoAntes = Arrays.copyOf(variacaoAntes, capacidade);
+                creditos = Arrays.copyOf(creditos, capacidade);
+                debitos = Arrays.copyOf(debitos, capacidade);
+                qtdCreditos = Arrays.copyOf(qtdCreditos, capacidade);
+                qtdDebitos = Arrays.copyOf(qtdDebitos, capacidade);
+            }
+            int indice = contasTotalizadas++;
+            chaves[slot] = contaId;
+            indices[slot] = indice;
+            // Ocupação máxima de 50% da tabela
+            if (contasTotalizadas * 2 > chaves.length) {
+                redistribuir();
+            }
+            return indice;
+        }
+
+        private void redistribuir() {
+            long[] chavesAntigas = chaves;
+            int[] indicesAntigos = indices;
+            chaves = new long[chavesAntigas.length * 2];
+            Arrays.fill(chaves, VAZIO);
+            indices = new int[chaves.length];
+            int mascara = chaves.length - 1;
+            for (int i = 0; i < chavesAntigas.length; i++) {
+                if (chavesAntigas[i] != VAZIO) {
+                    int slot = espalhar(chavesAntigas[i]) & mascara;
+                    while (chaves[slot] != VAZIO) {
+                        slot = (slot + 1) & mascara;
+                    }
+                    chaves[slot] = chavesAntigas[i];
+                    indices[slot] = indicesAntigos[i];
+                }
+            }
+        }
+
+        private static int espalhar(long contaId) {
+            long h = contaId * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.xpto.desafio.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TotalizadorMovimentacoesTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2024, 3, 1);
+    private static final LocalDate FIM = LocalDate.of(2024, 3, 31);
+
+    private static final long INSTANTE_INICIO = TotalizadorMovimentacoes.instante(INICIO);
+    private static final long INSTANTE_FIM = TotalizadorMovimentacoes.instante(FIM.plusDays(1));
+
+    @Test
+    void deveConsiderarInicioInclusivoEFimExclusivo() {
+        TotalizadorMovimentacoes totalizador = new TotalizadorMovimentacoes();
+        totalizador.adicionar(1, INSTANTE_INICIO - 1, TotalizadorMovimentacoes.CREDITO, 100, 1);
+        totalizador.adicionar(1, INSTANTE_INICIO, TotalizadorMovimentacoes.CREDITO, 200, 1);
+        totalizador.adicionar(1, TotalizadorMovimentacoes.instante(LocalDateTime.of(2024, 3, 31, 23, 59, 59)),
+                TotalizadorMovimentacoes.DEBITO, 50, 1);
+        totalizador.adicionar(1, INSTANTE_FIM, TotalizadorMovimentacoes.DEBITO, 1_000, 1);
+
+        TotalizadorMovimentacoes.Totais totais = totalizador.totalizar(INSTANTE_INICIO, INSTANTE_FIM);
+
+        assertEquals(100, totais.variacaoAntes(1));
+        assertEquals(150, totais.variacaoNoPeriodo(1));
+        assertEquals(1, totais.qtdCreditos());
+        assertEquals(1, totais.qtdDebitos());
+    }
+
+    @Test
+    void deveSomarLinhasConsolidadasEAvulsas() {
+        TotalizadorMovimentacoes totalizador = new TotalizadorMovimentacoes();
+        // Ponto de controle (quantidade 0), consolidado diário e movimentações avulsas da mesma conta
+        totalizador.adicionar(7, INSTANTE_INICIO - 1, TotalizadorMovimentacoes.DEBITO, 3_000, 0);
+        totalizador.adicionar(7, TotalizadorMovimentacoes.instante(LocalDate.of(2024, 3, 2)),
+                TotalizadorMovimentacoes.CREDITO, 12_345, 5);
+        totalizador.adicionar(7, TotalizadorMovimentacoes.instante(LocalDate.of(2024, 3, 2)),
+                TotalizadorMovimentacoes.DEBITO, 2_000, 3);
+        totalizador.adicionar(7, TotalizadorMovimentacoes.instante(LocalDateTime.of(2024, 3, 10, 8, 30)),
+                TotalizadorMovimentacoes.CREDITO, 1, 1);
+        totalizador.adicionar(7, TotalizadorMovimentacoes.instante(LocalDateTime.of(2024, 3, 10, 8, 30)),
+                TotalizadorMovimentacoes.DEBITO, 99, 1);
+
+        TotalizadorMovimentacoes.Totais totais = totalizador.totalizar(INSTANTE_INICIO, INSTANTE_FIM);
+
+        assertEquals(-3_000, totais.variacaoAntes(7));
+        assertEquals(12_345 + 1 - 2_000 - 99, totais.variacaoNoPeriodo(7));
+        assertEquals(6, totais.qtdCreditos());
+        assertEquals(4, totais.qtdDebitos());
+    }
+
+    @Test
+    void deveTotalizarContaQueSoTemLinhasAntesDoPeriodo() {
+        TotalizadorMovimentacoes totalizador = new TotalizadorMovimentacoes();
+        totalizador.adicionar(1, INSTANTE_INICIO - 86_400, TotalizadorMovimentacoes.CREDITO, 500, 1);
+        totalizador.adicionar(2, INSTANTE_INICIO, TotalizadorMovimentacoes.CREDITO, 10, 1);
+
+        TotalizadorMovimentacoes.Totais totais = totalizador.totalizar(INSTANTE_INICIO, INSTANTE_FIM);
+
+        assertEquals(500, totais.variacaoAntes(1));
+        assertEquals(0, totais.variacaoNoPeriodo(1));
+        assertEquals(0, totais.variacaoAntes(2));
+        assertEquals(10, totais.variacaoNoPeriodo(2));
+        // Conta sem linhas
+        assertEquals(0, totais.variacaoAntes(3));
+        assertEquals(0, totais.variacaoNoPeriodo(3));
+        assertEquals(10, totais.variacaoNoPeriodo());
+        assertEquals(1, totais.qtdCreditos());
+        assertEquals(0, totais.qtdDebitos());
+    }
+
+    @Test
+    void deveTotalizarMaisContasQueATabelaInicial() {
+        // Mais contas que a tabela inicial de 16 posições e que a capacidade inicial das colunas,
+        // com IDs múltiplos de 1024 (mesmos bits baixos) e em ordem aleatória
+        Random random = new Random(42);
+        TotalizadorMovimentacoes totalizador = new TotalizadorMovimentacoes(16);
+        Map<Long, long[]> esperado = new HashMap<>();
+        long periodo = INSTANTE_FIM - INSTANTE_INICIO;
+        for (int i = 0; i < 20_000; i++) {
+            long contaId = (random.nextInt(3_000) + 1) * 1024L;
+            long instante = INSTANTE_INICIO - periodo + (long) (random.nextDouble() * periodo * 3);
+            byte tipo = random.nextBoolean() ? TotalizadorMovimentacoes.CREDITO : TotalizadorMovimentacoes.DEBITO;
+            long valor = random.nextInt(1_000_000);
+            long quantidade = random.nextInt(4);
+            totalizador.adicionar(contaId, instante, tipo, valor, quantidade);
+
+            long[] conta = esperado.computeIfAbsent(contaId, id -> new long[4]);
+            long variacao = tipo == TotalizadorMovimentacoes.CREDITO ? valor : -valor;
+            if (instante < INSTANTE_INICIO) {
+                conta[0] += variacao;
+            } else if (instante < INSTANTE_FIM) {
+                conta[1] += variacao;
+                conta[tipo == TotalizadorMovimentacoes.CREDITO ? 2 : 3] += quantidade;
+            }
+        }
+        assertEquals(20_000, totalizador.tamanho());
+
+        TotalizadorMovimentacoes.Totais totais = totalizador.totalizar(INSTANTE_INICIO, INSTANTE_FIM);
+
+        long variacaoNoPeriodo = 0;
+        long qtdCreditos = 0;
+        long qtdDebitos = 0;
+        for (Map.Entry<Long, long[]> conta : esperado.entrySet()) {
+            assertEquals(conta.getValue()[0], totais.variacaoAntes(conta.getKey()), "conta " + conta.getKey());
+            assertEquals(conta.getValue()[1], totais.variacaoNoPeriodo(conta.getKey()), "conta " + conta.getKey());
+            variacaoNoPeriodo += conta.getValue()[1];
+            qtdCreditos += conta.getValue()[2];
+            qtdDebitos += conta.getValue()[3];
+        }
+        assertTrue(esperado.size() > 16);
+        assertEquals(variacaoNoPeriodo, totais.variacaoNoPeriodo());
+        assertEquals(qtdCreditos, totais.qtdCreditos());
+        assertEquals(qtdDebitos, totais.qtdDebitos());
+        assertEquals(0, totais.variacaoAntes(1024L * 5_000));
+    }
+
+    @Test
+    void deveReaproveitarColunasAposLimpar() {
+        TotalizadorMovimentacoes totalizador = new TotalizadorMovimentacoes();
+        totalizador.adicionar(1, INSTANTE_INICIO, TotalizadorMovimentacoes.CREDITO, 100, 1);
+        totalizador.limpar();
+        totalizador.adicionar(2, INSTANTE_INICIO, TotalizadorMovimentacoes.DEBITO, 40, 1);
+
+        TotalizadorMovimentacoes.Totais totais = totalizador.totalizar(INSTANTE_INICIO, INSTANTE_FIM);
+
+        assertEquals(1, totalizador.tamanho());
+        assertEquals(0, totais.variacaoNoPeriodo(1));
+        assertEquals(-40, totais.variacaoNoPeriodo(2));
+    }
+}